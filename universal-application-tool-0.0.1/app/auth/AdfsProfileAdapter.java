@@ -52,6 +52,7 @@ public class AdfsProfileAdapter extends UatProfileAdapter {
                 account.save();
               })
           .join();
+      profile.invalidateAccount();
     }
   }
 
@@ -1,6 +1,5 @@
 package auth;
 
-import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.nimbusds.jose.util.DefaultResourceRetriever;
@@ -13,8 +12,8 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
-import java.util.concurrent.CompletionStage;
 import javax.inject.Provider;
+import models.Applicant;
 import org.pac4j.core.credentials.Credentials;
 import org.pac4j.oidc.client.OidcClient;
 import org.pac4j.oidc.config.OidcConfiguration;
@@ -46,7 +45,7 @@ public class IdcsProfileAdapter extends UatProfileAdapter {
 
   @Override
   protected ImmutableSet<Roles> roles(UatProfile profile, OidcProfile oidcProfile) {
-    if (profile.getAccount().join().getMemberOfGroup().isPresent()) {
+    if (profile.getCachedAccount().join().trustedIntermediary()) {
       return ImmutableSet.of(Roles.ROLE_APPLICANT, Roles.ROLE_TI);
     }
     return ImmutableSet.of(Roles.ROLE_APPLICANT);
@@ -60,33 +59,20 @@ public class IdcsProfileAdapter extends UatProfileAdapter {
   @Override
   public UatProfileData mergeUatProfile(UatProfile uatProfile, OidcProfile oidcProfile) {
     String locale = oidcProfile.getAttribute("user_locale", String.class);
-    ImmutableList.Builder<CompletionStage<Void>> dbOperations =
-        new ImmutableList.Builder<CompletionStage<Void>>();
-    if (locale != null && !locale.isEmpty()) {
-      dbOperations.add(
-          uatProfile
-              .getApplicant()
-              .thenApplyAsync(
-                  applicant -> {
-                    applicant.getApplicantData().setPreferredLocale(Locale.forLanguageTag(locale));
-                    applicant.save();
-                    return null;
-                  }));
-    }
     String displayName = oidcProfile.getAttribute("user_displayname", String.class);
-    if (displayName != null && !displayName.isEmpty()) {
-      dbOperations.add(
-          uatProfile
-              .getApplicant()
-              .thenApplyAsync(
-                  applicant -> {
-                    applicant.getApplicantData().setUserName(displayName);
-                    applicant.save();
-                    return null;
-                  }));
-    }
-    for (CompletionStage<Void> dbOp : dbOperations.build()) {
-      dbOp.toCompletableFuture().join();
+    boolean hasLocale = locale != null && !locale.isEmpty();
+    boolean hasDisplayName = displayName != null && !displayName.isEmpty();
+    if (hasLocale || hasDisplayName) {
+      // Make both changes to one applicant and save it once, so that they cannot conflict.
+      Applicant applicant = uatProfile.getApplicant().join();
+      if (hasLocale) {
+        applicant.getApplicantData().setPreferredLocale(Locale.forLanguageTag(locale));
+      }
+      if (hasDisplayName) {
+        applicant.getApplicantData().setUserName(displayName);
+      }
+      applicant.save();
+      uatProfile.invalidateAccount();
     }
 
     return super.mergeUatProfile(uatProfile, oidcProfile);
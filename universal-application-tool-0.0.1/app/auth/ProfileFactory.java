@@ -6,8 +6,10 @@ import javax.inject.Provider;
 import models.Account;
 import models.Applicant;
 import play.libs.concurrent.HttpExecutionContext;
+import repository.AccountCache;
 import repository.DatabaseExecutionContext;
 import repository.ProgramRepository;
+import repository.UserRepository;
 import repository.VersionRepository;
 
 public class ProfileFactory {
@@ -16,17 +18,23 @@ public class ProfileFactory {
   private HttpExecutionContext httpContext;
   private Provider<ProgramRepository> programRepositoryProvider;
   private Provider<VersionRepository> versionRepositoryProvider;
+  private AccountCache accountCache;
+  private Provider<UserRepository> userRepositoryProvider;
 
   @Inject
   public ProfileFactory(
       DatabaseExecutionContext dbContext,
       HttpExecutionContext httpContext,
       Provider<ProgramRepository> programRepositoryProvider,
-      Provider<VersionRepository> versionRepositoryProvider) {
+      Provider<VersionRepository> versionRepositoryProvider,
+      AccountCache accountCache,
+      Provider<UserRepository> userRepositoryProvider) {
     this.dbContext = Preconditions.checkNotNull(dbContext);
     this.httpContext = Preconditions.checkNotNull(httpContext);
     this.programRepositoryProvider = Preconditions.checkNotNull(programRepositoryProvider);
     this.versionRepositoryProvider = Preconditions.checkNotNull(versionRepositoryProvider);
+    this.accountCache = Preconditions.checkNotNull(accountCache);
+    this.userRepositoryProvider = Preconditions.checkNotNull(userRepositoryProvider);
   }
 
   public UatProfileData createNewApplicant() {
@@ -35,7 +43,8 @@ public class ProfileFactory {
 
   public UatProfileData createNewAdmin() {
     UatProfileData p = create(Roles.ROLE_UAT_ADMIN);
-    wrapProfileData(p)
+    UatProfile profile = wrapProfileData(p);
+    profile
         .getAccount()
         .thenAccept(
             account -> {
@@ -43,11 +52,18 @@ public class ProfileFactory {
               account.save();
             })
         .join();
+    profile.invalidateAccount();
     return p;
   }
 
   public UatProfile wrapProfileData(UatProfileData p) {
-    return new UatProfile(dbContext, httpContext, p, programRepositoryProvider.get());
+    return new UatProfile(
+        dbContext,
+        httpContext,
+        p,
+        programRepositoryProvider.get(),
+        accountCache,
+        userRepositoryProvider.get());
   }
 
   private UatProfileData create(Roles role) {
@@ -67,7 +83,8 @@ public class ProfileFactory {
 
   public UatProfileData createNewProgramAdmin() {
     UatProfileData p = create(Roles.ROLE_PROGRAM_ADMIN);
-    wrapProfileData(p)
+    UatProfile profile = wrapProfileData(p);
+    profile
         .getAccount()
         .thenAccept(
             account -> {
@@ -81,6 +98,7 @@ public class ProfileFactory {
               account.save();
             })
         .join();
+    profile.invalidateAccount();
     return p;
   }
 }
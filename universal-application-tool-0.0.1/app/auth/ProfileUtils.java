@@ -45,7 +45,7 @@ public class ProfileUtils {
   /** Return true if the account referenced by the profile exists. */
   public boolean validUatProfile(UatProfile profile) {
     try {
-      profile.getAccount().join();
+      profile.getCachedAccount().join();
       return true;
     } catch (CompletionException e) {
       if (e.getCause() instanceof AccountNonexistentException) {
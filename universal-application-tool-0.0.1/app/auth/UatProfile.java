@@ -3,19 +3,18 @@ package auth;
 import static java.util.concurrent.CompletableFuture.supplyAsync;
 
 import com.google.common.base.Preconditions;
-import com.google.common.collect.ImmutableList;
-import java.util.Comparator;
-import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
-import java.util.stream.Stream;
 import javax.inject.Inject;
 import javax.persistence.EntityNotFoundException;
 import models.Account;
 import models.Applicant;
 import play.libs.concurrent.HttpExecutionContext;
+import repository.AccountCache;
+import repository.AccountCache.CachedAccount;
 import repository.DatabaseExecutionContext;
 import repository.ProgramRepository;
+import repository.UserRepository;
 
 /**
  * This is a "pure" wrapper of UatProfileData. Since UatProfileData is the serialized data about a
@@ -27,30 +26,43 @@ public class UatProfile {
   private HttpExecutionContext httpContext;
   private UatProfileData profileData;
   private ProgramRepository programRepository;
+  private AccountCache accountCache;
+  private UserRepository userRepository;
+  // The cached account, once it has been looked up by this profile.
+  private CompletableFuture<CachedAccount> cachedAccount;
 
   @Inject
   public UatProfile(
       DatabaseExecutionContext dbContext,
       HttpExecutionContext httpContext,
       UatProfileData profileData,
-      ProgramRepository programRepository) {
+      ProgramRepository programRepository,
+      AccountCache accountCache,
+      UserRepository userRepository) {
     this.dbContext = Preconditions.checkNotNull(dbContext);
     this.httpContext = Preconditions.checkNotNull(httpContext);
     this.profileData = Preconditions.checkNotNull(profileData);
     this.programRepository = Preconditions.checkNotNull(programRepository);
+    this.accountCache = Preconditions.checkNotNull(accountCache);
+    this.userRepository = Preconditions.checkNotNull(userRepository);
   }
 
+  /**
+   * Returns the first applicant of this profile's account, freshly loaded from the database. Each
+   * call loads a new {@link Applicant}, so callers may change and save it.
+   */
   public CompletableFuture<Applicant> getApplicant() {
-    return this.getAccount()
+    return this.getCachedAccount()
         .thenApplyAsync(
-            (a) ->
-                a.getApplicants().stream()
-                    .sorted(Comparator.comparing((applicant) -> applicant.getWhenCreated()))
-                    .findFirst()
-                    .orElseThrow(),
-            httpContext.current());
+            account -> userRepository.lookupFirstApplicantSync(account.id()).orElseThrow(),
+            dbContext);
   }
 
+  /**
+   * Returns the account of this profile, freshly loaded from the database. Each call loads a new
+   * {@link Account}, so callers may change it, but they must call {@link #invalidateAccount()}
+   * after saving it. Checks that only read the account should use {@link #getCachedAccount()}.
+   */
   public CompletableFuture<Account> getAccount() {
     return supplyAsync(
         () -> {
@@ -66,6 +78,37 @@ public class UatProfile {
         dbContext);
   }
 
+  /**
+   * Returns what authorization checks need to know about the account of this profile, from the
+   * {@link AccountCache}. It is looked up once per profile, and a profile is wrapped for each
+   * request, so the checks made while handling a request share a single lookup.
+   */
+  public synchronized CompletableFuture<CachedAccount> getCachedAccount() {
+    if (cachedAccount == null) {
+      long accountId = Long.valueOf(this.profileData.getId());
+      cachedAccount =
+          supplyAsync(
+              () ->
+                  accountCache
+                      .getAccount(accountId)
+                      .orElseThrow(
+                          () ->
+                              new AccountNonexistentException(
+                                  String.format("Account %d does not exist.", accountId))),
+              dbContext);
+    }
+    return cachedAccount;
+  }
+
+  /**
+   * Discards the account of this profile from the {@link AccountCache} and from this profile, so
+   * that it is looked up again the next time it is needed.
+   */
+  public synchronized void invalidateAccount() {
+    accountCache.invalidate(Long.valueOf(this.profileData.getId()));
+    cachedAccount = null;
+  }
+
   public String getClientName() {
     return profileData.getClientName();
   }
@@ -94,6 +137,7 @@ public class UatProfile {
               if (existingEmail == null || existingEmail.isEmpty()) {
                 a.setEmailAddress(emailAddress);
                 a.save();
+                invalidateAccount();
               } else if (!existingEmail.equals(emailAddress)) {
                 throw new ProfileMergeConflictException(
                     String.format(
@@ -107,7 +151,8 @@ public class UatProfile {
   }
 
   public CompletableFuture<String> getEmailAddress() {
-    return this.getAccount().thenApplyAsync(Account::getEmailAddress, httpContext.current());
+    return this.getCachedAccount()
+        .thenApplyAsync(account -> account.emailAddress().orElse(null), httpContext.current());
   }
 
   public UatProfileData getProfileData() {
@@ -115,23 +160,12 @@ public class UatProfile {
   }
 
   public CompletableFuture<Void> checkAuthorization(long applicantId) {
-    return getAccount()
-        .thenApplyAsync(
-            account ->
-                Stream.concat(
-                        account
-                            .getMemberOfGroup()
-                            .flatMap(tiGroup -> Optional.of(tiGroup.getManagedAccounts().stream()))
-                            .orElse(Stream.of()),
-                        Stream.of(account))
-                    .map(Account::ownedApplicantIds)
-                    .reduce(
-                        ImmutableList.of(),
-                        (one, two) ->
-                            new ImmutableList.Builder<Long>().addAll(one).addAll(two).build()))
-        .thenApplyAsync(
-            idList -> {
-              if (!idList.contains(applicantId)) {
+    long accountId = Long.valueOf(getId());
+    return supplyAsync(
+            () -> userRepository.isAuthorizedForApplicant(accountId, applicantId), dbContext)
+        .thenApply(
+            authorized -> {
+              if (!authorized) {
                 throw new SecurityException(
                     String.format(
                         "Account %s is not authorized to access applicant %d",
@@ -141,20 +175,33 @@ public class UatProfile {
             });
   }
 
+  /**
+   * Completes if this profile's account may administer the program with the given name, and fails
+   * with a {@link SecurityException} otherwise. The program's administrators are only looked up,
+   * on the {@link DatabaseExecutionContext}, for global admins who do not administer the program
+   * themselves.
+   */
   public CompletableFuture<Void> checkProgramAuthorization(String programName) {
-    return this.getAccount()
-        .thenApply(
+    return this.getCachedAccount()
+        .thenCompose(
             account -> {
-              if (account.getAdministeredProgramNames().stream()
+              if (account.administeredProgramNames().stream()
                   .anyMatch(program -> program.equals(programName))) {
-                return null;
+                return CompletableFuture.completedFuture(true);
+              }
+              if (!account.globalAdmin()) {
+                return CompletableFuture.completedFuture(false);
               }
-              if (account.getGlobalAdmin()) {
-                // If there are no administrators for this program, then all global
-                // admins count as administrators.
-                if (this.programRepository.getProgramAdministrators(programName).isEmpty()) {
-                  return null;
-                }
+              // If there are no administrators for this program, then all global
+              // admins count as administrators.
+              return supplyAsync(
+                  () -> this.programRepository.getProgramAdministrators(programName).isEmpty(),
+                  dbContext);
+            })
+        .thenApply(
+            authorized -> {
+              if (authorized) {
+                return null;
               }
               throw new SecurityException(
                   String.format(
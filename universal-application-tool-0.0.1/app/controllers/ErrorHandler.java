@@ -0,0 +1,51 @@
+package controllers;
+
+import static java.util.concurrent.CompletableFuture.completedFuture;
+
+import com.google.common.base.Throwables;
+import com.typesafe.config.Config;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.RejectedExecutionException;
+import javax.inject.Inject;
+import javax.inject.Provider;
+import javax.inject.Singleton;
+import play.Environment;
+import play.api.OptionalSourceMapper;
+import play.api.routing.Router;
+import play.http.DefaultHttpErrorHandler;
+import play.mvc.Http;
+import play.mvc.Result;
+import play.mvc.Results;
+
+/**
+ * Handles errors that controllers don't handle themselves.
+ *
+ * <p>Requests that failed because a {@link repository.InstrumentedExecutionContext} rejected their
+ * database work are answered with 503 Service Unavailable rather than 500, since the server is
+ * overloaded rather than broken and the request can be retried.
+ */
+@Singleton
+public class ErrorHandler extends DefaultHttpErrorHandler {
+
+  private static final String RETRY_AFTER_SECONDS = "5";
+
+  @Inject
+  public ErrorHandler(
+      Config config,
+      Environment environment,
+      OptionalSourceMapper sourceMapper,
+      Provider<Router> routes) {
+    super(config, environment, sourceMapper, routes);
+  }
+
+  @Override
+  public CompletionStage<Result> onServerError(Http.RequestHeader request, Throwable exception) {
+    if (Throwables.getCausalChain(exception).stream()
+        .anyMatch(cause -> cause instanceof RejectedExecutionException)) {
+      return completedFuture(
+          Results.status(Http.Status.SERVICE_UNAVAILABLE, "The server is busy, please try again.")
+              .withHeader(Http.HeaderNames.RETRY_AFTER, RETRY_AFTER_SECONDS));
+    }
+    return super.onServerError(request, exception);
+  }
+}
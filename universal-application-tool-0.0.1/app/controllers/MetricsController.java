@@ -0,0 +1,61 @@
+package controllers;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.typesafe.config.Config;
+import io.micrometer.prometheus.PrometheusMeterRegistry;
+import io.prometheus.client.exporter.common.TextFormat;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Optional;
+import javax.inject.Inject;
+import play.mvc.Controller;
+import play.mvc.Http;
+import play.mvc.Result;
+
+/**
+ * Serves the application's metrics in the Prometheus text format.
+ *
+ * <p>Metrics describe the load on the server and how it is used, so they are only served to
+ * scrapers that send the bearer token configured as {@code metrics.bearer_token}. If no token is
+ * configured, the endpoint is disabled.
+ */
+public class MetricsController extends Controller {
+
+  private static final String BEARER_PREFIX = "Bearer ";
+
+  private final PrometheusMeterRegistry registry;
+  private final Optional<byte[]> bearerToken;
+
+  @Inject
+  public MetricsController(PrometheusMeterRegistry registry, Config configuration) {
+    this.registry = checkNotNull(registry);
+    String token =
+        checkNotNull(configuration).hasPath("metrics.bearer_token")
+            ? configuration.getString("metrics.bearer_token")
+            : "";
+    this.bearerToken =
+        token.isEmpty() ? Optional.empty() : Optional.of(token.getBytes(StandardCharsets.UTF_8));
+  }
+
+  public Result index(Http.Request request) {
+    if (bearerToken.isEmpty()) {
+      return notFound();
+    }
+    if (!isAuthorized(request)) {
+      return unauthorized().withHeader(Http.HeaderNames.WWW_AUTHENTICATE, "Bearer");
+    }
+    return ok(registry.scrape()).as(TextFormat.CONTENT_TYPE_004);
+  }
+
+  private boolean isAuthorized(Http.Request request) {
+    Optional<String> authorization = request.header(Http.HeaderNames.AUTHORIZATION);
+    if (authorization.isEmpty() || !authorization.get().startsWith(BEARER_PREFIX)) {
+      return false;
+    }
+    // Compared in constant time, so response times do not give the token away.
+    return MessageDigest.isEqual(
+        bearerToken.get(),
+        authorization.get().substring(BEARER_PREFIX.length()).getBytes(StandardCharsets.UTF_8));
+  }
+}
@@ -8,19 +8,20 @@ import com.google.common.collect.ImmutableList;
 import controllers.CiviFormController;
 import java.time.Clock;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
 import javax.inject.Inject;
 import models.Application;
-import models.Program;
 import org.pac4j.play.java.Secure;
+import play.libs.concurrent.HttpExecutionContext;
 import play.mvc.Http;
 import play.mvc.Result;
+import repository.ApplicationCursor;
 import repository.ApplicationRepository;
-import services.PaginationInfo;
 import services.applicant.AnswerData;
 import services.applicant.ApplicantService;
 import services.applicant.Block;
-import services.applicant.ReadOnlyApplicantProgramService;
 import services.export.ExporterService;
 import services.program.ProgramDefinition;
 import services.program.ProgramNotFoundException;
@@ -39,6 +40,7 @@ public class AdminApplicationController extends CiviFormController {
   private final ExporterService exporterService;
   private final ProfileUtils profileUtils;
   private final Clock clock;
+  private final HttpExecutionContext httpExecutionContext;
   private static final int PAGE_SIZE = 10;
 
   @Inject
@@ -50,7 +52,8 @@ public class AdminApplicationController extends CiviFormController {
       ProgramApplicationView applicationView,
       ApplicationRepository applicationRepository,
       ProfileUtils profileUtils,
-      Clock clock) {
+      Clock clock,
+      HttpExecutionContext httpExecutionContext) {
     this.programService = checkNotNull(programService);
     this.applicantService = checkNotNull(applicantService);
     this.applicationListView = checkNotNull(applicationListView);
@@ -59,24 +62,27 @@ public class AdminApplicationController extends CiviFormController {
     this.applicationRepository = checkNotNull(applicationRepository);
     this.clock = clock;
     this.exporterService = checkNotNull(exporterService);
+    this.httpExecutionContext = checkNotNull(httpExecutionContext);
   }
 
   @Secure(authorizers = Authorizers.Labels.ANY_ADMIN)
-  public Result downloadAll(Http.Request request, long programId) {
-    try {
-      ProgramDefinition program = programService.getProgramDefinition(programId);
-      checkProgramAdminAuthorization(profileUtils, request, program.adminName()).join();
-      String filename = String.format("%s-%s.csv", program.adminName(), clock.instant().toString());
-      String csv = exporterService.getProgramCsv(programId);
-      return ok(csv)
-          .as(Http.MimeTypes.BINARY)
-          .withHeader(
-              "Content-Disposition", String.format("attachment; filename=\"%s\"", filename));
-    } catch (ProgramNotFoundException e) {
-      return notFound(e.toString());
-    } catch (CompletionException e) {
-      return unauthorized();
-    }
+  public CompletionStage<Result> downloadAll(Http.Request request, long programId) {
+    return getAuthorizedProgram(request, programId)
+        .thenApplyAsync(
+            program -> {
+              String filename =
+                  String.format("%s-%s.csv", program.adminName(), clock.instant().toString());
+              // Stream the CSV row by row so that memory use doesn't grow with the number of
+              // applications. The exporter is only built once the response starts streaming.
+              return ok().chunked(
+                      exporterService.getProgramCsvSource(program),
+                      Optional.of(Http.MimeTypes.BINARY))
+                  .withHeader(
+                      "Content-Disposition",
+                      String.format("attachment; filename=\"%s\"", filename));
+            },
+            httpExecutionContext.current())
+        .exceptionally(AdminApplicationController::handleException);
   }
 
   @Secure(authorizers = Authorizers.Labels.ANY_ADMIN)
@@ -91,71 +97,122 @@ public class AdminApplicationController extends CiviFormController {
   }
 
   @Secure(authorizers = Authorizers.Labels.ANY_ADMIN)
-  public Result show(Http.Request request, long programId, long applicationId) {
-    String programName;
-    try {
-      ProgramDefinition program = programService.getProgramDefinition(programId);
-      programName = program.adminName();
-      checkProgramAdminAuthorization(profileUtils, request, program.adminName()).join();
-    } catch (ProgramNotFoundException e) {
-      return notFound(e.toString());
-    } catch (CompletionException e) {
-      return unauthorized();
-    }
-    Optional<Application> applicationMaybe =
-        this.applicationRepository.getApplication(applicationId).toCompletableFuture().join();
-    if (!applicationMaybe.isPresent()) {
-      return notFound(String.format("Application %d does not exist.", applicationId));
-    }
-    Application application = applicationMaybe.get();
+  public CompletionStage<Result> show(Http.Request request, long programId, long applicationId) {
+    return getAuthorizedProgram(request, programId)
+        .thenComposeAsync(
+            program ->
+                applicationRepository
+                    .getApplication(applicationId)
+                    .thenComposeAsync(
+                        applicationMaybe -> {
+                          if (applicationMaybe.isEmpty()) {
+                            return CompletableFuture.completedFuture(
+                                notFound(
+                                    String.format(
+                                        "Application %d does not exist.", applicationId)));
+                          }
+                          return renderApplication(program, applicationMaybe.get());
+                        },
+                        httpExecutionContext.current()),
+            httpExecutionContext.current())
+        .exceptionally(AdminApplicationController::handleException);
+  }
+
+  private CompletionStage<Result> renderApplication(
+      ProgramDefinition program, Application application) {
     String applicantNameWithId =
         String.format(
             "%s (%d)",
             application.getApplicantData().getApplicantName(), application.getApplicant().id);
-
-    ReadOnlyApplicantProgramService roApplicantService =
-        applicantService
-            .getReadOnlyApplicantProgramService(application)
-            .toCompletableFuture()
-            .join();
-    ImmutableList<Block> blocks = roApplicantService.getAllBlocks();
-    ImmutableList<AnswerData> answers = roApplicantService.getSummaryData();
-    return ok(
-        applicationView.render(
-            programId, programName, applicationId, applicantNameWithId, blocks, answers));
+    return applicantService
+        .getReadOnlyApplicantProgramService(application)
+        .thenApplyAsync(
+            roApplicantService -> {
+              ImmutableList<Block> blocks = roApplicantService.getAllBlocks();
+              ImmutableList<AnswerData> answers = roApplicantService.getSummaryData();
+              return ok(
+                  applicationView.render(
+                      program.id(),
+                      program.adminName(),
+                      application.id,
+                      applicantNameWithId,
+                      blocks,
+                      answers));
+            },
+            httpExecutionContext.current());
   }
 
+  /**
+   * Renders one page of the program's applications. Pages are linked by the cursor of the last
+   * application on the previous page ({@code after}) or the first application on the next page
+   * ({@code before}), and {@code page} is only used to number them. A page number without a valid
+   * cursor (from an old link, say) starts over at the first page.
+   */
   @Secure(authorizers = Authorizers.Labels.ANY_ADMIN)
-  public Result index(
-      Http.Request request, long programId, Optional<String> search, Optional<Integer> page) {
-    if (page.isEmpty()) {
-      return redirect(routes.AdminApplicationController.index(programId, search, Optional.of(1)));
-    }
-    try {
-      ProgramDefinition program = programService.getProgramDefinition(programId);
-      checkProgramAdminAuthorization(profileUtils, request, program.adminName()).join();
-    } catch (ProgramNotFoundException e) {
-      return notFound(e.toString());
-    } catch (CompletionException e) {
-      return unauthorized();
+  public CompletionStage<Result> index(
+      Http.Request request,
+      long programId,
+      Optional<String> search,
+      Optional<Integer> page,
+      Optional<String> after,
+      Optional<String> before) {
+    Optional<ApplicationCursor> afterCursor = after.flatMap(ApplicationCursor::decode);
+    Optional<ApplicationCursor> beforeCursor = before.flatMap(ApplicationCursor::decode);
+    if (page.isEmpty()
+        || (page.get() > 1 && afterCursor.isEmpty() && beforeCursor.isEmpty())
+        || after.isPresent() != afterCursor.isPresent()
+        || before.isPresent() != beforeCursor.isPresent()) {
+      return CompletableFuture.completedFuture(
+          redirect(
+              routes.AdminApplicationController.index(
+                  programId, search, Optional.of(1), Optional.empty(), Optional.empty())));
     }
-    try {
-      ImmutableList<Application> applications =
-          programService.getProgramApplications(programId, search);
-      PaginationInfo<Application> pageInfo =
-          PaginationInfo.paginate(applications, PAGE_SIZE, page.get());
-      ImmutableList<Program> previousVersions = programService.getOtherProgramVersions(programId);
-      return ok(
-          applicationListView.render(
-              request,
-              programId,
-              pageInfo.getPageItems(),
-              pageInfo.getPage(),
-              pageInfo.getPageCount(),
-              search,
-              previousVersions));
-    } catch (ProgramNotFoundException e) {
-      return notFound(e.toString());
+    return getAuthorizedProgram(request, programId)
+        .thenComposeAsync(
+            program ->
+                programService
+                    .getProgramApplicationsAsync(
+                        programId, search, afterCursor, beforeCursor, PAGE_SIZE, page.get())
+                    .thenCombine(
+                        programService.getOtherProgramVersions(programId),
+                        (applicationsPage, previousVersions) ->
+                            ok(
+                                applicationListView.render(
+                                    request,
+                                    programId,
+                                    applicationsPage,
+                                    search,
+                                    previousVersions))),
+            httpExecutionContext.current())
+        .exceptionally(AdminApplicationController::handleException);
+  }
+
+  /**
+   * Returns the program with the given id, once the current user has been checked to be one of
+   * its admins.
+   */
+  private CompletionStage<ProgramDefinition> getAuthorizedProgram(
+      Http.Request request, long programId) {
+    return programService
+        .getProgramDefinitionAsync(programId)
+        .thenComposeAsync(
+            program ->
+                checkProgramAdminAuthorization(profileUtils, request, program.adminName())
+                    .thenApply(v -> program),
+            httpExecutionContext.current());
+  }
+
+  private static Result handleException(Throwable ex) {
+    if (ex instanceof CompletionException) {
+      Throwable cause = ex.getCause();
+      if (cause instanceof ProgramNotFoundException) {
+        return notFound(cause.toString());
+      }
+      if (cause instanceof SecurityException) {
+        return unauthorized();
+      }
+      throw new RuntimeException(cause);
     }
+    throw new RuntimeException(ex);
   }
 }
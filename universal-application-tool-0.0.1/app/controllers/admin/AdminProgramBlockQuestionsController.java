@@ -4,6 +4,8 @@ import static com.google.common.base.Preconditions.checkNotNull;
 
 import auth.Authorizers.Labels;
 import com.google.common.collect.ImmutableList;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
 import javax.inject.Inject;
 import org.pac4j.play.java.Secure;
 import play.data.DynamicForm;
@@ -30,7 +32,7 @@ public class AdminProgramBlockQuestionsController extends Controller {
   }
 
   @Secure(authorizers = Labels.UAT_ADMIN)
-  public Result create(Request request, long programId, long blockId) {
+  public CompletionStage<Result> create(Request request, long programId, long blockId) {
     DynamicForm requestData = formFactory.form().bindFromRequest(request);
     ImmutableList<Long> questionIds =
         requestData.rawData().entrySet().stream()
@@ -38,21 +40,35 @@ public class AdminProgramBlockQuestionsController extends Controller {
             .map(formField -> Long.valueOf(formField.getValue()))
             .collect(ImmutableList.toImmutableList());
 
-    try {
-      programService.addQuestionsToBlock(programId, blockId, questionIds);
-    } catch (ProgramNotFoundException e) {
-      return notFound(String.format("Program ID %d not found.", programId));
-    } catch (ProgramBlockDefinitionNotFoundException e) {
-      return notFound(String.format("Block ID %d not found for Program %d", blockId, programId));
-    } catch (QuestionNotFoundException e) {
-      return notFound(String.format("Question IDs %s not found", questionIds));
-    } catch (DuplicateProgramQuestionException e) {
-      return notFound(
-          String.format(
-              "Some Question IDs %s already exist in Program ID %d", questionIds, programId));
-    }
-
-    return redirect(controllers.admin.routes.AdminProgramBlocksController.edit(programId, blockId));
+    return programService
+        .addQuestionsToBlockAsync(programId, blockId, questionIds)
+        .thenApply(
+            program ->
+                redirect(
+                    controllers.admin.routes.AdminProgramBlocksController.edit(programId, blockId)))
+        .exceptionally(
+            ex -> {
+              if (ex instanceof CompletionException) {
+                Throwable cause = ex.getCause();
+                if (cause instanceof ProgramNotFoundException) {
+                  return notFound(String.format("Program ID %d not found.", programId));
+                }
+                if (cause instanceof ProgramBlockDefinitionNotFoundException) {
+                  return notFound(
+                      String.format("Block ID %d not found for Program %d", blockId, programId));
+                }
+                if (cause instanceof QuestionNotFoundException) {
+                  return notFound(String.format("Question IDs %s not found", questionIds));
+                }
+                if (cause instanceof DuplicateProgramQuestionException) {
+                  return notFound(
+                      String.format(
+                          "Some Question IDs %s already exist in Program ID %d",
+                          questionIds, programId));
+                }
+              }
+              throw new RuntimeException(ex);
+            });
   }
 
   @Secure(authorizers = Labels.UAT_ADMIN)
@@ -6,6 +6,8 @@ import auth.Authorizers;
 import controllers.CiviFormController;
 import forms.BlockForm;
 import java.util.Optional;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
 import javax.inject.Inject;
 import org.pac4j.play.java.Secure;
 import play.data.Form;
@@ -114,13 +116,21 @@ public class AdminProgramBlocksController extends CiviFormController {
   }
 
   @Secure(authorizers = Authorizers.Labels.UAT_ADMIN)
-  public Result destroy(long programId, long blockId) {
-    try {
-      programService.deleteBlock(programId, blockId);
-    } catch (ProgramNotFoundException | ProgramNeedsABlockException e) {
-      return notFound(e.toString());
-    }
-    return redirect(routes.AdminProgramBlocksController.index(programId));
+  public CompletionStage<Result> destroy(long programId, long blockId) {
+    return programService
+        .deleteBlockAsync(programId, blockId)
+        .thenApply(program -> redirect(routes.AdminProgramBlocksController.index(programId)))
+        .exceptionally(
+            ex -> {
+              if (ex instanceof CompletionException) {
+                Throwable cause = ex.getCause();
+                if (cause instanceof ProgramNotFoundException
+                    || cause instanceof ProgramNeedsABlockException) {
+                  return notFound(cause.toString());
+                }
+              }
+              throw new RuntimeException(ex);
+            });
   }
 
   private Result renderEditViewWithMessage(
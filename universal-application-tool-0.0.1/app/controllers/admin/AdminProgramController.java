@@ -8,10 +8,13 @@ import auth.UatProfile;
 import controllers.CiviFormController;
 import forms.ProgramForm;
 import java.util.Optional;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
 import javax.inject.Inject;
 import org.pac4j.play.java.Secure;
 import play.data.Form;
 import play.data.FormFactory;
+import play.libs.concurrent.HttpExecutionContext;
 import play.mvc.Http.Request;
 import play.mvc.Result;
 import repository.VersionRepository;
@@ -35,6 +38,7 @@ public class AdminProgramController extends CiviFormController {
   private final FormFactory formFactory;
   private final VersionRepository versionRepository;
   private final ProfileUtils profileUtils;
+  private final HttpExecutionContext httpExecutionContext;
 
   @Inject
   public AdminProgramController(
@@ -44,7 +48,8 @@ public class AdminProgramController extends CiviFormController {
       ProgramEditView editView,
       VersionRepository versionRepository,
       ProfileUtils profileUtils,
-      FormFactory formFactory) {
+      FormFactory formFactory,
+      HttpExecutionContext httpExecutionContext) {
     this.service = checkNotNull(service);
     this.listView = checkNotNull(listView);
     this.newOneView = checkNotNull(newOneView);
@@ -52,6 +57,7 @@ public class AdminProgramController extends CiviFormController {
     this.versionRepository = checkNotNull(versionRepository);
     this.profileUtils = checkNotNull(profileUtils);
     this.formFactory = checkNotNull(formFactory);
+    this.httpExecutionContext = checkNotNull(httpExecutionContext);
   }
 
   @Secure(authorizers = Authorizers.Labels.UAT_ADMIN)
@@ -114,24 +120,32 @@ public class AdminProgramController extends CiviFormController {
   }
 
   @Secure(authorizers = Authorizers.Labels.UAT_ADMIN)
-  public Result update(Request request, long id) {
+  public CompletionStage<Result> update(Request request, long id) {
     Form<ProgramForm> programForm = formFactory.form(ProgramForm.class);
     ProgramForm program = programForm.bindFromRequest(request).get();
-    try {
-      ErrorAnd<ProgramDefinition, CiviFormError> result =
-          service.updateProgramDefinition(
-              id,
-              LocalizedStrings.DEFAULT_LOCALE,
-              program.getAdminDescription(),
-              program.getLocalizedDisplayName(),
-              program.getLocalizedDisplayDescription());
-      if (result.isError()) {
-        String errorMessage = joinErrors(result.getErrors());
-        return ok(editView.render(request, id, program, errorMessage));
-      }
-      return redirect(routes.AdminProgramController.index().url());
-    } catch (ProgramNotFoundException e) {
-      return notFound(String.format("Program ID %d not found.", id));
-    }
+    return service
+        .updateProgramDefinitionAsync(
+            id,
+            LocalizedStrings.DEFAULT_LOCALE,
+            program.getAdminDescription(),
+            program.getLocalizedDisplayName(),
+            program.getLocalizedDisplayDescription())
+        .thenApplyAsync(
+            result -> {
+              if (result.isError()) {
+                String errorMessage = joinErrors(result.getErrors());
+                return ok(editView.render(request, id, program, errorMessage));
+              }
+              return redirect(routes.AdminProgramController.index().url());
+            },
+            httpExecutionContext.current())
+        .exceptionally(
+            ex -> {
+              if (ex instanceof CompletionException
+                  && ex.getCause() instanceof ProgramNotFoundException) {
+                return notFound(String.format("Program ID %d not found.", id));
+              }
+              throw new RuntimeException(ex);
+            });
   }
 }
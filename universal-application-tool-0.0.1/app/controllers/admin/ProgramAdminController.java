@@ -35,7 +35,7 @@ public class ProgramAdminController extends CiviFormController {
     Optional<UatProfile> profile = profileUtils.currentUserProfile(request);
     profile.get();
     ImmutableList<String> administeredPrograms =
-        profile.get().getAccount().join().getAdministeredProgramNames();
+        profile.get().getCachedAccount().join().administeredProgramNames();
     ActiveAndDraftPrograms activeAndDraftPrograms = this.programService.getActiveAndDraftPrograms();
     return ok(listView.render(activeAndDraftPrograms, administeredPrograms));
   }
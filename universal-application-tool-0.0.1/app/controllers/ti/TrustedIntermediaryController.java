@@ -50,10 +50,23 @@ public class TrustedIntermediaryController {
     this.messagesApi = Preconditions.checkNotNull(messagesApi);
   }
 
+  /**
+   * Renders one page of the clients managed by the TI's group. Pages are linked by the id of the
+   * last client on the previous page ({@code after}) or the first client on the next page ({@code
+   * before}), and {@code page} is only used to number them. A page number without either (from an
+   * old link, say) starts over at the first page.
+   */
   @Secure(authorizers = Authorizers.Labels.TI)
-  public Result dashboard(Http.Request request, Optional<String> search, Optional<Integer> page) {
-    if (page.isEmpty()) {
-      return redirect(routes.TrustedIntermediaryController.dashboard(search, Optional.of(1)));
+  public Result dashboard(
+      Http.Request request,
+      Optional<String> search,
+      Optional<Integer> page,
+      Optional<Long> after,
+      Optional<Long> before) {
+    if (page.isEmpty() || (page.get() > 1 && after.isEmpty() && before.isEmpty())) {
+      return redirect(
+          routes.TrustedIntermediaryController.dashboard(
+              search, Optional.of(1), Optional.empty(), Optional.empty()));
     }
     Optional<UatProfile> uatProfile = profileUtils.currentUserProfile(request);
     if (uatProfile.isEmpty()) {
@@ -64,10 +77,17 @@ public class TrustedIntermediaryController {
     if (trustedIntermediaryGroup.isEmpty()) {
       return notFound();
     }
+    long tiGroupId = trustedIntermediaryGroup.get().id;
     ImmutableList<Account> managedAccounts =
-        trustedIntermediaryGroup.get().getManagedAccounts(search);
+        before.isPresent()
+            ? userRepository.getManagedAccountsBefore(tiGroupId, search, before.get(), PAGE_SIZE)
+            : userRepository.getManagedAccountsAfter(tiGroupId, search, after, PAGE_SIZE);
     PaginationInfo<Account> pageInfo =
-        PaginationInfo.paginate(managedAccounts, PAGE_SIZE, page.get());
+        PaginationInfo.fromPage(
+            managedAccounts,
+            userRepository.countManagedAccounts(tiGroupId, search),
+            PAGE_SIZE,
+            page.get());
     return ok(
         tiDashboardView.render(
             trustedIntermediaryGroup.get(),
@@ -109,7 +129,8 @@ public class TrustedIntermediaryController {
       userRepository.createNewApplicantForTrustedIntermediaryGroup(
           form.get(), trustedIntermediaryGroup.get());
       return redirect(
-          routes.TrustedIntermediaryController.dashboard(Optional.empty(), Optional.empty()));
+          routes.TrustedIntermediaryController.dashboard(
+              Optional.empty(), Optional.empty(), Optional.empty(), Optional.empty()));
     } catch (EmailAddressExistsException e) {
       return redirectToDashboardWithError(
           "Email address already in use.  Cannot create applicant if an account already exists. "
@@ -122,7 +143,8 @@ public class TrustedIntermediaryController {
   private Result redirectToDashboardWithError(
       String errorMessage, Form<AddApplicantToTrustedIntermediaryGroupForm> form) {
     return redirect(
-            routes.TrustedIntermediaryController.dashboard(Optional.empty(), Optional.empty()))
+            routes.TrustedIntermediaryController.dashboard(
+                Optional.empty(), Optional.empty(), Optional.empty(), Optional.empty()))
         .flashing("error", errorMessage)
         .flashing("providedFirstName", form.get().getFirstName())
         .flashing("providedMiddleName", form.get().getMiddleName())
@@ -0,0 +1,33 @@
+package filters;
+
+import java.lang.reflect.Method;
+import java.util.Optional;
+import java.util.concurrent.CompletionStage;
+import play.http.ActionCreator;
+import play.mvc.Action;
+import play.mvc.Http;
+import play.mvc.Result;
+import repository.DatabaseStatementCount;
+
+/**
+ * Calls every action with its request's {@link DatabaseStatementCount} as the current one, so that
+ * the statements the action runs are counted against the request. This runs before the actions
+ * of annotations like {@code @Secure}, so that their statements are counted too.
+ */
+public class DatabaseStatementCountActionCreator implements ActionCreator {
+
+  @Override
+  public Action<?> createAction(Http.Request request, Method actionMethod) {
+    return new Action.Simple() {
+      @Override
+      public CompletionStage<Result> call(Http.Request request) {
+        Optional<DatabaseStatementCount> count =
+            request.attrs().getOptional(DatabaseStatementCount.ATTRIBUTE);
+        if (count.isEmpty()) {
+          return delegate.call(request);
+        }
+        return count.get().call(() -> delegate.call(request));
+      }
+    };
+  }
+}
@@ -2,9 +2,13 @@ package filters;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import java.nio.charset.StandardCharsets;
 import java.time.Clock;
 import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import org.slf4j.Logger;
@@ -13,20 +17,31 @@ import play.http.HttpEntity;
 import play.mvc.EssentialAction;
 import play.mvc.EssentialFilter;
 import play.mvc.Http;
+import play.routing.Router;
+import repository.DatabaseStatementCount;
 
-/** This is a simple filter that produces an apache-style access log. */
+/**
+ * This is a simple filter that produces an apache-style access log, and records how long each
+ * request took in the http.server.requests timer.
+ *
+ * <p>It also gives each request a {@link DatabaseStatementCount}, and records how many SQL
+ * statements the request ran in the http.server.requests.database.statements summary, so that a
+ * route that starts running a query per row shows up on its own.
+ */
 @Singleton
 public class LoggingFilter extends EssentialFilter {
 
   private final Executor exec;
   private final Clock clock;
+  private final MeterRegistry meterRegistry;
   private static final Logger log = LoggerFactory.getLogger("loggingfilter");
 
   /** @param exec This class is needed to execute code asynchronously. */
   @Inject
-  public LoggingFilter(Executor exec, Clock clock) {
+  public LoggingFilter(Executor exec, Clock clock, MeterRegistry meterRegistry) {
     this.exec = checkNotNull(exec);
     this.clock = checkNotNull(clock);
+    this.meterRegistry = checkNotNull(meterRegistry);
   }
 
   /**
@@ -38,12 +53,18 @@ public class LoggingFilter extends EssentialFilter {
     return EssentialAction.of(
         request -> {
           final long startTime = clock.millis();
-          return next.apply(request)
+          DatabaseStatementCount statementCount = new DatabaseStatementCount();
+          Http.RequestHeader countedRequest =
+              request.addAttr(DatabaseStatementCount.ATTRIBUTE, statementCount);
+          return statementCount
+              .call(() -> next.apply(countedRequest))
               .map(
                   result -> {
                     long time = clock.millis() - startTime;
                     log.info(
                         "{}\t{}\t{}ms\t{}", request.method(), request.uri(), time, result.status());
+                    recordRequestTime(request, result.status(), time);
+                    recordStatementCount(request, result.status(), statementCount.get());
                     StringBuilder requestCookies = new StringBuilder();
                     for (Http.Cookie cookie : request.cookies()) {
                       requestCookies.append(
@@ -70,4 +91,35 @@ public class LoggingFilter extends EssentialFilter {
                   exec);
         });
   }
+
+  private void recordRequestTime(Http.RequestHeader request, int status, long millis) {
+    Timer.builder("http.server.requests")
+        .tag("method", request.method())
+        .tag("route", route(request))
+        .tag("status", String.valueOf(status))
+        .register(meterRegistry)
+        .record(millis, TimeUnit.MILLISECONDS);
+  }
+
+  private void recordStatementCount(Http.RequestHeader request, int status, int statements) {
+    DistributionSummary.builder("http.server.requests.database.statements")
+        .description("SQL statements run while handling a request")
+        .tag("method", request.method())
+        .tag("route", route(request))
+        .tag("status", String.valueOf(status))
+        .register(meterRegistry)
+        .record(statements);
+  }
+
+  /**
+   * Returns the route pattern that handled the request. Metrics are tagged with it rather than the
+   * URI, so that paths with ids in them don't each become a separate time series.
+   */
+  private static String route(Http.RequestHeader request) {
+    return request
+        .attrs()
+        .getOptional(Router.Attrs.HANDLER_DEF)
+        .map(handlerDef -> handlerDef.path())
+        .orElse("UNKNOWN");
+  }
 }
@@ -8,6 +8,7 @@ import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
+import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.ManyToOne;
 import javax.persistence.OneToMany;
@@ -31,6 +32,10 @@ public class Account extends BaseModel {
 
   private String emailAddress;
 
+  // Maintained by a database trigger on applicants, see getDisplayName().
+  @Column(insertable = false, updatable = false)
+  private String displayName;
+
   public ImmutableList<Long> ownedApplicantIds() {
     return getApplicants().stream().map(applicant -> applicant.id).collect(toImmutableList());
   }
@@ -114,6 +119,15 @@ public class Account extends BaseModel {
     this.adminOf.remove(program.adminName());
   }
 
+  /**
+   * Returns the applicant name of this account as stored in the database, which is the same as
+   * {@link #getApplicantName()} but does not need to load the account's applicants. It is only as
+   * recent as the last time this account was loaded.
+   */
+  public String getDisplayName() {
+    return displayName;
+  }
+
   /**
    * Returns the name, as a string, of the most-recently created Applicant associated with this
    * Account. There is no particular reason for an Account to have more than one Applicant - this
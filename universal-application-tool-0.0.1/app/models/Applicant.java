@@ -7,12 +7,14 @@ import java.time.Instant;
 import java.util.List;
 import java.util.Locale;
 import java.util.Optional;
+import javax.annotation.Nullable;
 import javax.persistence.Entity;
 import javax.persistence.ManyToOne;
 import javax.persistence.OneToMany;
 import javax.persistence.PrePersist;
 import javax.persistence.PreUpdate;
 import javax.persistence.Table;
+import javax.persistence.Version;
 import play.data.validation.Constraints;
 import services.applicant.ApplicantData;
 
@@ -28,6 +30,10 @@ public class Applicant extends BaseModel {
   private String preferredLocale;
 
   @Constraints.Required @DbJson private String object;
+
+  // Incremented by every update, which fails if the row's version is no longer the one loaded.
+  @Version private long version;
+
   @ManyToOne private Account account;
 
   @OneToMany(mappedBy = "applicant")
@@ -60,13 +66,44 @@ public class Applicant extends BaseModel {
   @PrePersist
   @PreUpdate
   public void synchronizeObject() {
-    this.preferredLocale =
-        getApplicantData().hasPreferredLocale()
-            ? getApplicantData().preferredLocale().toLanguageTag()
-            : null;
+    this.preferredLocale = getPreferredLocaleTag();
     this.object = objectAsJsonString();
   }
 
+  /**
+   * Returns the language tag of the applicant's preferred locale, as it is stored in the database,
+   * or null if they have not chosen one.
+   */
+  @Nullable
+  public String getPreferredLocaleTag() {
+    return getApplicantData().hasPreferredLocale()
+        ? getApplicantData().preferredLocale().toLanguageTag()
+        : null;
+  }
+
+  /**
+   * Brings the applicant up to date after its changes were written to the database by a partial
+   * update, which incremented its version without going through Ebean. Runs the same update hook
+   * Ebean would have, so that the stored data and its length match what was written.
+   */
+  public void markPatched() {
+    synchronizeObject();
+    version++;
+  }
+
+  /**
+   * Returns the length of the applicant's JSON data as it was loaded or last saved, or 0 if it has
+   * never been saved.
+   */
+  public int getStoredObjectLength() {
+    return object == null ? 0 : object.length();
+  }
+
+  /** Returns the version of the applicant that was loaded, or last saved. */
+  public long getVersion() {
+    return version;
+  }
+
   private String objectAsJsonString() {
     return getApplicantData().asJsonString();
   }
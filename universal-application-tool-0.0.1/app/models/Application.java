@@ -27,9 +27,20 @@ public class Application extends BaseModel {
   private String object;
 
   public Application(Applicant applicant, Program program, LifecycleStage lifecycleStage) {
+    this(applicant, program, lifecycleStage, applicant.getApplicantData());
+  }
+
+  /**
+   * Creates an application that stores {@code applicantData} rather than all of the applicant's
+   * data, for example only the parts of it that the program asks for.
+   */
+  public Application(
+      Applicant applicant,
+      Program program,
+      LifecycleStage lifecycleStage,
+      ApplicantData applicantData) {
     this.applicant = applicant;
-    ApplicantData data = applicant.getApplicantData();
-    this.object = data.asJsonString();
+    this.object = applicantData.asJsonString();
     this.program = program;
     this.lifecycleStage = lifecycleStage;
   }
@@ -5,11 +5,15 @@ import com.fasterxml.jackson.datatype.guava.GuavaModule;
 import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
 import io.ebean.config.ServerConfig;
 import io.ebean.event.ServerConfigStartup;
+import repository.StatementCountingDataSource;
 
 /**
  * Provides a Jackson {@link ObjectMapper} that understands how to (de)serialize Guava types and
  * Java 8 Optionals. Note that this is necessary because Ebean uses a different ObjectMapper than
  * the one provided by the Play framework.
+ *
+ * <p>Also wraps Ebean's data source with {@link StatementCountingDataSource}, so that the
+ * statements each request runs are counted.
  */
 public class EbeanServerConfigStartup implements ServerConfigStartup {
 
@@ -18,5 +22,8 @@ public class EbeanServerConfigStartup implements ServerConfigStartup {
     ObjectMapper mapper =
         new ObjectMapper().registerModule(new GuavaModule()).registerModule(new Jdk8Module());
     serverConfig.setObjectMapper(mapper);
+    if (serverConfig.getDataSource() != null) {
+      serverConfig.setDataSource(StatementCountingDataSource.wrap(serverConfig.getDataSource()));
+    }
   }
 }
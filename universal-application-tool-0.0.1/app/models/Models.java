@@ -13,6 +13,7 @@ public class Models {
           Applicant.class,
           Application.class,
           Program.class,
+          ProgramAdminNotification.class,
           Question.class,
           StoredFile.class,
           TrustedIntermediaryGroup.class,
@@ -0,0 +1,52 @@
+package models;
+
+import io.ebean.annotation.WhenCreated;
+import java.time.Instant;
+import javax.persistence.Entity;
+import javax.persistence.ManyToOne;
+import javax.persistence.Table;
+import play.data.validation.Constraints;
+
+/**
+ * An email to the admins of a program, telling them about an application that was submitted to it,
+ * which has not been sent yet.
+ *
+ * <p>It is saved in the same transaction as the {@link Application}, and deleted once it is sent.
+ * Until then, it is sent again at {@link #getNextAttemptTime()} after each failed attempt. See
+ * {@link repository.ProgramAdminNotificationRepository}.
+ */
+@Entity
+@Table(name = "program_admin_notifications")
+public class ProgramAdminNotification extends BaseModel {
+  private static final long serialVersionUID = 1L;
+
+  @ManyToOne private Application application;
+
+  private int attempts;
+
+  @Constraints.Required private Instant nextAttemptTime;
+
+  @WhenCreated private Instant createTime;
+
+  public ProgramAdminNotification(Application application, Instant nextAttemptTime) {
+    this.application = application;
+    this.nextAttemptTime = nextAttemptTime;
+  }
+
+  public Application getApplication() {
+    return application;
+  }
+
+  /** Returns the number of times sending this notification has failed. */
+  public int getAttempts() {
+    return attempts;
+  }
+
+  public Instant getNextAttemptTime() {
+    return nextAttemptTime;
+  }
+
+  public Instant getCreateTime() {
+    return createTime;
+  }
+}
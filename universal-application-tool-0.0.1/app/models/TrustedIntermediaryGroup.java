@@ -3,8 +3,6 @@ package models;
 import com.google.common.collect.ImmutableList;
 import java.util.Comparator;
 import java.util.List;
-import java.util.Locale;
-import java.util.Optional;
 import javax.persistence.Entity;
 import javax.persistence.OneToMany;
 import javax.persistence.Table;
@@ -30,7 +28,11 @@ public class TrustedIntermediaryGroup extends BaseModel {
     return ImmutableList.copyOf(tiAccounts);
   }
 
-  /** Get all the accounts, sorted by applicant name. */
+  /**
+   * Get all the accounts, sorted by applicant name. This loads every managed account and its
+   * applicants, so pages of accounts should be read with {@link
+   * repository.UserRepository#getManagedAccountsAfter} instead.
+   */
   public ImmutableList<Account> getManagedAccounts() {
     return managedAccounts.stream()
         .sorted(Comparator.comparing(Account::getApplicantName))
@@ -44,20 +46,4 @@ public class TrustedIntermediaryGroup extends BaseModel {
   public String getDescription() {
     return this.description;
   }
-
-  public ImmutableList<Account> getManagedAccounts(Optional<String> search) {
-    ImmutableList<Account> allAccounts = getManagedAccounts();
-    if (search.isPresent()) {
-      allAccounts =
-          allAccounts.stream()
-              .filter(
-                  account ->
-                      account
-                          .getApplicantName()
-                          .toLowerCase(Locale.ROOT)
-                          .contains(search.get().toLowerCase(Locale.ROOT)))
-              .collect(ImmutableList.toImmutableList());
-    }
-    return allAccounts;
-  }
 }
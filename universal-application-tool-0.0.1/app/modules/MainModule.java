@@ -5,6 +5,7 @@ import java.time.Clock;
 import java.time.ZoneId;
 import services.applicant.ApplicantService;
 import services.applicant.ApplicantServiceImpl;
+import services.applicant.ProgramAdminNotificationDispatcher;
 import services.program.ProgramService;
 import services.program.ProgramServiceImpl;
 import services.question.QuestionService;
@@ -27,5 +28,7 @@ public class MainModule extends AbstractModule {
     bind(ProgramService.class).to(ProgramServiceImpl.class);
     bind(QuestionService.class).to(QuestionServiceImpl.class);
     bind(ApplicantService.class).to(ApplicantServiceImpl.class);
+    // Starts sending the notifications in the outbox when the application starts.
+    bind(ProgramAdminNotificationDispatcher.class).asEagerSingleton();
   }
 }
@@ -0,0 +1,55 @@
+package modules;
+
+import com.google.common.collect.ImmutableList;
+import com.google.inject.AbstractModule;
+import com.google.inject.Provides;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.prometheus.PrometheusConfig;
+import io.micrometer.prometheus.PrometheusMeterRegistry;
+import java.util.concurrent.CompletableFuture;
+import javax.inject.Singleton;
+import play.inject.ApplicationLifecycle;
+import repository.AdminDatabaseExecutionContext;
+import repository.DatabaseExecutionContext;
+import repository.ExportDatabaseExecutionContext;
+import repository.InstrumentedExecutionContext;
+import repository.NotificationDatabaseExecutionContext;
+
+/**
+ * This class is a Guice module that provides the {@link MeterRegistry} that application metrics
+ * are recorded in. The registry keeps its meters in the Prometheus format, and is served at
+ * /metrics by {@link controllers.MetricsController}.
+ */
+public class MetricsModule extends AbstractModule {
+
+  @Override
+  public void configure() {
+    bind(MeterRegistry.class).to(PrometheusMeterRegistry.class);
+  }
+
+  @Provides
+  @Singleton
+  PrometheusMeterRegistry providePrometheusMeterRegistry(
+      ApplicationLifecycle lifecycle,
+      DatabaseExecutionContext databaseExecutionContext,
+      AdminDatabaseExecutionContext adminDatabaseExecutionContext,
+      ExportDatabaseExecutionContext exportDatabaseExecutionContext,
+      NotificationDatabaseExecutionContext notificationDatabaseExecutionContext) {
+    PrometheusMeterRegistry registry = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+    for (InstrumentedExecutionContext executionContext :
+        ImmutableList.of(
+            databaseExecutionContext,
+            adminDatabaseExecutionContext,
+            exportDatabaseExecutionContext,
+            notificationDatabaseExecutionContext)) {
+      executionContext.bindTo(registry);
+    }
+
+    lifecycle.addStopHook(
+        () -> {
+          registry.close();
+          return CompletableFuture.completedFuture(null);
+        });
+    return registry;
+  }
+}
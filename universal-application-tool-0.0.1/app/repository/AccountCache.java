@@ -0,0 +1,108 @@
+package repository;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.auto.value.AutoValue;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableList;
+import io.ebean.Ebean;
+import io.ebean.EbeanServer;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLongArray;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import models.Account;
+import play.db.ebean.EbeanConfig;
+
+/**
+ * A short-lived cache of what authorization checks need to know about the accounts of signed-in
+ * users, keyed by account id. The account of the current user is checked by the filters,
+ * authorizers and controllers that handle each request, often several times, so without a cache
+ * every page costs several database round trips.
+ *
+ * <p>Only immutable {@link CachedAccount}s are cached, never {@link Account} or {@link
+ * models.Applicant} beans, so nothing that a request changes and saves is shared with other
+ * requests. Code that needs to change an account or applicant loads it from the database.
+ *
+ * <p>Entries expire after {@link #TIME_TO_LIVE}, which bounds how long changes made outside this
+ * application, such as deleting an account, go unnoticed. Code that writes an account or one of
+ * its applicants must call {@link #invalidate} after saving it, so that its own changes are seen
+ * right away.
+ */
+@Singleton
+public final class AccountCache {
+
+  private static final Duration TIME_TO_LIVE = Duration.ofSeconds(10);
+  private static final long MAXIMUM_SIZE = 10_000;
+  private static final int GENERATION_STRIPES = 64;
+
+  private final EbeanServer ebeanServer;
+  private final Cache<Long, CachedAccount> accounts =
+      CacheBuilder.newBuilder().expireAfterWrite(TIME_TO_LIVE).maximumSize(MAXIMUM_SIZE).build();
+  // Incremented on every invalidation of an account in the stripe, so that an account loaded
+  // before it is not cached after it. Striped so that frequent writes to one account do not keep
+  // other accounts from being cached.
+  private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+
+  @Inject
+  public AccountCache(EbeanConfig ebeanConfig) {
+    this.ebeanServer = Ebean.getServer(checkNotNull(ebeanConfig).defaultServer());
+  }
+
+  /**
+   * Returns the account with the given id, loading it if it is not cached or its entry has expired.
+   * Loading runs a database query, so this should be called on the {@link
+   * DatabaseExecutionContext}.
+   */
+  public Optional<CachedAccount> getAccount(long id) {
+    CachedAccount cached = accounts.getIfPresent(id);
+    if (cached != null) {
+      return Optional.of(cached);
+    }
+    int stripe = stripe(id);
+    long generationWhenLoaded = generations.get(stripe);
+    Optional<CachedAccount> account =
+        ebeanServer.find(Account.class).setId(id).findOneOrEmpty().map(CachedAccount::of);
+    if (account.isPresent() && generationWhenLoaded == generations.get(stripe)) {
+      accounts.put(id, account.get());
+    }
+    return account;
+  }
+
+  /** Removes the account with the given id from the cache. */
+  public void invalidate(long id) {
+    generations.incrementAndGet(stripe(id));
+    accounts.invalidate(id);
+  }
+
+  private static int stripe(long id) {
+    return Math.floorMod(id, GENERATION_STRIPES);
+  }
+
+  /** The fields of an {@link Account} that authorization checks read. */
+  @AutoValue
+  public abstract static class CachedAccount {
+    public abstract long id();
+
+    public abstract Optional<String> emailAddress();
+
+    public abstract boolean globalAdmin();
+
+    /** The admin names of the programs the account administers. */
+    public abstract ImmutableList<String> administeredProgramNames();
+
+    /** Whether the account is a member of a trusted intermediary group. */
+    public abstract boolean trustedIntermediary();
+
+    static CachedAccount of(Account account) {
+      return new AutoValue_AccountCache_CachedAccount(
+          account.id,
+          Optional.ofNullable(account.getEmailAddress()),
+          account.getGlobalAdmin(),
+          account.getAdministeredProgramNames(),
+          account.getMemberOfGroup().isPresent());
+    }
+  }
+}
@@ -0,0 +1,116 @@
+package repository;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.collect.ImmutableList;
+import io.ebean.Ebean;
+import io.ebean.EbeanServer;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+import javax.inject.Inject;
+import javax.inject.Provider;
+import javax.inject.Singleton;
+import models.LifecycleStage;
+import models.Program;
+import play.db.ebean.EbeanConfig;
+import services.program.ProgramDefinition;
+
+/**
+ * Holds the {@link ProgramDefinition}s of the programs in the active version, so that serving the
+ * applicant program index does not need to load the whole active version on every request.
+ *
+ * <p>The catalog is stored in an atomically swapped {@link Snapshot} together with a fingerprint of
+ * the active version it was loaded from. Publishing a version or adding a program to the active
+ * version changes the fingerprint, and the next read loads a new snapshot. Changes that the
+ * fingerprint cannot see, such as updating a program row in place, must call {@link
+ * #invalidate()}.
+ *
+ * <p>Reading the catalog runs a database query, so it should happen on the {@link
+ * DatabaseExecutionContext}.
+ */
+@Singleton
+public final class ActiveProgramCatalog {
+
+  private final EbeanServer ebeanServer;
+  private final Provider<VersionRepository> versionRepositoryProvider;
+  private final AtomicReference<Snapshot> snapshot = new AtomicReference<>(new Snapshot());
+
+  @Inject
+  public ActiveProgramCatalog(
+      EbeanConfig ebeanConfig, Provider<VersionRepository> versionRepositoryProvider) {
+    this.ebeanServer = Ebean.getServer(checkNotNull(ebeanConfig).defaultServer());
+    this.versionRepositoryProvider = checkNotNull(versionRepositoryProvider);
+  }
+
+  /** Returns the definitions of the programs in the active version. */
+  public ImmutableList<ProgramDefinition> getActivePrograms() {
+    return getCurrentSnapshot().activePrograms;
+  }
+
+  /** Discards the current snapshot. */
+  public void invalidate() {
+    snapshot.set(new Snapshot());
+  }
+
+  private Snapshot getCurrentSnapshot() {
+    Snapshot current = snapshot.get();
+    String fingerprint = getActiveProgramsFingerprint();
+    if (current.fingerprint.equals(Optional.of(fingerprint))) {
+      return current;
+    }
+    Snapshot loaded =
+        new Snapshot(
+            fingerprint,
+            versionRepositoryProvider.get().getActiveVersion().getPrograms().stream()
+                .map(Program::getProgramDefinition)
+                .collect(ImmutableList.toImmutableList()));
+    // Only replace the snapshot this one was loaded after. If it was replaced or invalidated in
+    // the meantime, this one may have been loaded from outdated data.
+    snapshot.compareAndSet(current, loaded);
+    return loaded;
+  }
+
+  /**
+   * Returns a fingerprint of the active version and the programs in it, which changes whenever a
+   * version is published or set live, or a program is added to the active version.
+   */
+  private String getActiveProgramsFingerprint() {
+    return ebeanServer
+        .sqlQuery(
+            "SELECT versions.id, COUNT(versions_programs.programs_id) AS program_count,"
+                + " MAX(versions_programs.programs_id) AS max_program_id"
+                + " FROM versions LEFT JOIN versions_programs"
+                + " ON versions_programs.versions_id = versions.id"
+                + " WHERE versions.lifecycle_stage = :active"
+                + " GROUP BY versions.id"
+                + " ORDER BY versions.id")
+        .setParameter("active", LifecycleStage.ACTIVE.getValue())
+        .findList()
+        .stream()
+        .map(
+            row ->
+                String.join(
+                    ":",
+                    row.getString("id"),
+                    row.getString("program_count"),
+                    row.getString("max_program_id")))
+        .collect(Collectors.joining(","));
+  }
+
+  /** An immutable view of the active programs, and the fingerprint they were loaded for. */
+  private static final class Snapshot {
+    private final Optional<String> fingerprint;
+    private final ImmutableList<ProgramDefinition> activePrograms;
+
+    private Snapshot() {
+      this.fingerprint = Optional.empty();
+      this.activePrograms = ImmutableList.of();
+    }
+
+    private Snapshot(String fingerprint, ImmutableList<ProgramDefinition> activePrograms) {
+      this.fingerprint = Optional.of(fingerprint);
+      this.activePrograms = checkNotNull(activePrograms);
+    }
+  }
+}
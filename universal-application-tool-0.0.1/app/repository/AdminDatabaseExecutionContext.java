@@ -0,0 +1,19 @@
+package repository;
+
+import akka.actor.ActorSystem;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+/**
+ * Custom execution context wired to "database.admin-dispatcher" thread pool, for admin operations
+ * that may touch many rows. Running them on their own pool keeps them from holding up applicants.
+ */
+@Singleton
+public class AdminDatabaseExecutionContext extends InstrumentedExecutionContext {
+  public static final String DISPATCHER_NAME = "database.admin-dispatcher";
+
+  @Inject
+  public AdminDatabaseExecutionContext(ActorSystem actorSystem) {
+    super(actorSystem, DISPATCHER_NAME);
+  }
+}
@@ -0,0 +1,49 @@
+package repository;
+
+import com.google.auto.value.AutoValue;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Optional;
+import models.Application;
+
+/**
+ * The position of an application in the order that {@link
+ * ApplicationRepository#getApplicationsAfter} pages through a program's applications, which is
+ * by id. Ids never change, so an application stays in its place however often it is updated.
+ *
+ * <p>Cursors are passed to the browser as opaque strings made by {@link #encode}, so that pages can
+ * link to the pages next to them without the database having to count the rows before them.
+ */
+@AutoValue
+public abstract class ApplicationCursor {
+
+  public abstract long id();
+
+  /** Returns the cursor of the given application. */
+  public static ApplicationCursor of(Application application) {
+    return create(application.id);
+  }
+
+  public static ApplicationCursor create(long id) {
+    return new AutoValue_ApplicationCursor(id);
+  }
+
+  /**
+   * Returns the cursor that {@link #encode} turned into {@code encoded}, or empty if it is not one.
+   */
+  public static Optional<ApplicationCursor> decode(String encoded) {
+    try {
+      String decoded = new String(Base64.getUrlDecoder().decode(encoded), StandardCharsets.UTF_8);
+      return Optional.of(create(Long.parseLong(decoded)));
+    } catch (IllegalArgumentException e) {
+      return Optional.empty();
+    }
+  }
+
+  /** Returns this cursor as a string that is safe to use in a URL. */
+  public String encode() {
+    return Base64.getUrlEncoder()
+        .withoutPadding()
+        .encodeToString(String.valueOf(id()).getBytes(StandardCharsets.UTF_8));
+  }
+}
@@ -3,9 +3,16 @@ package repository;
 import static com.google.common.base.Preconditions.checkNotNull;
 import static java.util.concurrent.CompletableFuture.supplyAsync;
 
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
 import io.ebean.Ebean;
 import io.ebean.EbeanServer;
-import java.util.List;
+import io.ebean.ExpressionList;
+import io.ebean.QueryIterator;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Clock;
+import java.util.Locale;
 import java.util.Optional;
 import java.util.concurrent.CompletionStage;
 import java.util.function.Function;
@@ -14,9 +21,12 @@ import models.Applicant;
 import models.Application;
 import models.LifecycleStage;
 import models.Program;
+import models.ProgramAdminNotification;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import play.db.ebean.EbeanConfig;
+import services.Path;
+import services.applicant.ApplicantData;
 import services.applicant.exception.ApplicantNotFoundException;
 import services.program.ProgramNotFoundException;
 
@@ -25,29 +35,47 @@ public class ApplicationRepository {
   private final UserRepository userRepository;
   private final EbeanServer ebeanServer;
   private final DatabaseExecutionContext executionContext;
+  private final AdminDatabaseExecutionContext adminExecutionContext;
+  private final Clock clock;
+  private final Timer submitApplicationTimer;
   private static final Logger LOG = LoggerFactory.getLogger(ApplicationRepository.class);
+  // Number of rows the JDBC driver buffers per round trip when iterating over applications.
+  private static final int APPLICATION_CURSOR_FETCH_SIZE = 100;
 
   @Inject
   public ApplicationRepository(
       ProgramRepository programRepository,
       UserRepository userRepository,
       EbeanConfig ebeanConfig,
-      DatabaseExecutionContext executionContext) {
+      DatabaseExecutionContext executionContext,
+      AdminDatabaseExecutionContext adminExecutionContext,
+      Clock clock,
+      MeterRegistry meterRegistry) {
     this.programRepository = checkNotNull(programRepository);
     this.userRepository = checkNotNull(userRepository);
     this.ebeanServer = Ebean.getServer(checkNotNull(ebeanConfig).defaultServer());
     this.executionContext = checkNotNull(executionContext);
+    this.adminExecutionContext = checkNotNull(adminExecutionContext);
+    this.clock = checkNotNull(clock);
+    this.submitApplicationTimer =
+        Timer.builder("application.submit")
+            .description("Time to save an application and retire the applicant's older ones")
+            .publishPercentileHistogram()
+            .register(meterRegistry);
   }
 
   /**
    * Submit an application, which will delete any in-progress drafts, obsolete any submitted
    * applications to a program with the same name (to include past versions of the same program),
    * and create a new application in the active state.
+   *
+   * <p>A {@link ProgramAdminNotification} about the new application is added to the outbox in the
+   * same transaction, to be sent to the program's admins in the background.
    */
   public CompletionStage<Application> submitApplication(Applicant applicant, Program program) {
     return supplyAsync(
         () -> {
-          return submitApplicationInternal(applicant, program);
+          return submitApplicationInternal(applicant, program, Optional.empty());
         },
         executionContext.current());
   }
@@ -58,30 +86,48 @@ public class ApplicationRepository {
         applicantId,
         programId,
         (ApplicationArguments appArgs) ->
-            submitApplicationInternal(appArgs.applicant, appArgs.program));
+            submitApplicationInternal(appArgs.applicant, appArgs.program, Optional.empty()));
   }
 
-  private Application submitApplicationInternal(Applicant applicant, Program program) {
+  /**
+   * Submit an application like {@link #submitApplication(long, long)}, but store only the values
+   * at {@code snapshotPaths} of the applicant's data in it, as given by {@link
+   * services.applicant.ApplicationSnapshot#pathsFor}.
+   */
+  public CompletionStage<Optional<Application>> submitApplication(
+      long applicantId, long programId, ImmutableSet<Path> snapshotPaths) {
+    return this.perform(
+        applicantId,
+        programId,
+        (ApplicationArguments appArgs) ->
+            submitApplicationInternal(
+                appArgs.applicant, appArgs.program, Optional.of(snapshotPaths)));
+  }
+
+  private Application submitApplicationInternal(
+      Applicant applicant, Program program, Optional<ImmutableSet<Path>> snapshotPaths) {
+    return submitApplicationTimer.record(
+        () -> submitApplicationInTransaction(applicant, program, snapshotPaths));
+  }
+
+  private Application submitApplicationInTransaction(
+      Applicant applicant, Program program, Optional<ImmutableSet<Path>> snapshotPaths) {
     ebeanServer.beginTransaction();
     try {
-      List<Application> oldApplications =
-          ebeanServer
-              .createQuery(Application.class)
-              .where()
-              .eq("applicant.id", applicant.id)
-              .eq("program.name", program.getProgramDefinition().adminName())
-              .findList();
-      for (Application application : oldApplications) {
-        // Delete any in-progress drafts, and mark obsolete any old applications.
-        if (application.getLifecycleStage().equals(LifecycleStage.DRAFT)) {
-          application.setLifecycleStage(LifecycleStage.DELETED);
-        } else {
-          application.setLifecycleStage(LifecycleStage.OBSOLETE);
-        }
-        application.save();
-      }
-      Application application = new Application(applicant, program, LifecycleStage.ACTIVE);
+      // Delete any in-progress drafts, and mark obsolete any old applications, to every version of
+      // the program. Each is a single statement on the applicant's applications, so it takes the
+      // same time however many applications the applicant has submitted before.
+      retireApplications(applicant, program, LifecycleStage.DRAFT, LifecycleStage.DELETED);
+      retireApplications(applicant, program, LifecycleStage.ACTIVE, LifecycleStage.OBSOLETE);
+      ApplicantData applicantData = applicant.getApplicantData();
+      Application application =
+          new Application(
+              applicant,
+              program,
+              LifecycleStage.ACTIVE,
+              snapshotPaths.map(applicantData::projectedTo).orElse(applicantData));
       application.save();
+      new ProgramAdminNotification(application, clock.instant()).save();
       ebeanServer.commitTransaction();
       return application;
     } finally {
@@ -89,6 +135,24 @@ public class ApplicationRepository {
     }
   }
 
+  /**
+   * Moves the applicant's applications to any program with the same name as {@code program} from
+   * the {@code from} stage to the {@code to} stage.
+   */
+  private void retireApplications(
+      Applicant applicant, Program program, LifecycleStage from, LifecycleStage to) {
+    ebeanServer
+        .sqlUpdate(
+            "UPDATE applications SET lifecycle_stage = :to"
+                + " WHERE applicant_id = :applicantId AND lifecycle_stage = :from"
+                + " AND program_id IN (SELECT id FROM programs WHERE name = :programName)")
+        .setParameter("to", to.getValue())
+        .setParameter("applicantId", applicant.id)
+        .setParameter("from", from.getValue())
+        .setParameter("programName", program.getProgramDefinition().adminName())
+        .execute();
+  }
+
   private CompletionStage<Optional<Application>> perform(
       long applicantId, long programId, Function<ApplicationArguments, Application> fn) {
     CompletionStage<Optional<Applicant>> applicantDb = userRepository.lookupApplicant(applicantId);
@@ -174,4 +238,86 @@ public class ApplicationRepository {
         () -> ebeanServer.find(Application.class).setId(applicationId).findOneOrEmpty(),
         executionContext.current());
   }
+
+  /**
+   * Returns a cursor over every application to the program with the given id, ordered by id.
+   *
+   * <p>Rows are fetched from the database {@link #APPLICATION_CURSOR_FETCH_SIZE} at a time rather
+   * than all at once, so memory use is bounded regardless of how many applications the program
+   * has. The iterator holds a database connection open until it is closed, so callers must always
+   * close it.
+   */
+  public QueryIterator<Application> iterateApplicationsForProgram(long programId) {
+    return ebeanServer
+        .find(Application.class)
+        .setBufferFetchSizeHint(APPLICATION_CURSOR_FETCH_SIZE)
+        .where()
+        .eq("program.id", programId)
+        .orderBy()
+        .asc("id")
+        .findIterate();
+  }
+
+  /**
+   * Returns up to {@code limit} of the applications to the program with the given id that come
+   * after the {@code after} cursor, or the first ones if there is no cursor. Applications are
+   * ordered by id, which is the order they were created in and, unlike their submit time, never
+   * changes when they are updated. If {@code search} is present, only applications whose applicant
+   * name contains it, ignoring case, are included.
+   *
+   * <p>Pages seek to the cursor on the {@code (program_id, id)} index instead of skipping over the
+   * rows of earlier pages, so every page costs the same however deep it is. The search uses the
+   * generated {@code applicant_name_search} column and its trigram index, so searching does not
+   * read the application JSON of rows that are not returned.
+   */
+  public CompletionStage<ImmutableList<Application>> getApplicationsAfter(
+      long programId, Optional<String> search, Optional<ApplicationCursor> after, int limit) {
+    return supplyAsync(
+        () -> {
+          ExpressionList<Application> applications = applicationsForProgram(programId, search);
+          if (after.isPresent()) {
+            applications = applications.gt("id", after.get().id());
+          }
+          return ImmutableList.copyOf(
+              applications.orderBy().asc("id").setMaxRows(limit).findList());
+        },
+        adminExecutionContext);
+  }
+
+  /**
+   * Returns up to {@code limit} of the applications that come right before the {@code before}
+   * cursor in the order used by {@link #getApplicationsAfter}, in that same order.
+   */
+  public CompletionStage<ImmutableList<Application>> getApplicationsBefore(
+      long programId, Optional<String> search, ApplicationCursor before, int limit) {
+    return supplyAsync(
+        () ->
+            ImmutableList.copyOf(
+                    applicationsForProgram(programId, search)
+                        .lt("id", before.id())
+                        .orderBy()
+                        .desc("id")
+                        .setMaxRows(limit)
+                        .findList())
+                .reverse(),
+        adminExecutionContext);
+  }
+
+  private ExpressionList<Application> applicationsForProgram(
+      long programId, Optional<String> search) {
+    ExpressionList<Application> applications =
+        ebeanServer.find(Application.class).where().eq("program.id", programId);
+    if (search.isPresent() && !search.get().isEmpty()) {
+      applications =
+          applications.raw(
+              "applicant_name_search LIKE ?",
+              "%" + escapeLikePattern(search.get().toLowerCase(Locale.ROOT)) + "%");
+    }
+    return applications;
+  }
+
+  /** Escapes the characters that have a special meaning in a SQL LIKE pattern. */
+  static String escapeLikePattern(String value) {
+    return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+  }
 }
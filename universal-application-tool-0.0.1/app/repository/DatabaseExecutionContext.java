@@ -1,17 +1,19 @@
 package repository;
 
-import static com.google.common.base.Preconditions.checkNotNull;
-
 import akka.actor.ActorSystem;
 import javax.inject.Inject;
 import javax.inject.Singleton;
-import play.libs.concurrent.CustomExecutionContext;
 
-/** Custom execution context wired to "database.dispatcher" thread pool */
+/**
+ * Custom execution context wired to "database.dispatcher" thread pool, for database work on
+ * interactive request paths such as applicant reads and writes.
+ */
 @Singleton
-public class DatabaseExecutionContext extends CustomExecutionContext {
+public class DatabaseExecutionContext extends InstrumentedExecutionContext {
+  public static final String DISPATCHER_NAME = "database.dispatcher";
+
   @Inject
   public DatabaseExecutionContext(ActorSystem actorSystem) {
-    super(checkNotNull(actorSystem), "database.dispatcher");
+    super(actorSystem, DISPATCHER_NAME);
   }
 }
@@ -0,0 +1,79 @@
+package repository;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import play.libs.typedmap.TypedKey;
+
+/**
+ * Counts the SQL statements run on behalf of one request, so that a request that runs a query per
+ * row shows up against its route rather than only in the total number of queries.
+ *
+ * <p>{@link filters.LoggingFilter} creates a count for each request, adds it to the request's
+ * attributes under {@link #ATTRIBUTE}, and records it when the response is ready. The count is
+ * the current one on a thread while {@link #call} or a task made by {@link #wrap} runs on it.
+ * Actions are called with their request's count by {@link
+ * filters.DatabaseStatementCountActionCreator}, and {@link InstrumentedExecutionContext} runs each
+ * task with the count that was current when it was submitted, so work that an action hands to a
+ * database thread pool is counted too. Work submitted from a continuation on one of Play's own
+ * executors is not.
+ *
+ * <p>Statements are counted by the data source that {@link models.EbeanServerConfigStartup} wraps
+ * around Ebean's, so ORM queries, lazy loads and raw SQL are all counted.
+ */
+public final class DatabaseStatementCount {
+
+  public static final TypedKey<DatabaseStatementCount> ATTRIBUTE =
+      TypedKey.create("databaseStatementCount");
+
+  private static final ThreadLocal<DatabaseStatementCount> CURRENT = new ThreadLocal<>();
+
+  private final AtomicInteger count = new AtomicInteger();
+
+  /** Returns the count that is current on this thread, if there is one. */
+  public static Optional<DatabaseStatementCount> current() {
+    return Optional.ofNullable(CURRENT.get());
+  }
+
+  /** Counts a statement against the count that is current on this thread, if there is one. */
+  static void increment() {
+    DatabaseStatementCount current = CURRENT.get();
+    if (current != null) {
+      current.count.incrementAndGet();
+    }
+  }
+
+  /** Returns the number of statements counted so far. */
+  public int get() {
+    return count.get();
+  }
+
+  /** Calls {@code supplier} with this as the current count. */
+  public <T> T call(Supplier<T> supplier) {
+    DatabaseStatementCount previous = CURRENT.get();
+    CURRENT.set(this);
+    try {
+      return supplier.get();
+    } finally {
+      restore(previous);
+    }
+  }
+
+  /** Returns a task that runs {@code task} with this as the current count. */
+  public Runnable wrap(Runnable task) {
+    return () ->
+        call(
+            () -> {
+              task.run();
+              return null;
+            });
+  }
+
+  private static void restore(DatabaseStatementCount previous) {
+    if (previous == null) {
+      CURRENT.remove();
+    } else {
+      CURRENT.set(previous);
+    }
+  }
+}
@@ -0,0 +1,19 @@
+package repository;
+
+import akka.actor.ActorSystem;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+/**
+ * Custom execution context wired to "database.export-dispatcher" thread pool, for exports that
+ * read every application to a program.
+ */
+@Singleton
+public class ExportDatabaseExecutionContext extends InstrumentedExecutionContext {
+  public static final String DISPATCHER_NAME = "database.export-dispatcher";
+
+  @Inject
+  public ExportDatabaseExecutionContext(ActorSystem actorSystem) {
+    super(actorSystem, DISPATCHER_NAME);
+  }
+}
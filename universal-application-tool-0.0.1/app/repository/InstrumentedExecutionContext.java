@@ -0,0 +1,146 @@
+package repository;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import akka.actor.ActorSystem;
+import com.typesafe.config.Config;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import play.libs.concurrent.CustomExecutionContext;
+
+/**
+ * A {@link CustomExecutionContext} for one of the database dispatchers configured in
+ * application.conf, which keeps track of how busy the dispatcher is.
+ *
+ * <p>Every task submitted through this context is counted as queued until a thread starts running
+ * it, and as active until it finishes. A submission that finds the queue already at its configured
+ * capacity is rejected with a {@link RejectedExecutionException} and counted. Left to itself, the
+ * dispatcher would run such a task on the submitting thread, which is usually one of Play's request
+ * threads, so that an overloaded database would hold up requests that don't need it. Rejected
+ * requests are answered with 503 Service Unavailable by {@link controllers.ErrorHandler}, and a
+ * growing rejected count means the pool is too small for its load.
+ *
+ * <p>These numbers are exported as metrics tagged with the dispatcher name, see {@link #bindTo}.
+ */
+public abstract class InstrumentedExecutionContext extends CustomExecutionContext
+    implements MeterBinder {
+  private static final Logger LOG = LoggerFactory.getLogger(InstrumentedExecutionContext.class);
+
+  private final String name;
+  private final int poolSize;
+  private final int queueCapacity;
+  private final AtomicInteger queuedTaskCount = new AtomicInteger();
+  private final AtomicInteger activeTaskCount = new AtomicInteger();
+  private final AtomicLong rejectedSubmissionCount = new AtomicLong();
+  private final AtomicBoolean saturated = new AtomicBoolean();
+
+  protected InstrumentedExecutionContext(ActorSystem actorSystem, String name) {
+    super(checkNotNull(actorSystem), checkNotNull(name));
+    Config config = actorSystem.settings().config().getConfig(name);
+    this.name = name;
+    this.poolSize = config.getInt("thread-pool-executor.fixed-pool-size");
+    this.queueCapacity = config.getInt("thread-pool-executor.task-queue-size");
+  }
+
+  @Override
+  public void execute(Runnable command) {
+    int queued = queuedTaskCount.incrementAndGet();
+    if (queueCapacity > 0 && queued > queueCapacity) {
+      queuedTaskCount.decrementAndGet();
+      rejectedSubmissionCount.incrementAndGet();
+      if (saturated.compareAndSet(false, true)) {
+        LOG.warn("The queue of {} is full, rejecting tasks until it drains.", name);
+      }
+      throw new RejectedExecutionException(String.format("The queue of %s is full.", name));
+    } else if (queued <= queueCapacity / 2) {
+      saturated.set(false);
+    }
+    // Count the statements the task runs against the request that submitted it, if any.
+    Runnable task =
+        DatabaseStatementCount.current().map(count -> count.wrap(command)).orElse(command);
+    super.execute(
+        () -> {
+          queuedTaskCount.decrementAndGet();
+          activeTaskCount.incrementAndGet();
+          try {
+            task.run();
+          } finally {
+            activeTaskCount.decrementAndGet();
+          }
+        });
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    Gauge.builder("database.dispatcher.pool.size", this, InstrumentedExecutionContext::getPoolSize)
+        .tag("dispatcher", name)
+        .description("Threads in the dispatcher's pool")
+        .register(registry);
+    Gauge.builder(
+            "database.dispatcher.queue.capacity",
+            this,
+            InstrumentedExecutionContext::getQueueCapacity)
+        .tag("dispatcher", name)
+        .description("Tasks the dispatcher queues before rejecting new ones")
+        .register(registry);
+    Gauge.builder(
+            "database.dispatcher.queued.tasks",
+            this,
+            InstrumentedExecutionContext::getQueuedTaskCount)
+        .tag("dispatcher", name)
+        .description("Submitted tasks that have not started running yet")
+        .register(registry);
+    Gauge.builder(
+            "database.dispatcher.active.tasks",
+            this,
+            InstrumentedExecutionContext::getActiveTaskCount)
+        .tag("dispatcher", name)
+        .description("Tasks that are running")
+        .register(registry);
+    FunctionCounter.builder(
+            "database.dispatcher.rejected.submissions",
+            this,
+            InstrumentedExecutionContext::getRejectedSubmissionCount)
+        .tag("dispatcher", name)
+        .description("Tasks that were rejected because the queue was full")
+        .register(registry);
+  }
+
+  /** Returns the name of the dispatcher in application.conf. */
+  public String getName() {
+    return name;
+  }
+
+  /** Returns the number of threads in the dispatcher's pool. */
+  public int getPoolSize() {
+    return poolSize;
+  }
+
+  /** Returns the number of tasks the dispatcher queues, or a negative number if unbounded. */
+  public int getQueueCapacity() {
+    return queueCapacity;
+  }
+
+  /** Returns the number of submitted tasks that have not started running yet. */
+  public int getQueuedTaskCount() {
+    return queuedTaskCount.get();
+  }
+
+  /** Returns the number of tasks that are running. */
+  public int getActiveTaskCount() {
+    return activeTaskCount.get();
+  }
+
+  /** Returns the number of tasks that were rejected because the queue was full. */
+  public long getRejectedSubmissionCount() {
+    return rejectedSubmissionCount.get();
+  }
+}
@@ -0,0 +1,20 @@
+package repository;
+
+import akka.actor.ActorSystem;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+/**
+ * Custom execution context wired to "database.notification-dispatcher" thread pool, for sending
+ * the notifications in the outbox. Sending waits on the email service as well as the database, so
+ * it runs on its own pool to keep email outages from holding up applicants.
+ */
+@Singleton
+public class NotificationDatabaseExecutionContext extends InstrumentedExecutionContext {
+  public static final String DISPATCHER_NAME = "database.notification-dispatcher";
+
+  @Inject
+  public NotificationDatabaseExecutionContext(ActorSystem actorSystem) {
+    super(actorSystem, DISPATCHER_NAME);
+  }
+}
@@ -0,0 +1,133 @@
+package repository;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.auto.value.AutoValue;
+import com.google.common.collect.ImmutableList;
+import io.ebean.Ebean;
+import io.ebean.EbeanServer;
+import java.time.Instant;
+import javax.inject.Inject;
+import models.ProgramAdminNotification;
+import play.db.ebean.EbeanConfig;
+
+/**
+ * The outbox of {@link ProgramAdminNotification}s. Notifications are added by {@link
+ * ApplicationRepository} when an application is submitted, and claimed, deleted and rescheduled
+ * here by whatever sends them.
+ *
+ * <p>The methods of this class block on the database, so they should be called on a database
+ * execution context.
+ */
+public class ProgramAdminNotificationRepository {
+  private final EbeanServer ebeanServer;
+
+  @Inject
+  public ProgramAdminNotificationRepository(EbeanConfig ebeanConfig) {
+    this.ebeanServer = Ebean.getServer(checkNotNull(ebeanConfig).defaultServer());
+  }
+
+  /**
+   * Claims up to {@code limit} of the notifications that are due at {@code now}, oldest first, by
+   * moving their next attempt to {@code leaseExpiry}. A notification that is claimed but neither
+   * deleted nor rescheduled before then, for example because the server stopped, is claimed again
+   * after it.
+   *
+   * <p>Rows that another server is claiming at the same time are skipped rather than waited for,
+   * so several servers can send notifications without sending any of them twice.
+   */
+  public ImmutableList<ClaimedNotification> claimDue(Instant now, Instant leaseExpiry, int limit) {
+    ebeanServer.beginTransaction();
+    try {
+      ImmutableList<ClaimedNotification> claimed =
+          ebeanServer
+              .sqlQuery(
+                  "UPDATE program_admin_notifications SET next_attempt_time = :leaseExpiry"
+                      + " FROM applications, programs"
+                      + " WHERE program_admin_notifications.id IN ("
+                      + "   SELECT id FROM program_admin_notifications"
+                      + "   WHERE next_attempt_time <= :now"
+                      + "   ORDER BY next_attempt_time, id LIMIT :limit"
+                      + "   FOR UPDATE SKIP LOCKED)"
+                      + " AND applications.id = program_admin_notifications.application_id"
+                      + " AND programs.id = applications.program_id"
+                      + " RETURNING program_admin_notifications.id,"
+                      + " program_admin_notifications.attempts,"
+                      + " applications.id AS application_id, applications.applicant_id,"
+                      + " programs.id AS program_id, programs.name AS program_name")
+              .setParameter("leaseExpiry", leaseExpiry)
+              .setParameter("now", now)
+              .setParameter("limit", limit)
+              .findList()
+              .stream()
+              .map(
+                  row ->
+                      ClaimedNotification.create(
+                          row.getLong("id"),
+                          row.getInteger("attempts"),
+                          row.getLong("application_id"),
+                          row.getLong("applicant_id"),
+                          row.getLong("program_id"),
+                          row.getString("program_name")))
+              .collect(ImmutableList.toImmutableList());
+      ebeanServer.commitTransaction();
+      return claimed;
+    } finally {
+      ebeanServer.endTransaction();
+    }
+  }
+
+  /** Deletes the notifications with the given ids, once they have been sent or given up on. */
+  public void delete(ImmutableList<Long> ids) {
+    if (ids.isEmpty()) {
+      return;
+    }
+    ebeanServer.find(ProgramAdminNotification.class).where().idIn(ids).delete();
+  }
+
+  /**
+   * Records a failed attempt to send each of the notifications with the given ids, and schedules
+   * them to be sent again at {@code nextAttemptTime}.
+   */
+  public void reschedule(ImmutableList<Long> ids, Instant nextAttemptTime) {
+    if (ids.isEmpty()) {
+      return;
+    }
+    ebeanServer
+        .update(ProgramAdminNotification.class)
+        .setRaw("attempts = attempts + 1")
+        .set("nextAttemptTime", nextAttemptTime)
+        .where()
+        .idIn(ids)
+        .update();
+  }
+
+  /** A notification that was claimed for sending, with what is needed to write its email. */
+  @AutoValue
+  public abstract static class ClaimedNotification {
+    public abstract long id();
+
+    /** The number of times sending this notification has failed. */
+    public abstract int attempts();
+
+    public abstract long applicationId();
+
+    public abstract long applicantId();
+
+    public abstract long programId();
+
+    /** The admin name of the program the application was submitted to. */
+    public abstract String programName();
+
+    public static ClaimedNotification create(
+        long id,
+        int attempts,
+        long applicationId,
+        long applicantId,
+        long programId,
+        String programName) {
+      return new AutoValue_ProgramAdminNotificationRepository_ClaimedNotification(
+          id, attempts, applicationId, applicantId, programId, programName);
+    }
+  }
+}
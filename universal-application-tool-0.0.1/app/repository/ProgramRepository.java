@@ -12,7 +12,9 @@ import io.ebean.TxScope;
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.CompletionStage;
+import java.util.function.Function;
 import javax.inject.Inject;
 import javax.inject.Provider;
 import models.Account;
@@ -20,22 +22,33 @@ import models.LifecycleStage;
 import models.Program;
 import models.Version;
 import play.db.ebean.EbeanConfig;
+import services.program.ProgramDefinition;
+import services.program.ProgramDefinitionCache;
 import services.program.ProgramNotFoundException;
 
 public class ProgramRepository {
 
   private final EbeanServer ebeanServer;
   private final DatabaseExecutionContext executionContext;
+  private final AdminDatabaseExecutionContext adminExecutionContext;
   private final Provider<VersionRepository> versionRepository;
+  private final ProgramDefinitionCache programDefinitionCache;
+  private final ActiveProgramCatalog activeProgramCatalog;
 
   @Inject
   public ProgramRepository(
       EbeanConfig ebeanConfig,
       DatabaseExecutionContext executionContext,
-      Provider<VersionRepository> versionRepository) {
+      AdminDatabaseExecutionContext adminExecutionContext,
+      Provider<VersionRepository> versionRepository,
+      ProgramDefinitionCache programDefinitionCache,
+      ActiveProgramCatalog activeProgramCatalog) {
     this.ebeanServer = Ebean.getServer(checkNotNull(ebeanConfig).defaultServer());
     this.executionContext = checkNotNull(executionContext);
+    this.adminExecutionContext = checkNotNull(adminExecutionContext);
     this.versionRepository = checkNotNull(versionRepository);
+    this.programDefinitionCache = checkNotNull(programDefinitionCache);
+    this.activeProgramCatalog = checkNotNull(activeProgramCatalog);
   }
 
   public CompletionStage<Optional<Program>> lookupProgram(long id) {
@@ -53,9 +66,52 @@ public class ProgramRepository {
 
   public Program updateProgramSync(Program program) {
     ebeanServer.update(program);
+    programDefinitionCache.invalidateAll();
+    activeProgramCatalog.invalidate();
     return program;
   }
 
+  /** Updates the program on the {@link AdminDatabaseExecutionContext}. */
+  public CompletionStage<Program> updateProgramAsync(Program program) {
+    return supplyAsync(() -> updateProgramSync(program), adminExecutionContext);
+  }
+
+  /**
+   * Updates the program with the given id to the one that {@code update} makes from its current
+   * definition, on the {@link AdminDatabaseExecutionContext}. The program's row is locked while it
+   * is read and written in a single transaction, so concurrent updates to the same program are
+   * applied one after the other instead of overwriting each other.
+   *
+   * <p>The returned stage fails with a {@link ProgramNotFoundException} if there is no such
+   * program, and with the cause of any {@link CompletionException} that {@code update} throws.
+   */
+  public CompletionStage<Program> updateProgramAsync(
+      long programId, Function<ProgramDefinition, Program> update) {
+    return supplyAsync(
+        () -> {
+          Transaction transaction = ebeanServer.beginTransaction(TxScope.requiresNew());
+          try {
+            Program program =
+                ebeanServer
+                    .find(Program.class)
+                    .forUpdate()
+                    .setId(programId)
+                    .findOneOrEmpty()
+                    .orElseThrow(
+                        () -> new CompletionException(new ProgramNotFoundException(programId)));
+            Program updatedProgram = update.apply(program.getProgramDefinition());
+            ebeanServer.update(updatedProgram);
+            transaction.commit();
+            programDefinitionCache.invalidateAll();
+            activeProgramCatalog.invalidate();
+            return updatedProgram;
+          } finally {
+            transaction.end();
+          }
+        },
+        adminExecutionContext);
+  }
+
   public Program createOrUpdateDraft(Program existingProgram) {
     Version draftVersion = versionRepository.get().getDraftVersion();
     Optional<Program> existingDraft =
@@ -117,30 +173,60 @@ public class ProgramRepository {
     }
   }
 
+  /**
+   * Returns the active program with the given slug, as used in deep links to programs. If several
+   * active programs have the slug, the one with the lowest id is returned.
+   *
+   * <p>The program is looked up by the stored {@code programs.slug} column and its index. Programs
+   * that were stored without a slug get theirs the first time a lookup finds nothing.
+   */
   public CompletableFuture<Program> getForSlug(String slug) {
     return supplyAsync(
         () -> {
-          for (Program program :
-              ebeanServer.find(Program.class).where().isNull("slug").findList()) {
-            program.getSlug();
-            program.save();
-          }
-          ImmutableList<Program> activePrograms =
-              versionRepository.get().getActiveVersion().getPrograms();
-          List<Program> programsMatchingSlug =
-              ebeanServer.find(Program.class).where().eq("slug", slug).findList();
-          Optional<Program> programMaybe =
-              activePrograms.stream()
-                  .filter(activeProgram -> programsMatchingSlug.contains(activeProgram))
-                  .findFirst();
-          if (programMaybe.isPresent()) {
-            return programMaybe.get();
+          Optional<Program> program = findActiveProgramBySlug(slug);
+          if (program.isEmpty() && storeMissingSlugs() > 0) {
+            program = findActiveProgramBySlug(slug);
           }
-          throw new RuntimeException(new ProgramNotFoundException(slug));
+          return program.orElseThrow(
+              () -> new RuntimeException(new ProgramNotFoundException(slug)));
         },
         executionContext.current());
   }
 
+  private Optional<Program> findActiveProgramBySlug(String slug) {
+    return ebeanServer
+        .find(Program.class)
+        .where()
+        .eq("slug", slug)
+        .raw(
+            "id IN (SELECT versions_programs.programs_id FROM versions_programs"
+                + " JOIN versions ON versions.id = versions_programs.versions_id"
+                + " WHERE versions.lifecycle_stage = ?)",
+            LifecycleStage.ACTIVE.getValue())
+        .orderBy()
+        .asc("id")
+        .setMaxRows(1)
+        .findOneOrEmpty();
+  }
+
+  /** Stores the slugs of the programs that do not have one, and returns how many there were. */
+  private int storeMissingSlugs() {
+    List<Program> programs =
+        ebeanServer
+            .find(Program.class)
+            .where()
+            .or()
+            .isNull("slug")
+            .eq("slug", "")
+            .endOr()
+            .findList();
+    for (Program program : programs) {
+      program.getSlug();
+      program.save();
+    }
+    return programs.size();
+  }
+
   public ImmutableList<Account> getProgramAdministrators(String programName) {
     return ImmutableList.copyOf(
         ebeanServer.find(Account.class).where().arrayContains("admin_of", programName).findList());
@@ -155,16 +241,23 @@ public class ProgramRepository {
     return getProgramAdministrators(program.get().getProgramDefinition().adminName());
   }
 
-  public ImmutableList<Program> getOtherProgramVersions(long programId) {
-    return ebeanServer
-        .find(Program.class)
-        .where()
-        .eq(
-            "name",
-            ebeanServer.find(Program.class).setId(programId).select("name").findSingleAttribute())
-        .ne("id", programId)
-        .findList()
-        .stream()
-        .collect(ImmutableList.toImmutableList());
+  public CompletionStage<ImmutableList<Program>> getOtherProgramVersions(long programId) {
+    return supplyAsync(
+        () ->
+            ebeanServer
+                .find(Program.class)
+                .where()
+                .eq(
+                    "name",
+                    ebeanServer
+                        .find(Program.class)
+                        .setId(programId)
+                        .select("name")
+                        .findSingleAttribute())
+                .ne("id", programId)
+                .findList()
+                .stream()
+                .collect(ImmutableList.toImmutableList()),
+        adminExecutionContext);
   }
 }
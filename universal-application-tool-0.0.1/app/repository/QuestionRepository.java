@@ -10,12 +10,15 @@ import io.ebean.TxScope;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.CompletionStage;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import javax.inject.Inject;
 import javax.inject.Provider;
 import models.Question;
 import models.Version;
 import play.db.ebean.EbeanConfig;
+import services.program.ProgramDefinitionCache;
+import services.question.ReadOnlyQuestionServiceCache;
 import services.question.exceptions.UnsupportedQuestionTypeException;
 import services.question.types.QuestionDefinition;
 import services.question.types.QuestionDefinitionBuilder;
@@ -24,23 +27,65 @@ public class QuestionRepository {
 
   private final EbeanServer ebeanServer;
   private final DatabaseExecutionContext executionContext;
+  private final AdminDatabaseExecutionContext adminExecutionContext;
   private final Provider<VersionRepository> versionRepositoryProvider;
+  private final ProgramDefinitionCache programDefinitionCache;
+  private final ReadOnlyQuestionServiceCache readOnlyQuestionServiceCache;
 
   @Inject
   public QuestionRepository(
       EbeanConfig ebeanConfig,
       DatabaseExecutionContext executionContext,
+      AdminDatabaseExecutionContext adminExecutionContext,
       ProgramRepository programRepository,
-      Provider<VersionRepository> versionRepositoryProvider) {
+      Provider<VersionRepository> versionRepositoryProvider,
+      ProgramDefinitionCache programDefinitionCache,
+      ReadOnlyQuestionServiceCache readOnlyQuestionServiceCache) {
     this.ebeanServer = Ebean.getServer(checkNotNull(ebeanConfig).defaultServer());
     this.executionContext = checkNotNull(executionContext);
+    this.adminExecutionContext = checkNotNull(adminExecutionContext);
     this.versionRepositoryProvider = checkNotNull(versionRepositoryProvider);
+    this.programDefinitionCache = checkNotNull(programDefinitionCache);
+    this.readOnlyQuestionServiceCache = checkNotNull(readOnlyQuestionServiceCache);
   }
 
   public CompletionStage<Set<Question>> listQuestions() {
     return supplyAsync(() -> ebeanServer.find(Question.class).findSet(), executionContext);
   }
 
+  /**
+   * Returns a fingerprint of the active and draft versions and the questions in them. It changes
+   * whenever either version changes lifecycle stage or has a question added to it, and is much
+   * cheaper to compute than loading the questions themselves. It does not change when a question
+   * is edited in place.
+   */
+  public CompletionStage<String> getActiveAndDraftQuestionsFingerprint() {
+    return supplyAsync(
+        () ->
+            ebeanServer
+                .sqlQuery(
+                    "SELECT versions.id, versions.lifecycle_stage,"
+                        + " COUNT(versions_questions.questions_id) AS question_count,"
+                        + " MAX(versions_questions.questions_id) AS max_question_id"
+                        + " FROM versions LEFT JOIN versions_questions"
+                        + " ON versions_questions.versions_id = versions.id"
+                        + " WHERE versions.lifecycle_stage IN ('active', 'draft')"
+                        + " GROUP BY versions.id, versions.lifecycle_stage"
+                        + " ORDER BY versions.id")
+                .findList()
+                .stream()
+                .map(
+                    row ->
+                        String.join(
+                            ":",
+                            row.getString("id"),
+                            row.getString("lifecycle_stage"),
+                            row.getString("question_count"),
+                            row.getString("max_question_id")))
+                .collect(Collectors.joining(",")),
+        executionContext);
+  }
+
   public CompletionStage<Optional<Question>> lookupQuestion(long id) {
     return supplyAsync(
         () -> ebeanServer.find(Question.class).setId(id).findOneOrEmpty(), executionContext);
@@ -61,6 +106,7 @@ public class QuestionRepository {
                   new QuestionDefinitionBuilder(definition).setId(existingDraft.get().id).build());
           this.updateQuestionSync(updatedDraft);
           transaction.commit();
+          readOnlyQuestionServiceCache.invalidate();
           return updatedDraft;
         } else {
           Question newDraft =
@@ -78,6 +124,7 @@ public class QuestionRepository {
           transaction.setNestedUseSavepoint();
           versionRepositoryProvider.get().updateProgramsForNewDraftQuestion(definition.getId());
           transaction.commit();
+          readOnlyQuestionServiceCache.invalidate();
           return newDraft;
         }
       } catch (UnsupportedQuestionTypeException e) {
@@ -170,13 +217,15 @@ public class QuestionRepository {
     return supplyAsync(
         () -> {
           ebeanServer.insert(question);
+          readOnlyQuestionServiceCache.invalidate();
           return question;
         },
-        executionContext);
+        adminExecutionContext);
   }
 
   public Question insertQuestionSync(Question question) {
     ebeanServer.insert(question);
+    readOnlyQuestionServiceCache.invalidate();
     return question;
   }
 
@@ -184,13 +233,17 @@ public class QuestionRepository {
     return supplyAsync(
         () -> {
           ebeanServer.update(question);
+          programDefinitionCache.invalidateAll();
+          readOnlyQuestionServiceCache.invalidate();
           return question;
         },
-        executionContext);
+        adminExecutionContext);
   }
 
   public Question updateQuestionSync(Question question) {
     ebeanServer.update(question);
+    programDefinitionCache.invalidateAll();
+    readOnlyQuestionServiceCache.invalidate();
     return question;
   }
 }
@@ -0,0 +1,81 @@
+package repository;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.collect.ImmutableSet;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Statement;
+import javax.sql.DataSource;
+
+/**
+ * Wraps a {@link DataSource} so that every statement run on its connections is counted by {@link
+ * DatabaseStatementCount}. Everything else is passed through to the wrapped objects unchanged.
+ */
+public final class StatementCountingDataSource {
+
+  private static final ImmutableSet<String> EXECUTE_METHODS =
+      ImmutableSet.of(
+          "execute",
+          "executeQuery",
+          "executeUpdate",
+          "executeLargeUpdate",
+          "executeBatch",
+          "executeLargeBatch");
+
+  private StatementCountingDataSource() {}
+
+  /** Returns a data source that counts the statements run on connections from {@code target}. */
+  public static DataSource wrap(DataSource target) {
+    return proxy(DataSource.class, checkNotNull(target));
+  }
+
+  /**
+   * Returns a proxy of {@code target} that counts statement executions and wraps the connections
+   * and statements it returns.
+   */
+  private static <T> T proxy(Class<T> type, T target) {
+    InvocationHandler handler =
+        (proxy, method, args) -> {
+          // Compare proxies by identity, since the wrapped object doesn't know about its proxy.
+          if (method.getName().equals("equals") && method.getParameterCount() == 1) {
+            return proxy == args[0];
+          }
+          if (method.getName().equals("hashCode") && method.getParameterCount() == 0) {
+            return System.identityHashCode(proxy);
+          }
+          if (target instanceof Statement && EXECUTE_METHODS.contains(method.getName())) {
+            DatabaseStatementCount.increment();
+          }
+          Object result;
+          try {
+            result = method.invoke(target, args);
+          } catch (InvocationTargetException e) {
+            throw e.getCause();
+          }
+          return wrapResult(method, result);
+        };
+    return type.cast(
+        Proxy.newProxyInstance(
+            StatementCountingDataSource.class.getClassLoader(), new Class<?>[] {type}, handler));
+  }
+
+  /** Wraps the connections that data sources return and the statements that connections make. */
+  private static Object wrapResult(Method method, Object result) {
+    Class<?> returnType = method.getReturnType();
+    if (result == null
+        || method.getName().equals("unwrap")
+        || !returnType.isInterface()
+        || !(Connection.class.equals(returnType) || Statement.class.isAssignableFrom(returnType))) {
+      return result;
+    }
+    return wrapAs(returnType, result);
+  }
+
+  private static <T> T wrapAs(Class<T> type, Object result) {
+    return proxy(type, type.cast(result));
+  }
+}
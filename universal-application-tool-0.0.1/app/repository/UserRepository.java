@@ -10,39 +10,52 @@ import com.google.common.collect.ImmutableSet;
 import forms.AddApplicantToTrustedIntermediaryGroupForm;
 import io.ebean.Ebean;
 import io.ebean.EbeanServer;
+import io.ebean.ExpressionList;
+import io.ebean.SqlUpdate;
+import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.CompletionStage;
 import javax.inject.Inject;
-import javax.inject.Provider;
+import javax.persistence.OptimisticLockException;
 import models.Account;
 import models.Applicant;
-import models.Application;
 import models.LifecycleStage;
 import models.Program;
 import models.TrustedIntermediaryGroup;
 import play.db.ebean.EbeanConfig;
+import services.Path;
+import services.applicant.ApplicantData;
 import services.program.ProgramDefinition;
 import services.ti.EmailAddressExistsException;
 import services.ti.NoSuchTrustedIntermediaryError;
 import services.ti.NoSuchTrustedIntermediaryGroupError;
 
 public class UserRepository {
+  // The position of the account with the given id in the managed accounts sort order.
+  private static final String MANAGED_ACCOUNT_SORT_KEY =
+      "(SELECT a.display_name, a.id FROM accounts a WHERE a.id = ?)";
 
   private final EbeanServer ebeanServer;
   private final DatabaseExecutionContext executionContext;
-  private final Provider<VersionRepository> versionRepositoryProvider;
+  private final ActiveProgramCatalog activeProgramCatalog;
+  private final AccountCache accountCache;
 
   @Inject
   public UserRepository(
       EbeanConfig ebeanConfig,
       DatabaseExecutionContext executionContext,
-      Provider<VersionRepository> versionRepositoryProvider) {
+      ActiveProgramCatalog activeProgramCatalog,
+      AccountCache accountCache) {
     this.ebeanServer = Ebean.getServer(checkNotNull(ebeanConfig).defaultServer());
     this.executionContext = checkNotNull(executionContext);
-    this.versionRepositoryProvider = checkNotNull(versionRepositoryProvider);
+    this.activeProgramCatalog = checkNotNull(activeProgramCatalog);
+    this.accountCache = checkNotNull(accountCache);
   }
 
   public CompletionStage<Set<Applicant>> listApplicants() {
@@ -60,35 +73,52 @@ public class UserRepository {
    */
   public CompletionStage<ImmutableList<ProgramDefinition>> programsForApplicant(long applicantId) {
     return supplyAsync(
-            () -> {
-              List<Program> inProgressPrograms =
-                  ebeanServer
-                      .find(Program.class)
-                      .alias("p")
-                      .where()
-                      .exists(
-                          ebeanServer
-                              .find(Application.class)
-                              .where()
-                              .eq("applicant.id", applicantId)
-                              .eq("lifecycle_stage", LifecycleStage.DRAFT)
-                              .raw("program.id = p.id")
-                              .query())
-                      .endOr()
-                      .findList();
-              List<Program> activePrograms =
-                  versionRepositoryProvider.get().getActiveVersion().getPrograms();
-              return new ImmutableList.Builder<Program>()
-                  .addAll(activePrograms)
-                  .addAll(inProgressPrograms)
-                  .build();
-            },
-            executionContext.current())
-        .thenApplyAsync(
-            (programs) ->
-                programs.stream()
-                    .map(program -> program.getProgramDefinition())
-                    .collect(ImmutableList.toImmutableList()));
+        () -> {
+          ImmutableList<ProgramDefinition> activePrograms =
+              activeProgramCatalog.getActivePrograms();
+          ImmutableList<Long> inProgressProgramIds =
+              getProgramIdsWithDraftApplications(applicantId);
+          Map<Long, ProgramDefinition> programsById = new HashMap<>();
+          activePrograms.forEach(program -> programsById.put(program.id(), program));
+
+          // Only programs that are no longer active need to be loaded.
+          ImmutableList<Long> inactiveProgramIds =
+              inProgressProgramIds.stream()
+                  .filter(programId -> !programsById.containsKey(programId))
+                  .collect(ImmutableList.toImmutableList());
+          if (!inactiveProgramIds.isEmpty()) {
+            ebeanServer.find(Program.class).where().idIn(inactiveProgramIds).findList().stream()
+                .map(Program::getProgramDefinition)
+                .forEach(program -> programsById.put(program.id(), program));
+          }
+
+          ImmutableList.Builder<ProgramDefinition> programs =
+              ImmutableList.<ProgramDefinition>builder().addAll(activePrograms);
+          for (long programId : inProgressProgramIds) {
+            if (programsById.containsKey(programId)) {
+              programs.add(programsById.get(programId));
+            }
+          }
+          return programs.build();
+        },
+        executionContext.current());
+  }
+
+  /**
+   * Returns the ids of the programs the applicant has a draft application for, using an index on
+   * the applications table instead of loading the applications or programs.
+   */
+  private ImmutableList<Long> getProgramIdsWithDraftApplications(long applicantId) {
+    return ImmutableList.copyOf(
+        ebeanServer
+            .sqlQuery(
+                "SELECT DISTINCT program_id FROM applications"
+                    + " WHERE applicant_id = :applicantId AND lifecycle_stage = :draft"
+                    + " ORDER BY program_id")
+            .setParameter("applicantId", applicantId)
+            .setParameter("draft", LifecycleStage.DRAFT.getValue())
+            .mapToScalar(Long.class)
+            .findList());
   }
 
   public Optional<Account> lookupAccount(String emailAddress) {
@@ -123,6 +153,7 @@ public class UserRepository {
           Applicant newApplicant = new Applicant();
           newApplicant.setAccount(accountMaybe.get());
           newApplicant.save();
+          accountCache.invalidate(accountMaybe.get().id);
           return Optional.of(newApplicant);
         },
         executionContext);
@@ -132,40 +163,168 @@ public class UserRepository {
     return supplyAsync(
         () -> {
           ebeanServer.insert(applicant);
+          invalidateAccountOf(applicant);
           return null;
         },
         executionContext);
   }
 
+  /**
+   * Saves the applicant's data and preferred locale.
+   *
+   * <p>If the applicant was loaded from the database, only the paths of the applicant's data that
+   * changed since then are written, with {@code jsonb_set} and {@code #-}, rather than the whole
+   * document. The whole document is written if the changes would be larger than it.
+   *
+   * <p>Either way, the update fails with an {@link OptimisticLockException} if the applicant was
+   * updated since it was loaded. After a partial write the applicant is brought up to date with the
+   * row as if Ebean had saved it, so the same {@link Applicant} can be updated again.
+   */
   public CompletionStage<Void> updateApplicant(Applicant applicant) {
     return supplyAsync(
         () -> {
-          ebeanServer.update(applicant);
+          Optional<SqlUpdate> patch = createPatchUpdate(applicant);
+          if (patch.isPresent() && patch.get().execute() == 1) {
+            applicant.markPatched();
+            // Forget the changes markPatched made, as they are already in the database.
+            ebeanServer.getBeanState(applicant).setLoaded();
+          } else {
+            // Ebean's update throws OptimisticLockException if the patch didn't match the version.
+            ebeanServer.update(applicant);
+          }
+          applicant.getApplicantData().clearChangedPaths();
+          invalidateAccountOf(applicant);
           return null;
         },
         executionContext);
   }
 
+  /**
+   * Returns an update that applies the changes to the applicant's data to the stored document, or
+   * empty if the whole document should be written instead.
+   */
+  private Optional<SqlUpdate> createPatchUpdate(Applicant applicant) {
+    ApplicantData applicantData = applicant.getApplicantData();
+    int documentLength = applicant.getStoredObjectLength();
+    if (applicant.id == null || documentLength == 0) {
+      return Optional.empty();
+    }
+
+    StringBuilder object = new StringBuilder("object");
+    Map<String, Object> parameters = new HashMap<>();
+    int patchLength = 0;
+    int change = 0;
+    for (Path path : applicantData.getChangedPaths()) {
+      Optional<ImmutableList<String>> keys = toJsonbPath(path);
+      if (keys.isEmpty()) {
+        return Optional.empty();
+      }
+      StringBuilder keysArray = new StringBuilder("CAST(ARRAY[");
+      for (int i = 0; i < keys.get().size(); i++) {
+        String name = String.format("key%d_%d", change, i);
+        keysArray.append(i == 0 ? ":" : ", :").append(name);
+        parameters.put(name, keys.get().get(i));
+        patchLength += keys.get().get(i).length();
+      }
+      keysArray.append("] AS text[])");
+
+      Optional<String> value = applicantData.readAsJson(path);
+      if (value.isPresent()) {
+        String name = String.format("value%d", change);
+        object.insert(0, "jsonb_set(").append(", ").append(keysArray);
+        object.append(", CAST(:").append(name).append(" AS jsonb))");
+        parameters.put(name, value.get());
+        patchLength += value.get().length();
+      } else {
+        object.insert(0, '(').append(" #- ").append(keysArray).append(')');
+      }
+      if (patchLength >= documentLength) {
+        return Optional.empty();
+      }
+      change++;
+    }
+
+    SqlUpdate update =
+        ebeanServer
+            .sqlUpdate(
+                "UPDATE applicants SET object = "
+                    + object
+                    + ", preferred_locale = NULLIF(:preferredLocale, ''), version = version + 1"
+                    + " WHERE id = :id AND version = :version")
+            .setParameter(
+                "preferredLocale", Strings.nullToEmpty(applicant.getPreferredLocaleTag()))
+            .setParameter("id", applicant.id)
+            .setParameter("version", applicant.getVersion());
+    parameters.forEach(update::setParameter);
+    return Optional.of(update);
+  }
+
+  /**
+   * Returns the keys and array indices of a path as a Postgres JSON path, e.g. {@code
+   * {applicant,children,2,name}} for {@code applicant.children[2].name}. Returns empty for paths
+   * that do not refer to a single value, such as the root path or {@code applicant.children[]}.
+   */
+  private static Optional<ImmutableList<String>> toJsonbPath(Path path) {
+    if (path.isEmpty()) {
+      return Optional.empty();
+    }
+    List<String> keys = new ArrayList<>();
+    for (; !path.isEmpty(); path = path.parentPath()) {
+      if (path.isArrayElement()) {
+        try {
+          keys.add(String.valueOf(path.arrayIndex()));
+        } catch (IllegalStateException e) {
+          return Optional.empty();
+        }
+        path = path.withoutArrayReference();
+      }
+      keys.add(path.keyName());
+    }
+    return Optional.of(ImmutableList.copyOf(keys).reverse());
+  }
+
   public Optional<Applicant> lookupApplicantSync(long id) {
     return ebeanServer.find(Applicant.class).setId(id).findOneOrEmpty();
   }
 
+  /** Returns the first applicant created for the account with the given id, if it has any. */
+  public Optional<Applicant> lookupFirstApplicantSync(long accountId) {
+    return ebeanServer
+        .find(Applicant.class)
+        .where()
+        .eq("account.id", accountId)
+        .orderBy()
+        .asc("whenCreated")
+        .setMaxRows(1)
+        .findOneOrEmpty();
+  }
+
   /** Merge the older applicant data into the newer applicant, and set both to the given account. */
   public CompletionStage<Applicant> mergeApplicants(
       Applicant left, Applicant right, Account account) {
     return supplyAsync(
         () -> {
+          invalidateAccountOf(left);
+          invalidateAccountOf(right);
           left.setAccount(account);
           left.save();
           right.setAccount(account);
           right.save();
           Applicant merged = mergeApplicants(left, right);
           merged.save();
+          accountCache.invalidate(account.id);
           return merged;
         },
         executionContext);
   }
 
+  /** Removes the account of the applicant, if it has one, from the {@link AccountCache}. */
+  private void invalidateAccountOf(Applicant applicant) {
+    if (applicant.getAccount() != null) {
+      accountCache.invalidate(applicant.getAccount().id);
+    }
+  }
+
   /** Merge the applicant data from older applicant into the newer applicant. */
   private Applicant mergeApplicants(Applicant left, Applicant right) {
     if (left.getWhenCreated().isAfter(right.getWhenCreated())) {
@@ -195,13 +354,101 @@ public class UserRepository {
     if (tiGroup.isEmpty()) {
       throw new NoSuchTrustedIntermediaryGroupError();
     }
+    // Deleting the group removes its members from it.
+    tiGroup.get().getTrustedIntermediaries().forEach(ti -> accountCache.invalidate(ti.id));
     ebeanServer.delete(tiGroup.get());
   }
 
+  /**
+   * Returns true if the account with the given id may act on behalf of the applicant with the given
+   * id, which is the case if the account owns the applicant, or the applicant's account is managed
+   * by the TI group the account is a member of.
+   *
+   * <p>This is a single lookup of the applicant and its account by primary key, so its cost does
+   * not depend on how many accounts the TI group manages.
+   */
+  public boolean isAuthorizedForApplicant(long accountId, long applicantId) {
+    return ebeanServer
+        .sqlQuery(
+            "SELECT EXISTS ("
+                + "SELECT 1 FROM applicants"
+                + " JOIN accounts owner ON owner.id = applicants.account_id"
+                + " WHERE applicants.id = :applicantId"
+                + " AND (owner.id = :accountId OR owner.managed_by_group_id = ("
+                + "SELECT member_of_group_id FROM accounts WHERE id = :accountId))"
+                + ") AS authorized")
+        .setParameter("applicantId", applicantId)
+        .setParameter("accountId", accountId)
+        .mapToScalar(Boolean.class)
+        .findOne();
+  }
+
   public Optional<TrustedIntermediaryGroup> getTrustedIntermediaryGroup(long id) {
     return ebeanServer.find(TrustedIntermediaryGroup.class).setId(id).findOneOrEmpty();
   }
 
+  /**
+   * Returns up to {@code limit} of the accounts managed by the TI group with the given id, sorted
+   * by display name and then id. If {@code afterAccountId} is present, the page starts right after
+   * that account in the sort order, otherwise it starts at the first account. If {@code search} is
+   * present, only accounts whose display name contains it, ignoring case, are included.
+   *
+   * <p>Pages are found by seeking to the position of the given account in the index on {@code
+   * (managed_by_group_id, display_name, id)}, so the cost of loading a page does not depend on how
+   * far into the list it is.
+   */
+  public ImmutableList<Account> getManagedAccountsAfter(
+      long tiGroupId, Optional<String> search, Optional<Long> afterAccountId, int limit) {
+    ExpressionList<Account> accounts = managedAccounts(tiGroupId, search);
+    if (afterAccountId.isPresent()) {
+      accounts =
+          accounts.raw(
+              "(display_name, id) > " + MANAGED_ACCOUNT_SORT_KEY, afterAccountId.get());
+    }
+    return ImmutableList.copyOf(
+        accounts.orderBy().asc("displayName").orderBy().asc("id").setMaxRows(limit).findList());
+  }
+
+  /**
+   * Returns up to {@code limit} of the accounts that come right before the account with id {@code
+   * beforeAccountId} in the order used by {@link #getManagedAccountsAfter}, in that same order.
+   */
+  public ImmutableList<Account> getManagedAccountsBefore(
+      long tiGroupId, Optional<String> search, long beforeAccountId, int limit) {
+    return ImmutableList.copyOf(
+            managedAccounts(tiGroupId, search)
+                .raw("(display_name, id) < " + MANAGED_ACCOUNT_SORT_KEY, beforeAccountId)
+                .orderBy()
+                .desc("displayName")
+                .orderBy()
+                .desc("id")
+                .setMaxRows(limit)
+                .findList())
+        .reverse();
+  }
+
+  /**
+   * Returns the number of accounts that {@link #getManagedAccountsAfter} pages through for the
+   * given TI group and search.
+   */
+  public int countManagedAccounts(long tiGroupId, Optional<String> search) {
+    return managedAccounts(tiGroupId, search).findCount();
+  }
+
+  private ExpressionList<Account> managedAccounts(long tiGroupId, Optional<String> search) {
+    ExpressionList<Account> accounts =
+        ebeanServer.find(Account.class).where().eq("managedByGroup.id", tiGroupId);
+    if (search.isPresent() && !search.get().isEmpty()) {
+      accounts =
+          accounts.raw(
+              "lower(display_name) LIKE ?",
+              "%"
+                  + ApplicationRepository.escapeLikePattern(search.get().toLowerCase(Locale.ROOT))
+                  + "%");
+    }
+    return accounts;
+  }
+
   /**
    * Adds the given email address to the TI group. If the email address does not correspond to an
    * existing account, then create an account and associate it, so it will be ready when the TI
@@ -224,6 +471,7 @@ public class UserRepository {
             });
     account.setMemberOfGroup(tiGroup.get());
     account.save();
+    accountCache.invalidate(account.id);
   }
 
   public void removeTrustedIntermediaryFromGroup(long id, long accountId)
@@ -241,6 +489,7 @@ public class UserRepository {
         && account.getMemberOfGroup().get().equals(tiGroup.get())) {
       account.setMemberOfGroup(null);
       account.save();
+      accountCache.invalidate(account.id);
     } else {
       throw new NoSuchTrustedIntermediaryError();
     }
@@ -304,6 +553,7 @@ public class UserRepository {
             });
     account.addAdministeredProgram(program);
     account.save();
+    accountCache.invalidate(account.id);
   }
 
   /**
@@ -319,6 +569,7 @@ public class UserRepository {
         account -> {
           account.removeAdministeredProgram(program);
           account.save();
+          accountCache.invalidate(account.id);
         });
   }
 
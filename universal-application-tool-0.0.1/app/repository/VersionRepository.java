@@ -24,7 +24,9 @@ import org.slf4j.LoggerFactory;
 import play.db.ebean.EbeanConfig;
 import services.program.BlockDefinition;
 import services.program.ProgramDefinition;
+import services.program.ProgramDefinitionCache;
 import services.program.ProgramQuestionDefinition;
+import services.question.ReadOnlyQuestionServiceCache;
 
 /** A repository object for dealing with versioning of questions and programs. */
 public class VersionRepository {
@@ -32,11 +34,19 @@ public class VersionRepository {
   private final EbeanServer ebeanServer;
   private final Logger LOG = LoggerFactory.getLogger(VersionRepository.class);
   private final ProgramRepository programRepository;
+  private final ProgramDefinitionCache programDefinitionCache;
+  private final ReadOnlyQuestionServiceCache readOnlyQuestionServiceCache;
 
   @Inject
-  public VersionRepository(EbeanConfig ebeanConfig, ProgramRepository programRepository) {
+  public VersionRepository(
+      EbeanConfig ebeanConfig,
+      ProgramRepository programRepository,
+      ProgramDefinitionCache programDefinitionCache,
+      ReadOnlyQuestionServiceCache readOnlyQuestionServiceCache) {
     this.ebeanServer = Ebean.getServer(checkNotNull(ebeanConfig).defaultServer());
     this.programRepository = checkNotNull(programRepository);
+    this.programDefinitionCache = checkNotNull(programDefinitionCache);
+    this.readOnlyQuestionServiceCache = checkNotNull(readOnlyQuestionServiceCache);
   }
 
   /**
@@ -86,6 +96,8 @@ public class VersionRepository {
       draft.save();
       draft.refresh();
       ebeanServer.commitTransaction();
+      programDefinitionCache.invalidateAll();
+      readOnlyQuestionServiceCache.invalidate();
     } finally {
       ebeanServer.endTransaction();
     }
@@ -126,6 +138,7 @@ public class VersionRepository {
             .eq("lifecycle_stage", LifecycleStage.DRAFT)
             .findOne();
         transaction.commit();
+        readOnlyQuestionServiceCache.invalidate();
         return newDraftVersion;
       } catch (NonUniqueResultException | SerializableConflictException | RollbackException e) {
         transaction.rollback(e);
@@ -251,5 +264,7 @@ public class VersionRepository {
     activeVersion.save();
     draftVersion.setLifecycleStage(LifecycleStage.DELETED);
     draftVersion.save();
+    programDefinitionCache.invalidateAll();
+    readOnlyQuestionServiceCache.invalidate();
   }
 }
@@ -3,10 +3,6 @@ package services;
 import com.google.common.collect.ImmutableList;
 
 public class PaginationInfo<T> {
-  public ImmutableList<T> getAllItems() {
-    return allItems;
-  }
-
   public ImmutableList<T> getPageItems() {
     return pageItems;
   }
@@ -19,14 +15,11 @@ public class PaginationInfo<T> {
     return pageCount;
   }
 
-  private final ImmutableList<T> allItems;
   private final ImmutableList<T> pageItems;
   private final int page;
   private final int pageCount;
 
-  private PaginationInfo(
-      ImmutableList<T> allItems, ImmutableList<T> pageItems, int page, int pageCount) {
-    this.allItems = allItems;
+  private PaginationInfo(ImmutableList<T> pageItems, int page, int pageCount) {
     this.pageItems = pageItems;
     this.page = page;
     this.pageCount = pageCount;
@@ -34,24 +27,38 @@ public class PaginationInfo<T> {
 
   public static <V> PaginationInfo<V> paginate(ImmutableList<V> allItems, int pageSize, int page) {
     int endOfListIndex = page * pageSize;
-    int totalPageCount = (int) Math.ceil((double) allItems.size() / pageSize);
     if (allItems.size() <= endOfListIndex) {
       endOfListIndex = allItems.size();
     }
     ImmutableList<V> pageItems;
     if (allItems.size() <= (page - 1) * pageSize) {
       pageItems = ImmutableList.of();
-      if (allItems.size() == 0) {
+    } else {
+      pageItems = allItems.subList((page - 1) * pageSize, endOfListIndex);
+    }
+    return fromPage(pageItems, allItems.size(), pageSize, page);
+  }
+
+  /**
+   * Creates a {@link PaginationInfo} for a page that has already been fetched, for example by a
+   * database query that only returns the items on that page.
+   *
+   * @param pageItems the items on the requested page
+   * @param totalItemCount the number of items across all pages
+   */
+  public static <V> PaginationInfo<V> fromPage(
+      ImmutableList<V> pageItems, int totalItemCount, int pageSize, int page) {
+    int totalPageCount = (int) Math.ceil((double) totalItemCount / pageSize);
+    if (totalItemCount <= (page - 1) * pageSize) {
+      if (totalItemCount == 0) {
         // Display 1 page (which is empty)
         totalPageCount = 1;
       } else {
         // If for some reason we're way past the end of the list, make sure the "previous"
         // button goes to the end of the list.
-        page = Math.floorDiv(allItems.size(), pageSize) + 2;
+        page = Math.floorDiv(totalItemCount, pageSize) + 2;
       }
-    } else {
-      pageItems = allItems.subList((page - 1) * pageSize, endOfListIndex);
     }
-    return new PaginationInfo<V>(allItems, pageItems, page, totalPageCount);
+    return new PaginationInfo<V>(pageItems, page, totalPageCount);
   }
 }
@@ -1,59 +1,102 @@
 package services;
 
-import com.google.auto.value.AutoValue;
-import com.google.auto.value.extension.memoized.Memoized;
-import com.google.common.base.Joiner;
-import com.google.common.base.Splitter;
+import static com.google.common.base.Preconditions.checkNotNull;
+
 import com.google.common.collect.ImmutableList;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import com.google.common.collect.MapMaker;
+import java.util.concurrent.ConcurrentMap;
 import services.applicant.question.Scalar;
 
 /**
  * Represents a path into the applicant JSON data. Stored as the path to data without the JsonPath
  * prefix: $.
+ *
+ * <p>Paths are interned in a trie rooted at {@link #empty()}: each path holds its parent and its
+ * last segment, and there is at most one instance of any given path at a time. This makes {@link
+ * #parentPath()} a field read and lets {@link #join}, {@link #atIndex} and {@link
+ * #withoutArrayReference()} look up an existing instance instead of building a new segment list.
+ * Whether the last segment is an array element, and its index, are worked out once when the path
+ * is interned.
+ *
+ * <p>A path keeps its parent alive, but its parent only holds it weakly, so paths built from
+ * request data, such as form field names, are garbage collected once nothing uses them.
  */
-@AutoValue
-public abstract class Path {
+public final class Path {
   public static final String ARRAY_SUFFIX = "[]";
   private static final String JSON_PATH_START_TOKEN = "$";
-  private static final Pattern ARRAY_INDEX_REGEX = Pattern.compile(".*(\\[(\\d*)])$");
-  private static final int ARRAY_SUFFIX_GROUP = 1;
-  private static final int ARRAY_INDEX_GROUP = 2;
   private static final char JSON_PATH_DIVIDER = '.';
   private static final String JSON_PATH_START = JSON_PATH_START_TOKEN + JSON_PATH_DIVIDER;
-  private static final Splitter JSON_SPLITTER = Splitter.on(JSON_PATH_DIVIDER);
-  private static final Joiner JSON_JOINER = Joiner.on(JSON_PATH_DIVIDER);
+  /** Value of {@link #arrayIndex} for segments without an array suffix, or with an empty one. */
+  private static final int NO_ARRAY_INDEX = -1;
+  /** Indices below this are cached on the {@code key[]} path by {@link #atIndex}. */
+  private static final int CACHED_ARRAY_INDICES = 64;
+
+  private static final Path EMPTY = new Path(null, "");
+
+  /** Paths by the exact string they were created from, so that {@link #create} rarely parses. */
+  private static final ConcurrentMap<String, Path> CREATED = new MapMaker().weakValues().makeMap();
+
+  private final Path parent;
+  private final String keyName;
+  private final int depth;
+  private final int hash;
+  private final boolean isArrayElement;
+  // The last segment without its array suffix, or the whole segment if it is not an array element.
+  private final String keyNameWithoutArrayIndex;
+  private final int arrayIndex;
+
+  // Lazily created, since most paths are leaves.
+  private volatile ConcurrentMap<String, Path> children;
+  // Lazily computed from immutable state. Racing threads compute equal values, so these need no
+  // synchronization.
+  private String string;
+  private ImmutableList<String> segments;
+  private Path[] indexedSiblings;
+
+  private Path(Path parent, String keyName) {
+    this.parent = parent;
+    this.keyName = keyName;
+    this.depth = parent == null ? 0 : parent.depth + 1;
+    this.hash = parent == null ? 0 : 31 * parent.hash + keyName.hashCode();
+
+    int suffixStart = arraySuffixStart(keyName);
+    this.isArrayElement = suffixStart >= 0;
+    this.keyNameWithoutArrayIndex = isArrayElement ? keyName.substring(0, suffixStart) : keyName;
+    this.arrayIndex = isArrayElement ? parseIndex(keyName, suffixStart) : NO_ARRAY_INDEX;
+  }
 
   public static Path empty() {
-    return create(ImmutableList.of());
+    return EMPTY;
   }
 
   public static Path create(String path) {
-    path = path.trim();
-    if (path.startsWith(JSON_PATH_START)) {
-      path = path.substring(JSON_PATH_START.length());
+    Path created = CREATED.get(path);
+    if (created == null) {
+      created = EMPTY.descend(path);
+      CREATED.putIfAbsent(path, created);
     }
-    if (path.isEmpty()) {
-      return empty();
-    }
-    return create(ImmutableList.copyOf(JSON_SPLITTER.splitToList(path)));
-  }
-
-  private static Path create(ImmutableList<String> segments) {
-    return new AutoValue_Path(
-        segments.stream().map(String::toLowerCase).collect(ImmutableList.toImmutableList()));
+    return created;
   }
 
   /**
    * The list of path segments. A path {@code applicant.favorites.color} would return ["applicant",
    * "favorites", "color"].
    */
-  public abstract ImmutableList<String> segments();
+  public ImmutableList<String> segments() {
+    ImmutableList<String> result = segments;
+    if (result == null) {
+      String[] keyNames = new String[depth];
+      for (Path path = this; path.depth > 0; path = path.parent) {
+        keyNames[path.depth - 1] = path.keyName;
+      }
+      result = ImmutableList.copyOf(keyNames);
+      segments = result;
+    }
+    return result;
+  }
 
-  @Memoized
   public boolean isEmpty() {
-    return segments().isEmpty();
+    return depth == 0;
   }
 
   /**
@@ -61,14 +104,23 @@ public abstract class Path {
    *
    * <p>Example: {@code "applicant.children[2].favorite_color.text"}
    */
-  @Memoized
   @Override
   public String toString() {
-    return isEmpty() ? JSON_PATH_START_TOKEN : JSON_JOINER.join(segments());
+    String result = string;
+    if (result == null) {
+      if (isEmpty()) {
+        result = JSON_PATH_START_TOKEN;
+      } else if (parent.isEmpty()) {
+        result = keyName;
+      } else {
+        result = parent.toString() + JSON_PATH_DIVIDER + keyName;
+      }
+      string = result;
+    }
+    return result;
   }
 
   /** Returns this path in JsonPath predicate format, which must start with \$. */
-  @Memoized
   public String predicateFormat() {
     return JSON_PATH_START + toString();
   }
@@ -77,12 +129,8 @@ public abstract class Path {
    * The {@link Path} of the parent. For example, a path {@code applicant.favorite_color.text} would
    * return {@code applicant.favorite_color}.
    */
-  @Memoized
   public Path parentPath() {
-    if (segments().isEmpty()) {
-      return Path.empty();
-    }
-    return Path.create(segments().subList(0, segments().size() - 1));
+    return isEmpty() ? this : parent;
   }
 
   /**
@@ -91,9 +139,7 @@ public abstract class Path {
    * <p>If joining a {@link Scalar}, please use {@link Path#join(Scalar)} instead.
    */
   public Path join(String path) {
-    Path other = Path.create(path);
-    return Path.create(
-        ImmutableList.<String>builder().addAll(segments()).addAll(other.segments()).build());
+    return isEmpty() ? create(path) : descend(path);
   }
 
   /**
@@ -103,36 +149,30 @@ public abstract class Path {
    * to append to a path.
    */
   public Path join(Scalar scalar) {
-    Path other = Path.create(scalar.name());
-    return Path.create(
-        ImmutableList.<String>builder().addAll(segments()).addAll(other.segments()).build());
+    return child(scalar.name().toLowerCase());
   }
 
   /**
    * The last segment in this path. For example, a path {@code applicant.favorites.color} would
    * return "color".
    */
-  @Memoized
   public String keyName() {
-    if (segments().isEmpty()) {
-      return "";
-    }
-    return segments().get(segments().size() - 1);
+    return keyName;
   }
 
   /**
    * Checks whether this path is referring to an array element, e.g. {@code applicant.children[3]}.
    */
   public boolean isArrayElement() {
-    return ARRAY_INDEX_REGEX.matcher(keyName()).find();
+    return isArrayElement;
   }
 
   /** Returns this path as a path to an array element, e.g. {@code applicant.children[3]}. */
   public Path asArrayElement() {
-    if (isArrayElement()) {
+    if (isArrayElement) {
       return this;
     }
-    return parentPath().join(keyName() + ARRAY_SUFFIX);
+    return parentPath().child(keyName + ARRAY_SUFFIX);
   }
 
   /**
@@ -142,7 +182,11 @@ public abstract class Path {
    * <p>For paths to non repeated entity collections, {@code IllegalStateException} is thrown.
    */
   public Path withoutArrayReference() {
-    return parentPath().join(keyNameWithoutArrayIndex());
+    if (!isArrayElement) {
+      throw new IllegalStateException(
+          String.format("This path %s does not reference an array element.", this));
+    }
+    return parent.child(keyNameWithoutArrayIndex);
   }
 
   /**
@@ -154,16 +198,11 @@ public abstract class Path {
    * <p>For paths to non-array elements, {@code IllegalStateException} is thrown.
    */
   public int arrayIndex() {
-    Matcher matcher = ARRAY_INDEX_REGEX.matcher(keyName());
-    matcher.matches();
-
-    try {
-      return Integer.valueOf(matcher.group(ARRAY_INDEX_GROUP));
-
-    } catch (IllegalStateException | NumberFormatException e) {
+    if (arrayIndex == NO_ARRAY_INDEX) {
       throw new IllegalStateException(
-          String.format("This path %s does not reference a repeated entity element.", this), e);
+          String.format("This path %s does not reference a repeated entity element.", this));
     }
+    return arrayIndex;
   }
 
   /**
@@ -172,19 +211,31 @@ public abstract class Path {
    * <p>For paths to non-array elements, {@code IllegalStateException} is thrown.
    */
   public Path atIndex(int index) {
-    Matcher matcher = ARRAY_INDEX_REGEX.matcher(keyName());
-    if (matcher.matches()) {
-      return parentPath()
-          .join(
-              new StringBuilder(keyName())
-                  .replace(
-                      matcher.start(ARRAY_INDEX_GROUP),
-                      matcher.end(ARRAY_INDEX_GROUP),
-                      String.valueOf(index))
-                  .toString());
+    if (!isArrayElement) {
+      throw new IllegalStateException(
+          String.format("This path %s does not reference a repeated entity collection.", this));
+    }
+    if (index < 0 || index >= CACHED_ARRAY_INDICES) {
+      return parent.child(keyNameWithoutArrayIndex + '[' + index + ']');
+    }
+    // Elements are cached on the path with an empty suffix, so that every element of the same
+    // array shares one cache.
+    Path arrayPath = parent.child(keyNameWithoutArrayIndex + ARRAY_SUFFIX);
+    Path[] siblings = arrayPath.indexedSiblings;
+    if (siblings == null || siblings.length <= index) {
+      Path[] grown = new Path[Math.min(CACHED_ARRAY_INDICES, Math.max(index + 1, 8) * 2)];
+      if (siblings != null) {
+        System.arraycopy(siblings, 0, grown, 0, siblings.length);
+      }
+      siblings = grown;
     }
-    throw new IllegalStateException(
-        String.format("This path %s does not reference a repeated entity collection.", this));
+    Path element = siblings[index];
+    if (element == null) {
+      element = parent.child(keyNameWithoutArrayIndex + '[' + index + ']');
+      siblings[index] = element;
+      arrayPath.indexedSiblings = siblings;
+    }
+    return element;
   }
 
   /**
@@ -192,20 +243,16 @@ public abstract class Path {
    * "a.b[].c[].d" starts with "a.b.c".
    */
   public boolean startsWith(Path other) {
-    ImmutableList<String> thisSegments =
-        segments().stream().map(this::stripArraySuffix).collect(ImmutableList.toImmutableList());
-    ImmutableList<String> otherSegments =
-        other.segments().stream()
-            .map(this::stripArraySuffix)
-            .collect(ImmutableList.toImmutableList());
-
     // This can't start with something that is longer than it.
-    if (otherSegments.size() > thisSegments.size()) {
+    if (other.depth > depth) {
       return false;
     }
-
-    for (int i = 0; i < otherSegments.size(); i++) {
-      if (!thisSegments.get(i).equals(otherSegments.get(i))) {
+    Path prefix = this;
+    while (prefix.depth > other.depth) {
+      prefix = prefix.parent;
+    }
+    for (Path theirs = other; theirs.depth > 0; theirs = theirs.parent, prefix = prefix.parent) {
+      if (!prefix.keyNameWithoutArrayIndex.equals(theirs.keyNameWithoutArrayIndex)) {
         return false;
       }
     }
@@ -213,41 +260,111 @@ public abstract class Path {
   }
 
   /**
-   * Returns the path's key name without an array index suffix. e.g. {@code a.b[1].c[3]} returns
-   * "c".
-   *
-   * <p>For paths to non-array elements, {@code IllegalStateException} is thrown.
+   * Returns true if either path starts with the other, where a segment without an array index
+   * stands for every element of the array. That is, "a.b[1].c" overlaps "a.b[]", "a.b" and
+   * "a.b[1].c.d", but not "a.b[2]" or "a.e".
    */
-  private String keyNameWithoutArrayIndex() {
-    return stripArraySuffix(keyName(), /* strict= */ true);
+  public boolean overlaps(Path other) {
+    Path shorter = depth <= other.depth ? this : other;
+    Path longer = shorter == this ? other : this;
+    while (longer.depth > shorter.depth) {
+      longer = longer.parent;
+    }
+    for (; shorter != longer; shorter = shorter.parent, longer = longer.parent) {
+      if (!shorter.keyNameWithoutArrayIndex.equals(longer.keyNameWithoutArrayIndex)
+          || (shorter.arrayIndex != NO_ARRAY_INDEX
+              && longer.arrayIndex != NO_ARRAY_INDEX
+              && shorter.arrayIndex != longer.arrayIndex)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /** Paths are interned, so two equal paths are always the same instance. */
+  @Override
+  public boolean equals(Object other) {
+    return this == other;
+  }
+
+  @Override
+  public int hashCode() {
+    return hash;
   }
 
   /**
-   * Returns the path segment without an {@link #ARRAY_SUFFIX}.
-   *
-   * @param segment a path segment to strip of {@link #ARRAY_SUFFIX}
-   * @param strict if true, throws an {@link IllegalArgumentException} if segment does not have
-   *     anything to strip
-   * @return segment, without an {@link #ARRAY_SUFFIX}
+   * Returns the path made by appending the segments of {@code path} to this one, after trimming it
+   * and removing a leading {@code $.}.
    */
-  private String stripArraySuffix(String segment, boolean strict) {
-    Matcher matcher = ARRAY_INDEX_REGEX.matcher(segment);
-    if (matcher.matches()) {
-      return new StringBuilder(segment)
-          .replace(matcher.start(ARRAY_SUFFIX_GROUP), matcher.end(ARRAY_SUFFIX_GROUP), "")
-          .toString();
+  private Path descend(String path) {
+    path = path.trim();
+    if (path.startsWith(JSON_PATH_START)) {
+      path = path.substring(JSON_PATH_START.length());
+    }
+    if (path.isEmpty()) {
+      return this;
+    }
+    Path result = this;
+    int start = 0;
+    int end;
+    while ((end = path.indexOf(JSON_PATH_DIVIDER, start)) >= 0) {
+      result = result.child(path.substring(start, end).toLowerCase());
+      start = end + 1;
     }
+    return result.child(path.substring(start).toLowerCase());
+  }
 
-    if (strict) {
-      throw new IllegalStateException(
-          String.format("This path %s does not reference an array element.", this));
+  /** Returns the interned child of this path with the given, already lowercased, segment. */
+  private Path child(String keyName) {
+    checkNotNull(keyName);
+    ConcurrentMap<String, Path> map = children;
+    if (map == null) {
+      synchronized (this) {
+        map = children;
+        if (map == null) {
+          map = new MapMaker().concurrencyLevel(1).weakValues().makeMap();
+          children = map;
+        }
+      }
+    }
+    Path child = map.get(keyName);
+    if (child == null) {
+      Path created = new Path(this, keyName);
+      child = map.putIfAbsent(keyName, created);
+      if (child == null) {
+        child = created;
+      }
     }
+    return child;
+  }
 
-    return segment;
+  /**
+   * Returns the position of the {@code [} that starts an array suffix such as {@code []} or {@code
+   * [3]} at the end of the segment, or -1 if the segment does not end with one.
+   */
+  private static int arraySuffixStart(String keyName) {
+    if (!keyName.endsWith("]")) {
+      return -1;
+    }
+    int start = keyName.lastIndexOf('[');
+    if (start < 0) {
+      return -1;
+    }
+    for (int i = start + 1; i < keyName.length() - 1; i++) {
+      char c = keyName.charAt(i);
+      if (c < '0' || c > '9') {
+        return -1;
+      }
+    }
+    return start;
   }
 
-  /** Non-strict version of {@link #stripArraySuffix(String, boolean)} */
-  private String stripArraySuffix(String segment) {
-    return stripArraySuffix(segment, /* strict= */ false);
+  private static int parseIndex(String keyName, int suffixStart) {
+    try {
+      return Integer.parseInt(keyName.substring(suffixStart + 1, keyName.length() - 1));
+    } catch (NumberFormatException e) {
+      // An empty suffix, or an index too large for an int.
+      return NO_ARRAY_INDEX;
+    }
   }
 }
@@ -4,7 +4,9 @@ import static com.google.common.base.Preconditions.checkNotNull;
 
 import com.google.common.base.Splitter;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
 import com.jayway.jsonpath.DocumentContext;
+import com.jayway.jsonpath.JsonPath;
 import com.jayway.jsonpath.PathNotFoundException;
 import com.jayway.jsonpath.TypeRef;
 import com.jayway.jsonpath.spi.mapper.MappingException;
@@ -16,12 +18,15 @@ import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import javax.annotation.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -40,10 +45,18 @@ public class ApplicantData {
       String.format("{ \"%s\": {} }", APPLICANT);
   private static final TypeRef<List<Object>> LIST_OF_OBJECTS_TYPE = new TypeRef<>() {};
   private static final TypeRef<ImmutableList<Long>> IMMUTABLE_LIST_LONG_TYPE = new TypeRef<>() {};
-  private final DocumentContext jsonData;
+  // Returned by readJson when there is no value at a path, to tell it apart from a JSON null.
+  private static final Object MISSING = new Object();
+  private static final int MAX_SIMPLE_INDEX_DIGITS = 9;
+  private DocumentContext jsonData;
   private final Logger logger = LoggerFactory.getLogger(this.getClass());
   private boolean locked = false;
+  // True if jsonData is shared with a snapshot, in which case it must be copied before it changes.
+  private boolean sharedWithSnapshot = false;
   private Optional<Locale> preferredLocale;
+  // The paths changed since this data was created or clearChangedPaths was last called. No path is
+  // under another one.
+  private final Set<Path> changedPaths = new LinkedHashSet<>();
 
   public ApplicantData() {
     this(EMPTY_APPLICANT_DATA_JSON);
@@ -58,11 +71,55 @@ public class ApplicantData {
     this.jsonData = JsonPathProvider.getJsonPath().parse(checkNotNull(jsonData));
   }
 
+  private ApplicantData(Optional<Locale> preferredLocale, DocumentContext jsonData) {
+    this.preferredLocale = preferredLocale;
+    this.jsonData = jsonData;
+  }
+
   /** Makes this ApplicantData immutable. A locked ApplicantData cannot be unlocked. */
   public void lock() {
     locked = true;
   }
 
+  /** Returns true if this ApplicantData has been locked and can no longer change. */
+  public boolean isLocked() {
+    return locked;
+  }
+
+  /**
+   * Returns a locked ApplicantData with the same contents and preferred locale as this one.
+   *
+   * <p>The snapshot shares this ApplicantData's parsed JSON document instead of serializing and
+   * re-parsing it. Changes made to this ApplicantData after the snapshot is taken are not visible
+   * in the snapshot: the first change copies the document before modifying it.
+   */
+  public ApplicantData asImmutableSnapshot() {
+    if (locked) {
+      // Nothing can change a locked ApplicantData, so it is already its own snapshot.
+      return this;
+    }
+    sharedWithSnapshot = true;
+    ApplicantData snapshot = new ApplicantData(preferredLocale, jsonData);
+    snapshot.lock();
+    return snapshot;
+  }
+
+  /**
+   * Returns an unlocked ApplicantData with the same preferred locale as this one, but only the
+   * values at the given paths. A segment with an empty array suffix, as in {@code
+   * applicant.children[].name}, stands for every element of the array. Array elements keep their
+   * indices, so an element that has no value at any of the paths is left as an empty object.
+   */
+  public ApplicantData projectedTo(ImmutableSet<Path> paths) {
+    Map<Object, Object> projection = new LinkedHashMap<>();
+    projection.put(APPLICANT, new LinkedHashMap<>());
+    Map<?, ?> root = jsonData.json();
+    for (Path path : paths) {
+      copyPath(root, projection, path.segments(), 0);
+    }
+    return new ApplicantData(preferredLocale, JsonPathProvider.getJsonPath().parse(projection));
+  }
+
   /** Returns true if this applicant has set their preferred locale, and false otherwise. */
   public boolean hasPreferredLocale() {
     return this.preferredLocale.isPresent();
@@ -98,12 +155,7 @@ public class ApplicantData {
    * @return true if path is present for this applicant; false otherwise
    */
   public boolean hasPath(Path path) {
-    try {
-      jsonData.read(path.toString());
-    } catch (PathNotFoundException e) {
-      return false;
-    }
-    return true;
+    return readJson(path) != MISSING;
   }
 
   /**
@@ -233,12 +285,18 @@ public class ApplicantData {
 
   private void putAt(Path path, Object value) {
     checkLocked();
-    jsonData.put(path.parentPath().toString(), path.keyName(), value);
+    jsonData.put(JsonPathProvider.compile(path.parentPath().toString()), path.keyName(), value);
+    markChanged(path);
   }
 
   private void addAt(Path path, Object value) {
     checkLocked();
-    jsonData.add(path.withoutArrayReference().toString(), value);
+    Path arrayPath = path.withoutArrayReference();
+    jsonData.add(JsonPathProvider.compile(arrayPath.toString()), value);
+    // Only the new element changed, unless the array is somehow not there.
+    Object array = readJson(arrayPath);
+    markChanged(
+        array instanceof List ? arrayPath.atIndex(((List<?>) array).size() - 1) : arrayPath);
   }
 
   /**
@@ -363,10 +421,12 @@ public class ApplicantData {
    * @throws JsonPathTypeMismatchException if the scalar at that path is not the expected type
    */
   private <T> Optional<T> read(Path path, Class<T> type) throws JsonPathTypeMismatchException {
-    try {
-      return Optional.ofNullable(jsonData.read(path.toString(), type));
-    } catch (PathNotFoundException e) {
+    Object value = readJson(path);
+    if (value == MISSING) {
       return Optional.empty();
+    }
+    try {
+      return Optional.ofNullable(JsonPathProvider.map(value, type));
     } catch (MappingException e) {
       throw new JsonPathTypeMismatchException(path, type, e);
     }
@@ -382,15 +442,90 @@ public class ApplicantData {
    * @throws JsonPathTypeMismatchException if the value at that path is not the expected type
    */
   private <T> Optional<T> read(Path path, TypeRef<T> type) throws JsonPathTypeMismatchException {
-    try {
-      return Optional.ofNullable(jsonData.read(path.toString(), type));
-    } catch (PathNotFoundException e) {
+    Object value = readJson(path);
+    if (value == MISSING) {
       return Optional.empty();
+    }
+    try {
+      return Optional.ofNullable(JsonPathProvider.map(value, type));
     } catch (MappingException e) {
       throw new JsonPathTypeMismatchException(path, type.getClass(), e);
     }
   }
 
+  /**
+   * Returns the raw JSON value at the given path: a map for a JSON object, a list for a JSON array,
+   * a scalar, or null for a JSON null. Returns {@link #MISSING} if there is nothing at the path.
+   *
+   * <p>Paths made up only of object keys and array indices, which is nearly all of them, are
+   * resolved by walking the document directly. Anything else is evaluated by JsonPath.
+   */
+  @Nullable
+  private Object readJson(Path path) {
+    if (!isSimplePath(path)) {
+      try {
+        return jsonData.read(JsonPathProvider.compile(path.toString()));
+      } catch (PathNotFoundException e) {
+        return MISSING;
+      }
+    }
+
+    Object node = jsonData.json();
+    for (String segment : path.segments()) {
+      int indexStart = segment.indexOf('[');
+      String key = indexStart < 0 ? segment : segment.substring(0, indexStart);
+      if (!(node instanceof Map) || !((Map<?, ?>) node).containsKey(key)) {
+        return MISSING;
+      }
+      node = ((Map<?, ?>) node).get(key);
+
+      if (indexStart >= 0) {
+        int index = Integer.parseInt(segment.substring(indexStart + 1, segment.length() - 1));
+        if (!(node instanceof List) || index >= ((List<?>) node).size()) {
+          return MISSING;
+        }
+        node = ((List<?>) node).get(index);
+      }
+    }
+    return node;
+  }
+
+  /**
+   * Returns true if every segment of the path is an object key, optionally followed by an array
+   * index, e.g. {@code applicant.children[2].name}.
+   */
+  private static boolean isSimplePath(Path path) {
+    for (String segment : path.segments()) {
+      int indexStart = segment.indexOf('[');
+      int keyEnd = indexStart < 0 ? segment.length() : indexStart;
+      if (keyEnd == 0) {
+        return false;
+      }
+      for (int i = 0; i < keyEnd; i++) {
+        char c = segment.charAt(i);
+        if (!Character.isLetterOrDigit(c) && c != '_') {
+          return false;
+        }
+      }
+      if (indexStart >= 0) {
+        // The index must be a closing bracket that ends the segment, preceded by one to
+        // MAX_SIMPLE_INDEX_DIGITS digits so that it always fits in an int.
+        int indexDigits = segment.length() - indexStart - 2;
+        if (indexDigits < 1
+            || indexDigits > MAX_SIMPLE_INDEX_DIGITS
+            || segment.charAt(segment.length() - 1) != ']') {
+          return false;
+        }
+        for (int i = indexStart + 1; i < segment.length() - 1; i++) {
+          if (!Character.isDigit(segment.charAt(i))) {
+            return false;
+          }
+        }
+      }
+    }
+    return true;
+  }
+
   /**
    * Reads the value at the given path as a string. Returns {@link Optional#empty} if there is no
    * value at the path. For JSON arrays of strings, this formats the array as a string according to
@@ -435,8 +570,10 @@ public class ApplicantData {
     // Delete in reverse sorted order because deletion is index based, and indices would need to be
     // decremented for each deletion if it wasn't reverse sorted.
     for (int index : reverseSortedIndices) {
-      jsonData.delete(path.atIndex(index).toString());
+      jsonData.delete(JsonPathProvider.compile(path.atIndex(index).toString()));
     }
+    // Deleting shifts the elements after the deleted ones, so the whole array changed.
+    markChanged(path.withoutArrayReference());
     return true;
   }
 
@@ -455,12 +592,65 @@ public class ApplicantData {
    */
   public boolean evalPredicate(JsonPathPredicate jsonPathPredicate) {
     try {
-      return jsonData.read(jsonPathPredicate.pathPredicate(), LIST_OF_OBJECTS_TYPE).size() > 0;
+      JsonPath predicate = JsonPathProvider.compile(jsonPathPredicate.pathPredicate());
+      return jsonData.read(predicate, LIST_OF_OBJECTS_TYPE).size() > 0;
     } catch (PathNotFoundException e) {
       return false;
     }
   }
 
+  /**
+   * Returns the paths at which this data has changed since it was created, or since {@link
+   * #clearChangedPaths} was last called. No returned path is under another one, and there is no
+   * value at a returned path if it was removed. The value at each path can be read with {@link
+   * #readAsJson}.
+   *
+   * <p>Every changed path's parent already existed when the changes started, since creating a
+   * parent counts as changing it. The changes can therefore be applied to a stored copy of the
+   * original document path by path, without rewriting the whole document.
+   */
+  public ImmutableSet<Path> getChangedPaths() {
+    return ImmutableSet.copyOf(changedPaths);
+  }
+
+  /** Forgets the changed paths, usually because the changes have been saved. */
+  public void clearChangedPaths() {
+    changedPaths.clear();
+  }
+
+  /**
+   * Returns the value at the given path serialized as JSON, or {@link Optional#empty} if there is
+   * no value at the path.
+   */
+  public Optional<String> readAsJson(Path path) {
+    Object value = readJson(path);
+    return value == MISSING ? Optional.empty() : Optional.of(JsonPathProvider.toJson(value));
+  }
+
+  /** Records that the value at the path changed, unless a path above it is already recorded. */
+  private void markChanged(Path path) {
+    for (Path changed = path; ; changed = changed.parentPath()) {
+      if (changedPaths.contains(changed)) {
+        return;
+      }
+      if (changed.isEmpty()) {
+        break;
+      }
+    }
+    changedPaths.removeIf(changed -> isUnder(changed, path));
+    changedPaths.add(path);
+  }
+
+  /** Returns true if {@code path} is {@code ancestor} or below it, comparing array indices. */
+  private static boolean isUnder(Path path, Path ancestor) {
+    for (; !path.isEmpty(); path = path.parentPath()) {
+      if (path.equals(ancestor)) {
+        return true;
+      }
+    }
+    return ancestor.isEmpty();
+  }
+
   public String asJsonString() {
     return jsonData.jsonString();
   }
@@ -506,8 +696,9 @@ public class ApplicantData {
           // Add items from lists.
           // TODO(github.com/seattle-uat/civiform/issues/405): improve merge for repeated fields.
           for (Object item : (List) entry.getValue()) {
-            jsonData.add(path.toString(), item);
+            jsonData.add(JsonPathProvider.compile(path.toString()), item);
           }
+          markChanged(path);
         } else {
           try {
             if (!this.read(path, Object.class).equals(entry.getValue())) {
@@ -565,11 +756,87 @@ public class ApplicantData {
 
   /**
    * This method should be called on methods that mutate ApplicantData to protect immutable
-   * ApplicantData.
+   * ApplicantData. If the JSON document is shared with a snapshot, this also gives this
+   * ApplicantData its own copy of the document so the snapshot is not changed.
    */
   private void checkLocked() {
     if (locked) {
       throw new RuntimeException("Cannot change ApplicantData after it has been locked.");
     }
+    if (sharedWithSnapshot) {
+      jsonData = JsonPathProvider.getJsonPath().parse(deepCopy(jsonData.json()));
+      sharedWithSnapshot = false;
+    }
+  }
+
+  /**
+   * Copies the value that {@code segments}, starting at {@code index}, reach from the JSON object
+   * {@code from} to the same place in {@code to}, creating the objects and arrays on the way.
+   */
+  @SuppressWarnings("unchecked") // Objects and arrays in a projection are only created here.
+  private static void copyPath(
+      Map<?, ?> from, Map<Object, Object> to, ImmutableList<String> segments, int index) {
+    Path segment = Path.create(segments.get(index));
+    boolean isLast = index == segments.size() - 1;
+    if (!segment.isArrayElement()) {
+      String key = segment.keyName();
+      Object value = from.get(key);
+      if (value == null && !from.containsKey(key)) {
+        return;
+      }
+      if (isLast) {
+        to.put(key, deepCopy(value));
+      } else if (value instanceof Map && !(to.get(key) instanceof List)) {
+        Map<Object, Object> child =
+            (Map<Object, Object>) to.computeIfAbsent(key, unused -> new LinkedHashMap<>());
+        copyPath((Map<?, ?>) value, child, segments, index + 1);
+      }
+      return;
+    }
+
+    String key = segment.withoutArrayReference().keyName();
+    Object value = from.get(key);
+    if (!(value instanceof List) || to.get(key) instanceof Map) {
+      return;
+    }
+    List<?> elements = (List<?>) value;
+    List<Object> copied = (List<Object>) to.computeIfAbsent(key, unused -> new ArrayList<>());
+    while (copied.size() < elements.size()) {
+      copied.add(new LinkedHashMap<>());
+    }
+    boolean isEveryElement = segment.keyName().endsWith(Path.ARRAY_SUFFIX);
+    for (int i = 0; i < elements.size(); i++) {
+      if (!isEveryElement && i != segment.arrayIndex()) {
+        continue;
+      }
+      Object element = elements.get(i);
+      if (isLast) {
+        copied.set(i, deepCopy(element));
+      } else if (element instanceof Map && copied.get(i) instanceof Map) {
+        copyPath((Map<?, ?>) element, (Map<Object, Object>) copied.get(i), segments, index + 1);
+      }
+    }
+  }
+
+  /**
+   * Copies a parsed JSON value. Objects and arrays are copied recursively, and all other values are
+   * immutable so they are shared.
+   */
+  private static Object deepCopy(@Nullable Object value) {
+    if (value instanceof Map) {
+      Map<Object, Object> copy = new LinkedHashMap<>();
+      for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+        copy.put(entry.getKey(), deepCopy(entry.getValue()));
+      }
+      return copy;
+    }
+    if (value instanceof List) {
+      List<Object> copy = new ArrayList<>();
+      for (Object element : (List<?>) value) {
+        copy.add(deepCopy(element));
+      }
+      return copy;
+    }
+    return value;
   }
 }
@@ -48,8 +48,10 @@ public interface ApplicantService {
   /**
    * Create a new active {@link Application} for the applicant applying to the program.
    *
-   * <p>An application is a snapshot of all the answers the applicant has filled in so far, along
-   * with association with the applicant and a program that the applicant is applying to.
+   * <p>An application is a snapshot of the answers the applicant has filled in so far, along with
+   * association with the applicant and a program that the applicant is applying to. Unless {@code
+   * application_snapshots.program_scoped} is turned off, only the applicant's name and the answers
+   * the program uses are kept, see {@link ApplicationSnapshot}.
    *
    * @return the saved {@link Application}. If the submission failed, a {@link
    *     ApplictionSubmissionException} is thrown and wrapped in a `CompletionException`.
@@ -73,6 +75,13 @@ public interface ApplicantService {
   CompletionStage<ReadOnlyApplicantProgramService> getReadOnlyApplicantProgramService(
       Application application);
 
+  /**
+   * Get a {@link ReadOnlyApplicantProgramService} for the given {@link ApplicantData} and {@link
+   * ProgramDefinition}. Nothing is read from storage.
+   */
+  ReadOnlyApplicantProgramService getReadOnlyApplicantProgramService(
+      ApplicantData applicantData, ProgramDefinition programDefinition);
+
   /**
    * Return all programs that are appropriate to serve to an applicant - which is any active
    * program, plus any program where they have an application in the draft stage.
@@ -8,15 +8,20 @@ import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Sets;
 import com.typesafe.config.Config;
-import java.net.URI;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import java.time.Clock;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.CompletionStage;
+import java.util.function.Function;
 import javax.inject.Inject;
+import javax.persistence.OptimisticLockException;
 import models.Applicant;
 import models.Application;
 import play.libs.concurrent.HttpExecutionContext;
@@ -26,8 +31,8 @@ import services.Path;
 import services.applicant.exception.ApplicantNotFoundException;
 import services.applicant.exception.ApplicationSubmissionException;
 import services.applicant.exception.ProgramBlockNotFoundException;
+import services.applicant.question.ApplicantQuestion;
 import services.applicant.question.Scalar;
-import services.aws.SimpleEmail;
 import services.aws.SimpleStorage;
 import services.program.PathNotInBlockException;
 import services.program.ProgramDefinition;
@@ -37,38 +42,54 @@ import services.question.exceptions.UnsupportedScalarTypeException;
 import services.question.types.ScalarType;
 
 public class ApplicantServiceImpl implements ApplicantService {
-  private static final String STAGING_PROGRAM_ADMIN_NOTIFICATION_MAILING_LIST =
-      "seattle-civiform-program-admins-notify@google.com";
+  /** Times the answers to a block are staged and saved before a conflicting update fails them. */
+  private static final int MAX_STAGE_AND_UPDATE_ATTEMPTS = 3;
 
   private final ApplicationRepository applicationRepository;
   private final UserRepository userRepository;
   private final ProgramService programService;
-  private final SimpleEmail amazonSESClient;
   private final SimpleStorage amazonS3Client;
   private final Clock clock;
-  private final String baseUrl;
-  private final boolean isStaging;
   private final HttpExecutionContext httpExecutionContext;
+  private final MeterRegistry meterRegistry;
+  private final Timer stageAndUpdateTimer;
+  private final Counter stageAndUpdateConflictCounter;
+  private final Timer inProgressBlocksTimer;
+  private final boolean programScopedSnapshots;
 
   @Inject
   public ApplicantServiceImpl(
       ApplicationRepository applicationRepository,
       UserRepository userRepository,
       ProgramService programService,
-      SimpleEmail amazonSESClient,
       SimpleStorage amazonS3Client,
       Clock clock,
-      Config configuration,
-      HttpExecutionContext httpExecutionContext) {
+      HttpExecutionContext httpExecutionContext,
+      MeterRegistry meterRegistry,
+      Config configuration) {
     this.applicationRepository = checkNotNull(applicationRepository);
     this.userRepository = checkNotNull(userRepository);
     this.programService = checkNotNull(programService);
-    this.amazonSESClient = checkNotNull(amazonSESClient);
     this.amazonS3Client = checkNotNull(amazonS3Client);
     this.clock = checkNotNull(clock);
-    this.baseUrl = checkNotNull(configuration).getString("base_url");
-    this.isStaging = URI.create(baseUrl).getHost().equals("staging.seattle.civiform.com");
     this.httpExecutionContext = checkNotNull(httpExecutionContext);
+    this.meterRegistry = checkNotNull(meterRegistry);
+    this.stageAndUpdateTimer =
+        Timer.builder("applicant.stage.and.update")
+            .description("Time to validate and save the answers to a block")
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+    this.stageAndUpdateConflictCounter =
+        Counter.builder("applicant.stage.and.update.conflicts")
+            .description("Saves of the answers to a block that were retried after a conflict")
+            .register(meterRegistry);
+    this.inProgressBlocksTimer =
+        Timer.builder("applicant.in.progress.blocks")
+            .description("Time to compute the blocks an applicant still has to answer")
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+    this.programScopedSnapshots =
+        checkNotNull(configuration).getBoolean("application_snapshots.program_scoped");
   }
 
   @Override
@@ -92,7 +113,10 @@ public class ApplicantServiceImpl implements ApplicantService {
               ProgramDefinition programDefinition = programDefinitionCompletableFuture.join();
 
               return new ReadOnlyApplicantProgramServiceImpl(
-                  amazonS3Client, applicant.getApplicantData(), programDefinition);
+                  amazonS3Client,
+                  applicant.getApplicantData(),
+                  programDefinition,
+                  Optional.of(inProgressBlocksTimer));
             },
             httpExecutionContext.current());
   }
@@ -105,12 +129,20 @@ public class ApplicantServiceImpl implements ApplicantService {
           new ReadOnlyApplicantProgramServiceImpl(
               amazonS3Client,
               application.getApplicantData(),
-              programService.getProgramDefinition(application.getProgram().id)));
+              programService.getProgramDefinition(application.getProgram().id),
+              Optional.of(inProgressBlocksTimer)));
     } catch (ProgramNotFoundException e) {
       throw new RuntimeException("Cannot find a program that has applications for it.", e);
     }
   }
 
+  @Override
+  public ReadOnlyApplicantProgramService getReadOnlyApplicantProgramService(
+      ApplicantData applicantData, ProgramDefinition programDefinition) {
+    return new ReadOnlyApplicantProgramServiceImpl(
+        amazonS3Client, applicantData, programDefinition, Optional.of(inProgressBlocksTimer));
+  }
+
   @Override
   public CompletionStage<ReadOnlyApplicantProgramService> stageAndUpdateIfValid(
       long applicantId, long programId, String blockId, ImmutableMap<String, String> updateMap) {
@@ -130,10 +162,45 @@ public class ApplicantServiceImpl implements ApplicantService {
           new IllegalArgumentException("Path contained reserved scalar key"));
     }
 
-    return stageAndUpdateIfValid(applicantId, programId, blockId, updates);
+    Timer.Sample sample = Timer.start(meterRegistry);
+    return stageAndUpdateIfValid(applicantId, programId, blockId, updates, 1)
+        .whenComplete((roApplicantProgramService, e) -> sample.stop(stageAndUpdateTimer));
   }
 
+  /**
+   * Stages the updates onto the applicant's current data and saves them if the block is valid.
+   *
+   * <p>Saving fails if the applicant was updated after they were looked up, for example from
+   * another tab or by a double-clicked submit button. In that case the same updates are staged
+   * again onto a fresh copy of the applicant's data, and validated again, up to {@link
+   * #MAX_STAGE_AND_UPDATE_ATTEMPTS} times. Answers saved by the other update are kept unless these
+   * updates write the same paths.
+   */
   private CompletionStage<ReadOnlyApplicantProgramService> stageAndUpdateIfValid(
+      long applicantId,
+      long programId,
+      String blockId,
+      ImmutableSet<Update> updates,
+      int attempt) {
+    return stageAndUpdateIfValidOnce(applicantId, programId, blockId, updates)
+        .handleAsync(
+            (roApplicantProgramService, e) -> {
+              if (e == null) {
+                return CompletableFuture.completedFuture(roApplicantProgramService);
+              }
+              Throwable cause = e instanceof CompletionException ? e.getCause() : e;
+              if (cause instanceof OptimisticLockException
+                  && attempt < MAX_STAGE_AND_UPDATE_ATTEMPTS) {
+                stageAndUpdateConflictCounter.increment();
+                return stageAndUpdateIfValid(applicantId, programId, blockId, updates, attempt + 1);
+              }
+              return CompletableFuture.<ReadOnlyApplicantProgramService>failedFuture(cause);
+            },
+            httpExecutionContext.current())
+        .thenCompose(Function.identity());
+  }
+
+  private CompletionStage<ReadOnlyApplicantProgramService> stageAndUpdateIfValidOnce(
       long applicantId, long programId, String blockId, ImmutableSet<Update> updates) {
     CompletableFuture<Optional<Applicant>> applicantCompletableFuture =
         userRepository.lookupApplicant(applicantId).toCompletableFuture();
@@ -152,9 +219,12 @@ public class ApplicantServiceImpl implements ApplicantService {
 
               // Create a ReadOnlyApplicantProgramService and get the current block.
               ProgramDefinition programDefinition = programDefinitionCompletableFuture.join();
-              ReadOnlyApplicantProgramService readOnlyApplicantProgramServiceBeforeUpdate =
+              ReadOnlyApplicantProgramServiceImpl readOnlyApplicantProgramServiceBeforeUpdate =
                   new ReadOnlyApplicantProgramServiceImpl(
-                      amazonS3Client, applicant.getApplicantData(), programDefinition);
+                      amazonS3Client,
+                      applicant.getApplicantData(),
+                      programDefinition,
+                      Optional.of(inProgressBlocksTimer));
               Optional<Block> maybeBlockBeforeUpdate =
                   readOnlyApplicantProgramServiceBeforeUpdate.getBlock(blockId);
               if (maybeBlockBeforeUpdate.isEmpty()) {
@@ -171,9 +241,15 @@ public class ApplicantServiceImpl implements ApplicantService {
                 return CompletableFuture.failedFuture(e);
               }
 
+              // Updates only write under the paths of the block's questions, so the other blocks
+              // can be carried over.
+              ImmutableSet<Path> changedPaths =
+                  blockBeforeUpdate.getQuestions().stream()
+                      .map(ApplicantQuestion::getContextualizedPath)
+                      .collect(ImmutableSet.toImmutableSet());
               ReadOnlyApplicantProgramService roApplicantProgramService =
-                  new ReadOnlyApplicantProgramServiceImpl(
-                      amazonS3Client, applicant.getApplicantData(), programDefinition);
+                  readOnlyApplicantProgramServiceBeforeUpdate.withUpdatedData(
+                      applicant.getApplicantData(), changedPaths);
 
               Optional<Block> blockMaybe = roApplicantProgramService.getBlock(blockId);
               if (blockMaybe.isPresent() && !blockMaybe.get().hasErrors()) {
@@ -191,46 +267,47 @@ public class ApplicantServiceImpl implements ApplicantService {
 
   @Override
   public CompletionStage<Application> submitApplication(long applicantId, long programId) {
-    return applicationRepository
-        .submitApplication(applicantId, programId)
+    return snapshotPaths(programId)
+        .thenComposeAsync(
+            paths ->
+                paths.isPresent()
+                    ? applicationRepository.submitApplication(applicantId, programId, paths.get())
+                    : applicationRepository.submitApplication(applicantId, programId),
+            httpExecutionContext.current())
         .thenComposeAsync(
             applicationMaybe -> {
               if (applicationMaybe.isEmpty()) {
                 return CompletableFuture.failedFuture(
                     new ApplicationSubmissionException(applicantId, programId));
               }
-              Application application = applicationMaybe.get();
-              String programName = application.getProgram().getProgramDefinition().adminName();
-              notifyProgramAdmins(applicantId, programId, application.id, programName);
-              return CompletableFuture.completedFuture(application);
+              // The program's admins are notified in the background, see
+              // ProgramAdminNotificationDispatcher.
+              return CompletableFuture.completedFuture(applicationMaybe.get());
             },
             httpExecutionContext.current());
   }
 
+  /**
+   * Returns the paths of the applicant data to store in an application to the program, or empty
+   * if the application should store all of it. If the program cannot be found, this returns empty
+   * and leaves reporting that to the submission.
+   */
+  private CompletionStage<Optional<ImmutableSet<Path>>> snapshotPaths(long programId) {
+    if (!programScopedSnapshots) {
+      return CompletableFuture.completedFuture(Optional.empty());
+    }
+    return programService
+        .getProgramDefinitionAsync(programId)
+        .handle(
+            (programDefinition, e) ->
+                e == null ? ApplicationSnapshot.pathsFor(programDefinition) : Optional.empty());
+  }
+
   @Override
   public CompletionStage<ImmutableList<ProgramDefinition>> relevantPrograms(long applicantId) {
     return userRepository.programsForApplicant(applicantId);
   }
 
-  private void notifyProgramAdmins(
-      long applicantId, long programId, long applicationId, String programName) {
-    String viewLink =
-        baseUrl
-            + controllers.admin.routes.AdminApplicationController.show(programId, applicationId)
-                .url();
-    String subject = String.format("Applicant %d submitted a new application", applicantId);
-    String message =
-        String.format(
-            "Applicant %d submitted a new application to program %s.\nView the application at %s.",
-            applicantId, programName, viewLink);
-    if (isStaging) {
-      amazonSESClient.send(STAGING_PROGRAM_ADMIN_NOTIFICATION_MAILING_LIST, subject, message);
-    } else {
-      amazonSESClient.send(
-          programService.getNotificationEmailAddresses(programName), subject, message);
-    }
-  }
-
   @Override
   public CompletionStage<String> getName(long applicantId) {
     return userRepository
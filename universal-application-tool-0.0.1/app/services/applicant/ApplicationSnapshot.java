@@ -0,0 +1,89 @@
+package services.applicant;
+
+import com.google.common.collect.ImmutableSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import services.Path;
+import services.WellKnownPaths;
+import services.applicant.question.Scalar;
+import services.program.BlockDefinition;
+import services.program.Column;
+import services.program.ExportDefinition;
+import services.program.ProgramDefinition;
+import services.program.ProgramQuestionDefinition;
+import services.question.types.QuestionDefinition;
+
+/**
+ * Works out which parts of an applicant's {@link ApplicantData} are stored in an application to a
+ * program, so a submitted application only holds the answers that the program asked for.
+ */
+public final class ApplicationSnapshot {
+
+  private ApplicationSnapshot() {}
+
+  /**
+   * Returns the paths of the applicant data that an application to the given program keeps: the
+   * applicant's name, the answers to the program's questions, the entity names and metadata of the
+   * program's enumerator questions, and the paths read by the program's CSV export columns. Paths
+   * to repeated questions end in an empty array suffix, which stands for every repeated entity.
+   *
+   * <p>Returns empty if the program's question definitions are not all known, in which case the
+   * application must keep all of the applicant data.
+   */
+  public static Optional<ImmutableSet<Path>> pathsFor(ProgramDefinition program) {
+    Map<Long, QuestionDefinition> questionsById = new HashMap<>();
+    for (BlockDefinition block : program.blockDefinitions()) {
+      for (ProgramQuestionDefinition programQuestion : block.programQuestionDefinitions()) {
+        if (!programQuestion.hasQuestionDefinition()) {
+          return Optional.empty();
+        }
+        QuestionDefinition question = programQuestion.getQuestionDefinition();
+        questionsById.put(question.getId(), question);
+      }
+    }
+
+    ImmutableSet.Builder<Path> paths = ImmutableSet.builder();
+    paths.add(WellKnownPaths.APPLICANT_NAME);
+    for (QuestionDefinition question : questionsById.values()) {
+      Optional<Path> questionPath = questionPath(question, questionsById);
+      if (questionPath.isEmpty()) {
+        return Optional.empty();
+      }
+      if (question.isEnumerator()) {
+        // The answers to the repeated questions are under the same array elements, and are only
+        // kept if they are in this program.
+        paths.add(questionPath.get().join(Scalar.ENTITY_NAME));
+        paths.add(questionPath.get().join(Scalar.UPDATED_AT));
+        paths.add(questionPath.get().join(Scalar.PROGRAM_UPDATED_IN));
+      } else {
+        paths.add(questionPath.get());
+      }
+    }
+    for (ExportDefinition exportDefinition : program.exportDefinitions()) {
+      if (exportDefinition.csvConfig().isPresent()) {
+        for (Column column : exportDefinition.csvConfig().get().columns()) {
+          column.jsonPath().ifPresent(paths::add);
+        }
+      }
+    }
+    return Optional.of(paths.build());
+  }
+
+  /**
+   * Returns the path to the answer to the question, with every enumerator it is repeated by ending
+   * in an empty array suffix. Returns empty if one of those enumerators is not in the program.
+   */
+  private static Optional<Path> questionPath(
+      QuestionDefinition question, Map<Long, QuestionDefinition> questionsById) {
+    if (question.getEnumeratorId().isEmpty()) {
+      return Optional.of(ApplicantData.APPLICANT_PATH.join(question.getQuestionPathSegment()));
+    }
+    QuestionDefinition enumerator = questionsById.get(question.getEnumeratorId().get());
+    if (enumerator == null) {
+      return Optional.empty();
+    }
+    return questionPath(enumerator, questionsById)
+        .map(enumeratorPath -> enumeratorPath.join(question.getQuestionPathSegment()));
+  }
+}
@@ -42,6 +42,9 @@ public final class Block {
 
   private Optional<ImmutableList<ApplicantQuestion>> questionsMemo = Optional.empty();
   private Optional<ImmutableMap<Path, ScalarType>> scalarsMemo = Optional.empty();
+  // Only memoized when applicantData is locked, since otherwise these must reflect later changes.
+  private Optional<Boolean> hasErrorsMemo = Optional.empty();
+  private Optional<Boolean> isCompleteMemo = Optional.empty();
 
   Block(
       String id,
@@ -54,6 +57,33 @@ public final class Block {
     this.repeatedEntity = checkNotNull(repeatedEntity);
   }
 
+  /**
+   * Returns a copy of this block for {@code applicantData}, which must have the same values as this
+   * block's data at every path the block {@link #dependsOn depends on}. The copy keeps the results
+   * this block has already computed, so they are not computed again.
+   */
+  Block withApplicantData(ApplicantData applicantData) {
+    Block block = new Block(id, blockDefinition, applicantData, repeatedEntity);
+    block.scalarsMemo = scalarsMemo;
+    if (applicantData.isLocked()) {
+      block.hasErrorsMemo = hasErrorsMemo;
+      block.isCompleteMemo = isCompleteMemo;
+    }
+    return block;
+  }
+
+  /**
+   * Returns true if this block reads any applicant data that is at, under, or above the given path,
+   * so that a change at the path may change the questions, answers or completeness of this block.
+   */
+  boolean dependsOn(Path path) {
+    if (repeatedEntity.isPresent() && repeatedEntity.get().contextualizedPath().overlaps(path)) {
+      return true;
+    }
+    return getQuestions().stream()
+        .anyMatch(question -> question.getContextualizedPath().overlaps(path));
+  }
+
   public String getId() {
     return id;
   }
@@ -144,13 +174,21 @@ public final class Block {
 
   /** A block has errors if any one of its {@link ApplicantQuestion}s has errors. */
   public boolean hasErrors() {
-    return getQuestions().stream().anyMatch(ApplicantQuestion::hasErrors);
+    if (hasErrorsMemo.isPresent()) {
+      return hasErrorsMemo.get();
+    }
+    boolean hasErrors = getQuestions().stream().anyMatch(ApplicantQuestion::hasErrors);
+    if (applicantData.isLocked()) {
+      hasErrorsMemo = Optional.of(hasErrors);
+    }
+    return hasErrors;
   }
 
   /**
    * Checks whether the block is complete - that is, {@link ApplicantData} has values at all the
-   * paths for all required questions in this block and there are no errors. Note: this cannot be
-   * memoized, since we need to reflect internal changes to ApplicantData.
+   * paths for all required questions in this block and there are no errors. Note: this is only
+   * memoized if the {@link ApplicantData} is locked, since otherwise we need to reflect internal
+   * changes to it.
    */
   public boolean isCompleteWithoutErrors() {
     // TODO(https://github.com/seattle-uat/civiform/issues/551): Stream only required scalar paths
@@ -163,9 +201,17 @@ public final class Block {
    * PresentsErrors#isAnswered()}.
    */
   private boolean isComplete() {
-    return getQuestions().stream()
-        .map(ApplicantQuestion::errorsPresenter)
-        .allMatch(PresentsErrors::isAnswered);
+    if (isCompleteMemo.isPresent()) {
+      return isCompleteMemo.get();
+    }
+    boolean isComplete =
+        getQuestions().stream()
+            .map(ApplicantQuestion::errorsPresenter)
+            .allMatch(PresentsErrors::isAnswered);
+    if (applicantData.isLocked()) {
+      isCompleteMemo = Optional.of(isComplete);
+    }
+    return isComplete;
   }
 
   /**
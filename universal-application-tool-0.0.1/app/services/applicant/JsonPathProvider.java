@@ -3,20 +3,36 @@ package services.applicant;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.guava.GuavaModule;
 import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.jayway.jsonpath.Configuration;
 import com.jayway.jsonpath.JsonPath;
 import com.jayway.jsonpath.Option;
 import com.jayway.jsonpath.ParseContext;
+import com.jayway.jsonpath.TypeRef;
 import com.jayway.jsonpath.spi.json.JacksonJsonProvider;
 import com.jayway.jsonpath.spi.mapper.JacksonMappingProvider;
+import com.jayway.jsonpath.spi.mapper.MappingException;
 import java.util.EnumSet;
+import javax.annotation.Nullable;
 import javax.inject.Singleton;
 
 @Singleton
 public class JsonPathProvider {
 
+  /**
+   * The maximum number of compiled JsonPath expressions kept in memory. Paths are bounded by the
+   * questions and repeated entities in use, so this comfortably fits the working set.
+   */
+  private static final int COMPILED_PATH_CACHE_SIZE = 10_000;
+
+  private static final Configuration JSON_PATH_CONFIGURATION = generateConfiguration();
+
   private static final ParseContext JSON_PATH_PARSE_CONTEXT =
-      JsonPath.using(generateConfiguration());
+      JsonPath.using(JSON_PATH_CONFIGURATION);
+
+  private static final Cache<String, JsonPath> COMPILED_PATHS =
+      CacheBuilder.newBuilder().maximumSize(COMPILED_PATH_CACHE_SIZE).build();
 
   /**
    * Gets a JsonPath {@link ParseContext} that uses Jackson as the JSON provider instead of the
@@ -30,6 +46,43 @@ public class JsonPathProvider {
     return JSON_PATH_PARSE_CONTEXT;
   }
 
+  /**
+   * Returns the compiled form of a JsonPath expression. Compiling an expression tokenizes and
+   * parses it, so compiled expressions are cached and reused.
+   *
+   * @throws com.jayway.jsonpath.InvalidPathException if the expression is not valid JsonPath
+   */
+  public static JsonPath compile(String jsonPath) {
+    JsonPath compiled = COMPILED_PATHS.getIfPresent(jsonPath);
+    if (compiled == null) {
+      compiled = JsonPath.compile(jsonPath);
+      COMPILED_PATHS.put(jsonPath, compiled);
+    }
+    return compiled;
+  }
+
+  /**
+   * Converts a value read from a parsed JSON document to the given type, exactly as a JsonPath read
+   * with that type would.
+   *
+   * @throws MappingException if the value cannot be converted to the type
+   */
+  @Nullable
+  public static <T> T map(@Nullable Object value, Class<T> type) {
+    return JSON_PATH_CONFIGURATION.mappingProvider().map(value, type, JSON_PATH_CONFIGURATION);
+  }
+
+  /** Same as {@link #map(Object, Class)}, for generic types. */
+  @Nullable
+  public static <T> T map(@Nullable Object value, TypeRef<T> type) {
+    return JSON_PATH_CONFIGURATION.mappingProvider().map(value, type, JSON_PATH_CONFIGURATION);
+  }
+
+  /** Serializes a value read from a parsed JSON document, such as a map or a list, as JSON. */
+  public static String toJson(@Nullable Object value) {
+    return JSON_PATH_CONFIGURATION.jsonProvider().toJson(value);
+  }
+
   private static Configuration generateConfiguration() {
     ObjectMapper mapper =
         new ObjectMapper().registerModule(new GuavaModule()).registerModule(new Jdk8Module());
@@ -0,0 +1,227 @@
+package services.applicant;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import akka.actor.ActorSystem;
+import akka.actor.Cancellable;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableListMultimap;
+import com.google.common.collect.Multimaps;
+import com.typesafe.config.Config;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.net.URI;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import play.inject.ApplicationLifecycle;
+import repository.NotificationDatabaseExecutionContext;
+import repository.ProgramAdminNotificationRepository;
+import repository.ProgramAdminNotificationRepository.ClaimedNotification;
+import services.aws.SimpleEmail;
+import services.program.ProgramService;
+
+/**
+ * Sends the emails in the outbox of {@link models.ProgramAdminNotification}s, which tell program
+ * admins about submitted applications.
+ *
+ * <p>Notifications are claimed {@link #BATCH_SIZE} at a time, and the notifications to the same
+ * program are sent as a single email. The recipients of each program are cached for {@link
+ * #RECIPIENTS_TIME_TO_LIVE}, so a busy program does not look up its admins for every email. If an
+ * email cannot be sent, its notifications are tried again after a delay that doubles with each
+ * failed attempt, up to {@link #MAX_RETRY_DELAY}, and are dropped after {@link #MAX_ATTEMPTS}.
+ *
+ * <p>Unless disabled in the configuration, the outbox is checked every {@code
+ * program_admin_notifications.dispatch_interval} on the {@link
+ * NotificationDatabaseExecutionContext}, so neither the email service nor its outages slow down
+ * submitting an application.
+ */
+@Singleton
+public final class ProgramAdminNotificationDispatcher {
+  private static final Logger LOG =
+      LoggerFactory.getLogger(ProgramAdminNotificationDispatcher.class);
+
+  private static final String STAGING_PROGRAM_ADMIN_NOTIFICATION_MAILING_LIST =
+      "seattle-civiform-program-admins-notify@google.com";
+
+  /** The most notifications claimed at once. */
+  static final int BATCH_SIZE = 50;
+  /** How long claimed notifications are kept from other servers while they are sent. */
+  private static final Duration LEASE = Duration.ofMinutes(5);
+
+  static final Duration FIRST_RETRY_DELAY = Duration.ofMinutes(1);
+  static final Duration MAX_RETRY_DELAY = Duration.ofHours(1);
+  static final int MAX_ATTEMPTS = 10;
+
+  private static final Duration RECIPIENTS_TIME_TO_LIVE = Duration.ofMinutes(5);
+  private static final long RECIPIENTS_MAXIMUM_SIZE = 1_000;
+
+  private final ProgramAdminNotificationRepository repository;
+  private final SimpleEmail amazonSESClient;
+  private final Clock clock;
+  private final String baseUrl;
+  private final boolean isStaging;
+  private final LoadingCache<String, ImmutableList<String>> recipientsByProgramName;
+  private final Counter sentCounter;
+  private final Counter failedCounter;
+
+  @Inject
+  public ProgramAdminNotificationDispatcher(
+      ProgramAdminNotificationRepository repository,
+      ProgramService programService,
+      SimpleEmail amazonSESClient,
+      Clock clock,
+      Config configuration,
+      ActorSystem actorSystem,
+      NotificationDatabaseExecutionContext executionContext,
+      ApplicationLifecycle lifecycle,
+      MeterRegistry meterRegistry) {
+    this.repository = checkNotNull(repository);
+    this.amazonSESClient = checkNotNull(amazonSESClient);
+    this.clock = checkNotNull(clock);
+    this.baseUrl = checkNotNull(configuration).getString("base_url");
+    this.isStaging = URI.create(baseUrl).getHost().equals("staging.seattle.civiform.com");
+    checkNotNull(programService);
+    this.recipientsByProgramName =
+        CacheBuilder.newBuilder()
+            .expireAfterWrite(RECIPIENTS_TIME_TO_LIVE)
+            .maximumSize(RECIPIENTS_MAXIMUM_SIZE)
+            .build(CacheLoader.from(programService::getNotificationEmailAddresses));
+    this.sentCounter =
+        Counter.builder("program.admin.notifications.sent")
+            .description("Notifications of submitted applications that were sent to admins")
+            .register(meterRegistry);
+    this.failedCounter =
+        Counter.builder("program.admin.notifications.failed")
+            .description("Attempts to send notifications of submitted applications that failed")
+            .register(meterRegistry);
+
+    if (configuration.getBoolean("program_admin_notifications.enabled")) {
+      Duration interval =
+          configuration.getDuration("program_admin_notifications.dispatch_interval");
+      Cancellable scheduled =
+          actorSystem
+              .scheduler()
+              .scheduleWithFixedDelay(interval, interval, this::dispatchAll, executionContext);
+      lifecycle.addStopHook(
+          () -> {
+            scheduled.cancel();
+            return CompletableFuture.completedFuture(null);
+          });
+    }
+  }
+
+  /**
+   * Claims one batch of due notifications and sends them. This blocks on the database and the
+   * email service.
+   *
+   * @return the number of notifications claimed, whether or not they were sent
+   */
+  public int dispatch() {
+    Instant now = clock.instant();
+    ImmutableList<ClaimedNotification> claimed =
+        repository.claimDue(now, now.plus(LEASE), BATCH_SIZE);
+    ImmutableListMultimap<String, ClaimedNotification> byProgramName =
+        Multimaps.index(claimed, ClaimedNotification::programName);
+    for (String programName : byProgramName.keySet()) {
+      send(programName, byProgramName.get(programName), now);
+    }
+    return claimed.size();
+  }
+
+  /** Sends every due notification, for as long as there are full batches of them. */
+  private void dispatchAll() {
+    try {
+      int claimed;
+      do {
+        claimed = dispatch();
+      } while (claimed == BATCH_SIZE);
+    } catch (RuntimeException e) {
+      // The scheduler stops running a task that throws, so log the error and try again later.
+      LOG.error("Failed to send program admin notifications.", e);
+    }
+  }
+
+  private void send(
+      String programName, ImmutableList<ClaimedNotification> notifications, Instant now) {
+    ImmutableList<Long> ids =
+        notifications.stream()
+            .map(ClaimedNotification::id)
+            .collect(ImmutableList.toImmutableList());
+    try {
+      ImmutableList<String> recipients =
+          isStaging
+              ? ImmutableList.of(STAGING_PROGRAM_ADMIN_NOTIFICATION_MAILING_LIST)
+              : recipientsByProgramName.getUnchecked(programName);
+      amazonSESClient.sendOrThrow(
+          recipients, subject(programName, notifications), body(programName, notifications));
+    } catch (RuntimeException e) {
+      failedCounter.increment();
+      int attempts =
+          notifications.stream().mapToInt(ClaimedNotification::attempts).max().getAsInt() + 1;
+      if (attempts >= MAX_ATTEMPTS) {
+        LOG.error(
+            "Giving up on notifying the admins of program {} with notifications {} after {}"
+                + " attempts.",
+            programName,
+            ids,
+            attempts,
+            e);
+        repository.delete(ids);
+      } else {
+        LOG.warn("Failed to notify the admins of program {}, will try again.", programName, e);
+        repository.reschedule(ids, now.plus(retryDelay(attempts)));
+      }
+      return;
+    }
+    repository.delete(ids);
+    sentCounter.increment(notifications.size());
+  }
+
+  /** Returns how long to wait before trying again after the given number of failed attempts. */
+  static Duration retryDelay(int attempts) {
+    Duration delay = FIRST_RETRY_DELAY;
+    for (int i = 1; i < attempts && delay.compareTo(MAX_RETRY_DELAY) < 0; i++) {
+      delay = delay.multipliedBy(2);
+    }
+    return delay.compareTo(MAX_RETRY_DELAY) < 0 ? delay : MAX_RETRY_DELAY;
+  }
+
+  private static String subject(
+      String programName, ImmutableList<ClaimedNotification> notifications) {
+    if (notifications.size() == 1) {
+      return String.format(
+          "Applicant %d submitted a new application", notifications.get(0).applicantId());
+    }
+    return String.format(
+        "%d new applications were submitted to program %s", notifications.size(), programName);
+  }
+
+  private String body(String programName, ImmutableList<ClaimedNotification> notifications) {
+    StringBuilder body = new StringBuilder();
+    for (ClaimedNotification notification : notifications) {
+      if (body.length() > 0) {
+        body.append("\n\n");
+      }
+      String viewLink =
+          baseUrl
+              + controllers.admin.routes.AdminApplicationController.show(
+                      notification.programId(), notification.applicationId())
+                  .url();
+      body.append(
+          String.format(
+              "Applicant %d submitted a new application to program %s.\n"
+                  + "View the application at %s.",
+              notification.applicantId(), programName, viewLink));
+    }
+    return body.toString();
+  }
+}
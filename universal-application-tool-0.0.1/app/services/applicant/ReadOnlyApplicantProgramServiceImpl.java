@@ -4,10 +4,12 @@ import static com.google.common.base.Preconditions.checkNotNull;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import io.micrometer.core.instrument.Timer;
 import java.net.URL;
 import java.util.Locale;
 import java.util.Optional;
-import java.util.function.Predicate;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import services.LocalizedStrings;
 import services.Path;
@@ -25,6 +27,9 @@ public class ReadOnlyApplicantProgramServiceImpl implements ReadOnlyApplicantPro
   private final SimpleStorage amazonS3Client;
   private final ApplicantData applicantData;
   private final ProgramDefinition programDefinition;
+  private final Optional<Timer> inProgressBlocksTimer;
+  // Blocks of an earlier version of the applicant's data that this data did not change, by ID.
+  private final ImmutableMap<String, Block> reusableBlocks;
   private ImmutableList<Block> allBlockList;
   private ImmutableList<Block> currentBlockList;
 
@@ -32,11 +37,60 @@ public class ReadOnlyApplicantProgramServiceImpl implements ReadOnlyApplicantPro
       SimpleStorage amazonS3Client,
       ApplicantData applicantData,
       ProgramDefinition programDefinition) {
+    this(amazonS3Client, applicantData, programDefinition, Optional.empty());
+  }
+
+  /**
+   * @param inProgressBlocksTimer if present, records how long it takes to compute the result of
+   *     {@link #getInProgressBlocks()}
+   */
+  protected ReadOnlyApplicantProgramServiceImpl(
+      SimpleStorage amazonS3Client,
+      ApplicantData applicantData,
+      ProgramDefinition programDefinition,
+      Optional<Timer> inProgressBlocksTimer) {
+    this(
+        amazonS3Client,
+        applicantData,
+        programDefinition,
+        inProgressBlocksTimer,
+        /* reusableBlocks= */ ImmutableMap.of());
+  }
+
+  private ReadOnlyApplicantProgramServiceImpl(
+      SimpleStorage amazonS3Client,
+      ApplicantData applicantData,
+      ProgramDefinition programDefinition,
+      Optional<Timer> inProgressBlocksTimer,
+      ImmutableMap<String, Block> reusableBlocks) {
     this.amazonS3Client = checkNotNull(amazonS3Client);
-    this.applicantData = new ApplicantData(checkNotNull(applicantData).asJsonString());
-    this.applicantData.setPreferredLocale(applicantData.preferredLocale());
-    this.applicantData.lock();
+    this.applicantData = checkNotNull(applicantData).asImmutableSnapshot();
     this.programDefinition = checkNotNull(programDefinition);
+    this.inProgressBlocksTimer = checkNotNull(inProgressBlocksTimer);
+    this.reusableBlocks = checkNotNull(reusableBlocks);
+  }
+
+  /**
+   * Returns a service for {@code updatedApplicantData}, which must differ from this service's data
+   * only at, under or above the given paths, see {@link Path#overlaps}.
+   *
+   * <p>Blocks that do not {@link Block#dependsOn depend on} any of the changed paths are carried
+   * over from this service together with what they have already computed, such as whether they are
+   * complete. Only the other blocks are built again, which includes every repeated block of an
+   * enumerator whose entities changed, since the enumerator's path overlaps all of theirs.
+   */
+  ReadOnlyApplicantProgramServiceImpl withUpdatedData(
+      ApplicantData updatedApplicantData, ImmutableSet<Path> changedPaths) {
+    ImmutableMap<String, Block> unchangedBlocks =
+        getAllBlocks().stream()
+            .filter(block -> changedPaths.stream().noneMatch(block::dependsOn))
+            .collect(ImmutableMap.toImmutableMap(Block::getId, block -> block));
+    return new ReadOnlyApplicantProgramServiceImpl(
+        amazonS3Client,
+        updatedApplicantData,
+        programDefinition,
+        inProgressBlocksTimer,
+        unchangedBlocks);
   }
 
   @Override
@@ -47,7 +101,7 @@ public class ReadOnlyApplicantProgramServiceImpl implements ReadOnlyApplicantPro
   @Override
   public ImmutableList<Block> getAllBlocks() {
     if (allBlockList == null) {
-      allBlockList = getBlocks(block -> true);
+      allBlockList = getBlocks();
     }
     return allBlockList;
   }
@@ -55,11 +109,15 @@ public class ReadOnlyApplicantProgramServiceImpl implements ReadOnlyApplicantPro
   @Override
   public ImmutableList<Block> getInProgressBlocks() {
     if (currentBlockList == null) {
+      Supplier<ImmutableList<Block>> inProgressBlocks =
+          () ->
+              getAllBlocks().stream()
+                  .filter(this::isInProgress)
+                  .collect(ImmutableList.toImmutableList());
       currentBlockList =
-          getBlocks(
-              block ->
-                  !block.isCompleteWithoutErrors()
-                      || block.wasCompletedInProgram(programDefinition.id()));
+          inProgressBlocksTimer.isPresent()
+              ? inProgressBlocksTimer.get().record(inProgressBlocks)
+              : inProgressBlocks.get();
     }
     return currentBlockList;
   }
@@ -71,10 +129,16 @@ public class ReadOnlyApplicantProgramServiceImpl implements ReadOnlyApplicantPro
 
   @Override
   public Optional<Block> getInProgressBlockAfter(String blockId) {
-    ImmutableList<Block> blocks = getInProgressBlocks();
-    for (int i = 0; i < blocks.size() - 1; i++) {
-      if (blocks.get(i).getId().equals(blockId)) {
-        return Optional.of(blocks.get(i + 1));
+    // Only check the blocks up to the next one in progress, rather than computing every block's
+    // progress: the next block is usually the one right after this one.
+    ImmutableList<Block> blocks = getAllBlocks();
+    int index = getBlockIndex(blockId);
+    if (index < 0 || !isInProgress(blocks.get(index))) {
+      return Optional.empty();
+    }
+    for (int i = index + 1; i < blocks.size(); i++) {
+      if (isInProgress(blocks.get(i))) {
+        return Optional.of(blocks.get(i));
       }
     }
     return Optional.empty();
@@ -104,41 +168,35 @@ public class ReadOnlyApplicantProgramServiceImpl implements ReadOnlyApplicantPro
   }
 
   /**
-   * Gets {@link Block}s for this program and applicant. If {@code onlyIncludeInProgressBlocks} is
-   * true, then only the current blocks will be included in the list. A block is "in progress" if it
-   * has yet to be filled out by the applicant, or if it was filled out in the context of this
-   * program.
+   * A block is "in progress" if it has yet to be filled out by the applicant, or if it was filled
+   * out in the context of this program.
    */
-  private ImmutableList<Block> getBlocks(Predicate<Block> includeBlockIfTrue) {
+  private boolean isInProgress(Block block) {
+    return !block.isCompleteWithoutErrors() || block.wasCompletedInProgram(programDefinition.id());
+  }
+
+  /** Gets all {@link Block}s for this program and applicant, in order. */
+  private ImmutableList<Block> getBlocks() {
     String emptyBlockIdSuffix = "";
     return getBlocks(
-        programDefinition.getNonRepeatedBlockDefinitions(),
-        emptyBlockIdSuffix,
-        Optional.empty(),
-        includeBlockIfTrue);
+        programDefinition.getNonRepeatedBlockDefinitions(), emptyBlockIdSuffix, Optional.empty());
   }
 
-  /**
-   * Recursive helper method for {@link ReadOnlyApplicantProgramServiceImpl#getBlocks(Predicate)}.
-   */
+  /** Recursive helper method for {@link ReadOnlyApplicantProgramServiceImpl#getBlocks()}. */
   private ImmutableList<Block> getBlocks(
       ImmutableList<BlockDefinition> blockDefinitions,
       String blockIdSuffix,
-      Optional<RepeatedEntity> maybeRepeatedEntity,
-      Predicate<Block> includeBlockIfTrue) {
+      Optional<RepeatedEntity> maybeRepeatedEntity) {
     ImmutableList.Builder<Block> blockListBuilder = ImmutableList.builder();
 
     for (BlockDefinition blockDefinition : blockDefinitions) {
-      // Create and maybe include the block for this block definition.
-      Block block =
-          new Block(
-              blockDefinition.id() + blockIdSuffix,
-              blockDefinition,
-              applicantData,
-              maybeRepeatedEntity);
-      if (includeBlockIfTrue.test(block)) {
-        blockListBuilder.add(block);
-      }
+      // Create the block for this block definition, or carry it over if its data did not change.
+      String blockId = blockDefinition.id() + blockIdSuffix;
+      Block reusableBlock = reusableBlocks.get(blockId);
+      blockListBuilder.add(
+          reusableBlock != null
+              ? reusableBlock.withApplicantData(applicantData)
+              : new Block(blockId, blockDefinition, applicantData, maybeRepeatedEntity));
 
       // For an enumeration block definition, build blocks for its repeated questions
       if (blockDefinition.isEnumerator()) {
@@ -164,8 +222,7 @@ public class ReadOnlyApplicantProgramServiceImpl implements ReadOnlyApplicantPro
               getBlocks(
                   repeatedBlockDefinitions,
                   nextBlockIdSuffix,
-                  Optional.of(repeatedEntities.get(i)),
-                  includeBlockIfTrue));
+                  Optional.of(repeatedEntities.get(i))));
         }
       }
     }
@@ -118,7 +118,8 @@ public class ApplicantQuestion {
   }
 
   public boolean hasErrors() {
-    return errorsPresenter().hasQuestionErrors() || errorsPresenter().hasTypeSpecificErrors();
+    PresentsErrors errorsPresenter = errorsPresenter();
+    return errorsPresenter.hasQuestionErrors() || errorsPresenter.hasTypeSpecificErrors();
   }
 
   public Optional<Long> getUpdatedInProgramMetadata() {
@@ -0,0 +1,62 @@
+package services.aws;
+
+import com.google.common.collect.ImmutableList;
+import java.util.ArrayList;
+import java.util.List;
+import javax.inject.Singleton;
+import software.amazon.awssdk.awscore.exception.AwsErrorDetails;
+import software.amazon.awssdk.services.ses.SesClient;
+import software.amazon.awssdk.services.ses.model.SendEmailRequest;
+import software.amazon.awssdk.services.ses.model.SendEmailResponse;
+import software.amazon.awssdk.services.ses.model.SesException;
+
+/**
+ * An in-memory {@link SesClient} that {@link SimpleEmail} uses in tests. It records the emails it
+ * is asked to send instead of sending them, and can be made to fail like SES does when it is
+ * unavailable.
+ */
+@Singleton
+public final class FakeSesClient implements SesClient {
+
+  // Guarded by this.
+  private final List<SendEmailRequest> sentEmails = new ArrayList<>();
+  private boolean failing;
+
+  @Override
+  public synchronized SendEmailResponse sendEmail(SendEmailRequest sendEmailRequest) {
+    if (failing) {
+      throw (SesException)
+          SesException.builder()
+              .message("The fake SES client is failing.")
+              .statusCode(503)
+              .awsErrorDetails(AwsErrorDetails.builder().errorCode("ServiceUnavailable").build())
+              .build();
+    }
+    sentEmails.add(sendEmailRequest);
+    return SendEmailResponse.builder().messageId(String.valueOf(sentEmails.size())).build();
+  }
+
+  /** Returns the emails that were sent, oldest first. */
+  public synchronized ImmutableList<SendEmailRequest> getSentEmails() {
+    return ImmutableList.copyOf(sentEmails);
+  }
+
+  /** Sets whether sending fails with an {@link SesException}. */
+  public synchronized void setFailing(boolean failing) {
+    this.failing = failing;
+  }
+
+  /** Forgets the emails that were sent, and stops failing. */
+  public synchronized void reset() {
+    sentEmails.clear();
+    failing = false;
+  }
+
+  @Override
+  public String serviceName() {
+    return SERVICE_NAME;
+  }
+
+  @Override
+  public void close() {}
+}
@@ -9,11 +9,11 @@ import java.net.URISyntaxException;
 import java.util.concurrent.CompletableFuture;
 import javax.inject.Inject;
 import javax.inject.Singleton;
-import org.mockito.Mockito;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import play.Environment;
 import play.inject.ApplicationLifecycle;
+import software.amazon.awssdk.core.exception.SdkException;
 import software.amazon.awssdk.services.ses.SesClient;
 import software.amazon.awssdk.services.ses.model.Body;
 import software.amazon.awssdk.services.ses.model.Content;
@@ -32,13 +32,17 @@ public class SimpleEmail {
 
   @Inject
   public SimpleEmail(
-      AwsRegion region, Config config, Environment environment, ApplicationLifecycle appLifecycle) {
+      AwsRegion region,
+      Config config,
+      Environment environment,
+      ApplicationLifecycle appLifecycle,
+      FakeSesClient fakeSesClient) {
     this.sender = checkNotNull(config).getString(AWS_SES_SENDER_CONF_PATH);
 
     if (environment.isDev()) {
       client = new LocalStackClient(region, config);
     } else if (environment.isTest()) {
-      client = new NullClient();
+      client = new FakeClient(fakeSesClient);
     } else {
       client = new AwsClient(region);
     }
@@ -55,26 +59,36 @@ public class SimpleEmail {
   }
 
   public void send(ImmutableList<String> toAddresses, String subject, String bodyText) {
+    try {
+      sendOrThrow(toAddresses, subject, bodyText);
+    } catch (SesException e) {
+      LOG.error(e.toString());
+      e.printStackTrace();
+    }
+  }
+
+  /**
+   * Sends an email, like {@link #send(ImmutableList, String, String)}, but lets the caller handle
+   * failures, for example by trying again later.
+   *
+   * @throws SdkException if SES rejects the email or cannot be reached
+   */
+  public void sendOrThrow(ImmutableList<String> toAddresses, String subject, String bodyText) {
     if (toAddresses.isEmpty()) {
       return;
     }
 
-    try {
-      Destination destination =
-          Destination.builder().toAddresses(toAddresses.toArray(new String[0])).build();
+    Destination destination =
+        Destination.builder().toAddresses(toAddresses.toArray(new String[0])).build();
 
-      Body body = Body.builder().text(Content.builder().data(bodyText).build()).build();
+    Body body = Body.builder().text(Content.builder().data(bodyText).build()).build();
 
-      Message msg =
-          Message.builder().subject(Content.builder().data(subject).build()).body(body).build();
+    Message msg =
+        Message.builder().subject(Content.builder().data(subject).build()).body(body).build();
 
-      SendEmailRequest emailRequest =
-          SendEmailRequest.builder().destination(destination).message(msg).source(sender).build();
-      client.get().sendEmail(emailRequest);
-    } catch (SesException e) {
-      LOG.error(e.toString());
-      e.printStackTrace();
-    }
+    SendEmailRequest emailRequest =
+        SendEmailRequest.builder().destination(destination).message(msg).source(sender).build();
+    client.get().sendEmail(emailRequest);
   }
 
   interface Client {
@@ -129,11 +143,11 @@ public class SimpleEmail {
     }
   }
 
-  static class NullClient implements Client {
+  static class FakeClient implements Client {
     private final SesClient client;
 
-    NullClient() {
-      client = Mockito.mock(SesClient.class);
+    FakeClient(FakeSesClient client) {
+      this.client = checkNotNull(client);
     }
 
     @Override
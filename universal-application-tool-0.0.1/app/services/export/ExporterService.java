@@ -1,38 +1,55 @@
 package services.export;
 
 import static com.google.common.base.Preconditions.checkNotNull;
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static java.util.concurrent.CompletableFuture.supplyAsync;
 
+import akka.Done;
+import akka.stream.javadsl.Source;
+import akka.util.ByteString;
 import com.google.common.collect.ImmutableList;
-import java.io.ByteArrayOutputStream;
+import io.ebean.QueryIterator;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import java.io.IOException;
-import java.io.OutputStream;
-import java.io.OutputStreamWriter;
-import java.io.Writer;
-import java.nio.charset.StandardCharsets;
+import java.io.StringWriter;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Comparator;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
 import javax.inject.Inject;
 import models.Application;
+import repository.ApplicationRepository;
+import repository.ExportDatabaseExecutionContext;
 import services.Path;
 import services.applicant.AnswerData;
 import services.applicant.ApplicantData;
 import services.applicant.ApplicantService;
-import services.applicant.ReadOnlyApplicantProgramService;
+import services.applicant.RepeatedEntity;
+import services.applicant.question.Scalar;
+import services.program.BlockDefinition;
 import services.program.Column;
 import services.program.ColumnType;
 import services.program.CsvExportConfig;
 import services.program.ProgramDefinition;
 import services.program.ProgramNotFoundException;
 import services.program.ProgramService;
+import services.question.types.EnumeratorQuestionDefinition;
 
 public class ExporterService {
   private final ExporterFactory exporterFactory;
   private final ProgramService programService;
   private final ApplicantService applicantService;
+  private final ApplicationRepository applicationRepository;
+  // Streamed exports block on a database cursor, so each pull runs on the export database thread
+  // pool, which is separate so that a large export does not hold up applicants.
+  private final ExportDatabaseExecutionContext exportExecutionContext;
+  private final MeterRegistry meterRegistry;
+  private final Timer csvTimer;
+  private final Timer streamedCsvTimer;
 
   private static final String HEADER_SPACER_ENUM = " - ";
   private static final String HEADER_SPACER_SCALAR = " ";
@@ -41,43 +58,167 @@ public class ExporterService {
   public ExporterService(
       ExporterFactory exporterFactory,
       ProgramService programService,
-      ApplicantService applicantService) {
+      ApplicantService applicantService,
+      ApplicationRepository applicationRepository,
+      ExportDatabaseExecutionContext exportExecutionContext,
+      MeterRegistry meterRegistry) {
     this.exporterFactory = checkNotNull(exporterFactory);
     this.programService = checkNotNull(programService);
     this.applicantService = checkNotNull(applicantService);
+    this.applicationRepository = checkNotNull(applicationRepository);
+    this.exportExecutionContext = checkNotNull(exportExecutionContext);
+    this.meterRegistry = checkNotNull(meterRegistry);
+    this.csvTimer = csvTimer(meterRegistry, /* streamed= */ false);
+    this.streamedCsvTimer = csvTimer(meterRegistry, /* streamed= */ true);
+  }
+
+  private static Timer csvTimer(MeterRegistry meterRegistry, boolean streamed) {
+    return Timer.builder("export.program.csv")
+        .description("Time to export the applications to a program as CSV")
+        .tag("streamed", String.valueOf(streamed))
+        .publishPercentileHistogram()
+        .register(meterRegistry);
   }
 
   /**
    * Return a string containing the CSV of all the applicantions for a particular program.
    *
+   * <p>This holds the entire CSV in memory. Prefer {@link #getProgramCsvSource(long)} when the
+   * result is sent over the network.
+   *
    * @throws ProgramNotFoundException If the program ID refers to a program that does not exist.
    */
   public String getProgramCsv(long programId) throws ProgramNotFoundException {
-    ImmutableList<Application> applications = programService.getProgramApplications(programId);
-    ProgramDefinition program = programService.getProgramDefinition(programId);
-    CsvExporter csvExporter;
-    if (program.exportDefinitions().stream()
-        .anyMatch(exportDefinition -> exportDefinition.csvConfig().isPresent())) {
-      csvExporter = exporterFactory.csvExporter(program.toProgram());
-    } else {
-      csvExporter = exporterFactory.csvExporter(generateDefaultCsvConfig(programId));
-    }
-
-    try {
-      OutputStream inMemoryBytes = new ByteArrayOutputStream();
-      Writer writer = new OutputStreamWriter(inMemoryBytes, StandardCharsets.UTF_8);
-      for (Application application : applications) {
-        csvExporter.export(application, writer);
+    Timer.Sample sample = Timer.start(meterRegistry);
+    CsvExporter csvExporter = getCsvExporter(programId);
+    StringWriter writer = new StringWriter();
+    try (QueryIterator<Application> applications =
+        applicationRepository.iterateApplicationsForProgram(programId)) {
+      while (applications.hasNext()) {
+        csvExporter.export(applications.next(), writer);
       }
-      writer.close();
-      return inMemoryBytes.toString();
     } catch (IOException e) {
       // Since it's an in-memory writer, this shouldn't happen.  Catch so that callers don't
       // have to deal with it.
       throw new RuntimeException(e);
+    } finally {
+      sample.stop(csvTimer);
+    }
+    return writer.toString();
+  }
+
+  /**
+   * Return a {@link Source} that emits the CSV of all the applications for a particular program,
+   * one row at a time.
+   *
+   * <p>Nothing is done until the source is materialized. Each materialization then looks up the
+   * program, builds its own exporter and opens its own database cursor on the export database
+   * thread pool, so the source can be run more than once and never blocks the calling thread. If
+   * the program does not exist, the stream fails with a {@link ProgramNotFoundException}.
+   *
+   * <p>Applications are read from the cursor as the source is pulled, so at most one page of
+   * applications is held in memory no matter how many applications the program has. The cursor is
+   * closed when the stream completes, fails, or is cancelled.
+   */
+  public Source<ByteString, ?> getProgramCsvSource(long programId) {
+    return getProgramCsvSource(
+        () -> {
+          try {
+            return getCsvExporter(programId);
+          } catch (ProgramNotFoundException e) {
+            throw new CompletionException(e);
+          }
+        },
+        programId);
+  }
+
+  /** Like {@link #getProgramCsvSource(long)}, for a program that has already been looked up. */
+  public Source<ByteString, ?> getProgramCsvSource(ProgramDefinition program) {
+    return getProgramCsvSource(() -> getCsvExporter(program), program.id());
+  }
+
+  private Source<ByteString, ?> getProgramCsvSource(
+      Supplier<CsvExporter> csvExporter, long programId) {
+    return Source.unfoldResourceAsync(
+            () ->
+                supplyAsync(
+                    () ->
+                        new CsvCursor(
+                            csvExporter.get(),
+                            applicationRepository.iterateApplicationsForProgram(programId)),
+                    exportExecutionContext),
+            cursor -> supplyAsync(cursor::nextRow, exportExecutionContext),
+            cursor -> {
+              // Closing only returns the connection to the pool, and must not be rejected by a
+              // full queue, or the connection would leak.
+              cursor.applications.close();
+              return completedFuture(Done.getInstance());
+            })
+        .watchTermination(
+            (notUsed, done) -> {
+              // Time the export from when the response starts streaming until the last row.
+              Timer.Sample sample = Timer.start(meterRegistry);
+              done.whenComplete((unused, e) -> sample.stop(streamedCsvTimer));
+              return notUsed;
+            });
+  }
+
+  /**
+   * The state of one materialization of a streamed CSV export. The exporter writes the header row
+   * with its first row, so it must not be shared between materializations.
+   */
+  private static final class CsvCursor {
+    private final CsvExporter csvExporter;
+    private final QueryIterator<Application> applications;
+
+    private CsvCursor(CsvExporter csvExporter, QueryIterator<Application> applications) {
+      this.csvExporter = csvExporter;
+      this.applications = applications;
+    }
+
+    /**
+     * Exports the next application from the cursor, or returns empty if there are none left. This
+     * blocks on the cursor, so it must run on the {@link ExportDatabaseExecutionContext}.
+     */
+    private Optional<ByteString> nextRow() {
+      if (!applications.hasNext()) {
+        return Optional.empty();
+      }
+      try {
+        return Optional.of(exportRow(csvExporter, applications.next()));
+      } catch (IOException e) {
+        throw new CompletionException(e);
+      }
     }
   }
 
+  /**
+   * Returns the {@link CsvExporter} for a program: the program's own CSV export config if it has
+   * one, or the default config otherwise.
+   */
+  private CsvExporter getCsvExporter(long programId) throws ProgramNotFoundException {
+    return getCsvExporter(programService.getProgramDefinition(programId));
+  }
+
+  private CsvExporter getCsvExporter(ProgramDefinition program) {
+    if (program.exportDefinitions().stream()
+        .anyMatch(exportDefinition -> exportDefinition.csvConfig().isPresent())) {
+      return exporterFactory.csvExporter(program.toProgram());
+    }
+    return exporterFactory.csvExporter(generateDefaultCsvConfig(program));
+  }
+
+  /**
+   * Exports a single application, preceded by the header row if this is the exporter's first
+   * export.
+   */
+  private static ByteString exportRow(CsvExporter csvExporter, Application application)
+      throws IOException {
+    StringWriter writer = new StringWriter();
+    csvExporter.export(application, writer);
+    return ByteString.fromString(writer.toString());
+  }
+
   /**
    * Produce the default CSV config for a given program. The default config includes the application
    * id, the application submission time, and all possible scalar values from all of its
@@ -85,42 +226,92 @@ public class ExporterService {
    * then there would be N columns for each of that question's scalars.
    */
   CsvExportConfig generateDefaultCsvConfig(long programId) {
-    ImmutableList<Application> applications;
     try {
-      applications = programService.getProgramApplications(programId);
+      return generateDefaultCsvConfig(programService.getProgramDefinition(programId));
     } catch (ProgramNotFoundException e) {
       throw new RuntimeException("Cannot find a program we are trying to generate CSVs for.", e);
     }
+  }
 
-    // Create a map from a key <block id, question index> to an answer with every application. It
-    // doesn't matter which answer ends up in the map, as long as every <block id, question index>
-    // is
-    // accounted for.
-    Map<String, AnswerData> answerMap = new HashMap<>();
-    for (Application application : applications) {
-      ReadOnlyApplicantProgramService roApplicantService =
-          applicantService
-              .getReadOnlyApplicantProgramService(application)
-              .toCompletableFuture()
-              .join();
-      for (AnswerData answerData : roApplicantService.getSummaryData()) {
-        String key = answerDataKey(answerData);
-        if (!answerMap.containsKey(key)) {
-          answerMap.put(key, answerData);
-        }
+  /**
+   * Produce the default CSV config for a given program in a single cheap pass over its
+   * applications.
+   *
+   * <p>The columns only depend on which blocks exist for an application, and the only thing that
+   * varies between applications is how many repeated entities each enumerator has. So rather than
+   * building the full summary of every application, this merges each application's repeated
+   * entities into one document and builds the summary of that document once.
+   */
+  private CsvExportConfig generateDefaultCsvConfig(ProgramDefinition program) {
+    ApplicantData repeatedEntityUnion = new ApplicantData();
+    boolean hasApplications = false;
+    try (QueryIterator<Application> applications =
+        applicationRepository.iterateApplicationsForProgram(program.id())) {
+      while (applications.hasNext()) {
+        hasApplications = true;
+        mergeRepeatedEntities(
+            program,
+            program.getNonRepeatedBlockDefinitions(),
+            Optional.empty(),
+            applications.next().getApplicantData(),
+            repeatedEntityUnion);
       }
     }
+    if (!hasApplications) {
+      return generateDefaultCsvConfig(ImmutableList.of());
+    }
 
     // Get the list of all answers, sorted by block ID and question index, and generate the default
     // csv config.
     ImmutableList<AnswerData> answers =
-        answerMap.values().stream()
+        applicantService
+            .getReadOnlyApplicantProgramService(repeatedEntityUnion, program)
+            .getSummaryData()
+            .stream()
             .sorted(
                 Comparator.comparing(AnswerData::blockId).thenComparing(AnswerData::questionIndex))
             .collect(ImmutableList.toImmutableList());
     return generateDefaultCsvConfig(answers);
   }
 
+  /**
+   * Adds every repeated entity of {@code applicantData} enumerated by the given block definitions
+   * (and, recursively, their repeated block definitions) to {@code union}, if it is not there
+   * already. Only entity names are copied; answers to questions are not.
+   */
+  private static void mergeRepeatedEntities(
+      ProgramDefinition program,
+      ImmutableList<BlockDefinition> blockDefinitions,
+      Optional<RepeatedEntity> parent,
+      ApplicantData applicantData,
+      ApplicantData union) {
+    for (BlockDefinition blockDefinition : blockDefinitions) {
+      if (!blockDefinition.isEnumerator()) {
+        continue;
+      }
+      EnumeratorQuestionDefinition enumeratorQuestionDefinition =
+          blockDefinition.getEnumerationQuestionDefinition();
+      ImmutableList<RepeatedEntity> repeatedEntities =
+          parent.isPresent()
+              ? parent
+                  .get()
+                  .createNestedRepeatedEntities(enumeratorQuestionDefinition, applicantData)
+              : RepeatedEntity.createRepeatedEntities(enumeratorQuestionDefinition, applicantData);
+      for (RepeatedEntity repeatedEntity : repeatedEntities) {
+        Path entityPath = repeatedEntity.contextualizedPath();
+        if (!union.hasPath(entityPath)) {
+          union.putString(entityPath.join(Scalar.ENTITY_NAME), repeatedEntity.entityName());
+        }
+        mergeRepeatedEntities(
+            program,
+            program.getBlockDefinitionsForEnumerator(blockDefinition.id()),
+            Optional.of(repeatedEntity),
+            applicantData,
+            union);
+      }
+    }
+  }
+
   /**
    * Produce the default {@link CsvExportConfig} for a list of {@link AnswerData}s. The default
    * config includes all the questions, the application id, and the application submission time.
@@ -189,12 +380,4 @@ public class ExporterService {
     }
     return builder.toString();
   }
-
-  /**
-   * A useful string that uniquely identifies an answer within an applicant program and is shared
-   * across applicant programs.
-   */
-  private static String answerDataKey(AnswerData answerData) {
-    return String.format("%s-%d", answerData.blockId(), answerData.questionIndex());
-  }
 }
@@ -0,0 +1,32 @@
+package services.program;
+
+import com.google.auto.value.AutoValue;
+import com.google.common.collect.ImmutableList;
+import models.Application;
+
+/**
+ * One page of a program's applications, as returned by {@link
+ * ProgramService#getProgramApplicationsAsync}. Pages are linked to the pages next to them by the
+ * {@link repository.ApplicationCursor} of their first and last applications, so only whether there
+ * are applications before and after the page is known, not how many pages there are.
+ */
+@AutoValue
+public abstract class ApplicationsPage {
+
+  public abstract ImmutableList<Application> applications();
+
+  /** The number of this page, starting at 1. */
+  public abstract int page();
+
+  public abstract boolean hasPreviousPage();
+
+  public abstract boolean hasNextPage();
+
+  public static ApplicationsPage create(
+      ImmutableList<Application> applications,
+      int page,
+      boolean hasPreviousPage,
+      boolean hasNextPage) {
+    return new AutoValue_ApplicationsPage(applications, page, hasPreviousPage, hasNextPage);
+  }
+}
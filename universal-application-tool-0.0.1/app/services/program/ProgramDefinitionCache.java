@@ -0,0 +1,101 @@
+package services.program;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.typesafe.config.Config;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+/**
+ * An in-memory cache of {@link ProgramDefinition}s whose questions have already been synced with
+ * the {@link services.question.ReadOnlyQuestionService}, keyed by program id.
+ *
+ * <p>Only programs that are not in the draft version should be cached: their rows, and the rows of
+ * the questions they reference, are not edited in place by the admin flows. Which questions are
+ * visible to the question service does change when a version is published or set live, so the
+ * repositories invalidate the whole cache then, as well as whenever they update a program or
+ * question row.
+ *
+ * <p>Each entry is stamped with the cache generation it was computed in. Invalidating the cache
+ * starts a new generation, so a definition computed from data read before an invalidation is never
+ * returned after it, even if it is added to the cache afterwards.
+ *
+ * <p>Invalidation only reaches the cache of this server. Entries therefore also expire {@code
+ * program_cache.time_to_live} after they were loaded, which bounds how long changes made on other
+ * servers, such as publishing a new version, go unnoticed.
+ */
+@Singleton
+public final class ProgramDefinitionCache {
+
+  private final Clock clock;
+  private final Duration timeToLive;
+  private final ConcurrentHashMap<Long, Entry> entries = new ConcurrentHashMap<>();
+  private final AtomicLong generation = new AtomicLong();
+
+  @Inject
+  public ProgramDefinitionCache(Config configuration, Clock clock) {
+    this.clock = checkNotNull(clock);
+    this.timeToLive = checkNotNull(configuration).getDuration("program_cache.time_to_live");
+  }
+
+  /**
+   * Returns the cached definition of the program with the given id, if there is one and it has not
+   * expired.
+   */
+  public Optional<ProgramDefinition> get(long programId) {
+    Entry entry = entries.get(programId);
+    if (entry == null || entry.generation != generation.get()) {
+      return Optional.empty();
+    }
+    if (!clock.instant().isBefore(entry.loadedAt.plus(timeToLive))) {
+      entries.remove(programId, entry);
+      return Optional.empty();
+    }
+    return Optional.of(entry.programDefinition);
+  }
+
+  /**
+   * Returns the current generation. Callers should read it before loading the data they will pass
+   * to {@link #put}.
+   */
+  public long currentGeneration() {
+    return generation.get();
+  }
+
+  /**
+   * Caches the given definition, unless the cache has been invalidated since {@code
+   * generationWhenLoaded}.
+   */
+  public void put(long generationWhenLoaded, ProgramDefinition programDefinition) {
+    if (generationWhenLoaded != generation.get()) {
+      return;
+    }
+    entries.put(
+        programDefinition.id(),
+        new Entry(generationWhenLoaded, programDefinition, clock.instant()));
+  }
+
+  /** Removes all cached definitions. */
+  public void invalidateAll() {
+    generation.incrementAndGet();
+    entries.clear();
+  }
+
+  private static final class Entry {
+    private final long generation;
+    private final ProgramDefinition programDefinition;
+    private final Instant loadedAt;
+
+    private Entry(long generation, ProgramDefinition programDefinition, Instant loadedAt) {
+      this.generation = generation;
+      this.programDefinition = checkNotNull(programDefinition);
+      this.loadedAt = checkNotNull(loadedAt);
+    }
+  }
+}
@@ -7,6 +7,7 @@ import java.util.Optional;
 import java.util.concurrent.CompletionStage;
 import models.Application;
 import models.Program;
+import repository.ApplicationCursor;
 import services.CiviFormError;
 import services.ErrorAnd;
 import services.program.predicate.PredicateDefinition;
@@ -83,6 +84,18 @@ public interface ProgramService {
       String displayDescription)
       throws ProgramNotFoundException;
 
+  /**
+   * Like {@link #updateProgramDefinition}, but returns immediately instead of blocking on the
+   * database. The returned stage fails with a {@link ProgramNotFoundException} when programId does
+   * not correspond to a real Program.
+   */
+  CompletionStage<ErrorAnd<ProgramDefinition, CiviFormError>> updateProgramDefinitionAsync(
+      long programId,
+      Locale locale,
+      String adminDescription,
+      String displayName,
+      String displayDescription);
+
   /**
    * Add or update a localization of the program's publicly-visible display name and description.
    *
@@ -175,6 +188,13 @@ public interface ProgramService {
       throws ProgramNotFoundException, ProgramBlockDefinitionNotFoundException,
           QuestionNotFoundException, DuplicateProgramQuestionException;
 
+  /**
+   * Like {@link #addQuestionsToBlock}, but returns immediately instead of blocking on the
+   * database. The returned stage fails with the exceptions that method throws.
+   */
+  CompletionStage<ProgramDefinition> addQuestionsToBlockAsync(
+      long programId, long blockDefinitionId, ImmutableList<Long> questionIds);
+
   /**
    * Update a {@link BlockDefinition} to remove questions.
    *
@@ -219,16 +239,45 @@ public interface ProgramService {
       throws ProgramNotFoundException, ProgramNeedsABlockException;
 
   /**
-   * Get all the program's applications.
+   * Like {@link #deleteBlock}, but returns immediately instead of blocking on the database. The
+   * returned stage fails with the exceptions that method throws.
+   */
+  CompletionStage<ProgramDefinition> deleteBlockAsync(long programId, long blockDefinitionId);
+
+  /**
+   * Get all the program's applications. Returns immediately instead of blocking on the database.
    *
    * @param programId the program id.
-   * @return A list of Application objects for the specified program.
-   * @throws ProgramNotFoundException when programId does not correspond to a real Program.
+   * @return A list of Application objects for the specified program. The returned stage fails with
+   *     a {@link ProgramNotFoundException} when programId does not correspond to a real Program.
    */
-  ImmutableList<Application> getProgramApplications(long programId) throws ProgramNotFoundException;
+  CompletionStage<ImmutableList<Application>> getProgramApplications(long programId);
 
-  ImmutableList<Application> getProgramApplications(long programId, Optional<String> search)
-      throws ProgramNotFoundException;
+  /**
+   * Get one page of the program's applications, ordered by id, which is the order they were
+   * created in, optionally only those whose applicant name contains {@code search}, ignoring case.
+   * Pages are found by the cursor of the application right before or right after them, rather than
+   * by page number, so the cost does not grow with the number of applications to the program or
+   * with how deep the page is.
+   *
+   * @param programId the program id.
+   * @param search the text to search applicant names for, if any.
+   * @param after the cursor of the last application on the page before the requested one, if any.
+   * @param before the cursor of the first application on the page after the requested one, if any.
+   *     Only one of {@code after} and {@code before} should be present. If neither is, the first
+   *     page is returned.
+   * @param pageSize the number of applications per page.
+   * @param page the number of the requested page, starting at 1. It is only used to label the page.
+   * @return The requested page of applications. The returned stage fails with a {@link
+   *     ProgramNotFoundException} when programId does not correspond to a real Program.
+   */
+  CompletionStage<ApplicationsPage> getProgramApplicationsAsync(
+      long programId,
+      Optional<String> search,
+      Optional<ApplicationCursor> after,
+      Optional<ApplicationCursor> before,
+      int pageSize,
+      int page);
 
   /** Create a new draft starting from the program specified by `id`. */
   ProgramDefinition newDraftOf(long id) throws ProgramNotFoundException;
@@ -240,5 +289,5 @@ public interface ProgramService {
   ImmutableList<String> getNotificationEmailAddresses(String programName);
 
   /** Get all other programs with the same name. */
-  ImmutableList<Program> getOtherProgramVersions(long programId);
+  CompletionStage<ImmutableList<Program>> getOtherProgramVersions(long programId);
 }
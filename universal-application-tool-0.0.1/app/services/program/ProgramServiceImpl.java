@@ -12,11 +12,15 @@ import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
 import java.util.concurrent.CompletionStage;
+import java.util.function.Function;
 import models.Account;
 import models.Application;
+import models.LifecycleStage;
 import models.Program;
 import play.db.ebean.Transactional;
 import play.libs.concurrent.HttpExecutionContext;
+import repository.ApplicationCursor;
+import repository.ApplicationRepository;
 import repository.ProgramRepository;
 import repository.UserRepository;
 import repository.VersionRepository;
@@ -35,19 +39,25 @@ public class ProgramServiceImpl implements ProgramService {
   private final HttpExecutionContext httpExecutionContext;
   private final UserRepository userRepository;
   private final VersionRepository versionRepository;
+  private final ProgramDefinitionCache programDefinitionCache;
+  private final ApplicationRepository applicationRepository;
 
   @Inject
   public ProgramServiceImpl(
       ProgramRepository programRepository,
+      ApplicationRepository applicationRepository,
       QuestionService questionService,
       UserRepository userRepository,
       VersionRepository versionRepository,
+      ProgramDefinitionCache programDefinitionCache,
       HttpExecutionContext ec) {
     this.programRepository = checkNotNull(programRepository);
     this.questionService = checkNotNull(questionService);
     this.httpExecutionContext = checkNotNull(ec);
     this.userRepository = checkNotNull(userRepository);
     this.versionRepository = checkNotNull(versionRepository);
+    this.programDefinitionCache = checkNotNull(programDefinitionCache);
+    this.applicationRepository = checkNotNull(applicationRepository);
   }
 
   @Override
@@ -70,19 +80,41 @@ public class ProgramServiceImpl implements ProgramService {
 
   @Override
   public CompletionStage<ProgramDefinition> getProgramDefinitionAsync(long id) {
+    Optional<ProgramDefinition> cachedProgramDefinition = programDefinitionCache.get(id);
+    if (cachedProgramDefinition.isPresent()) {
+      return CompletableFuture.completedFuture(cachedProgramDefinition.get());
+    }
+
+    long cacheGeneration = programDefinitionCache.currentGeneration();
     return programRepository
         .lookupProgram(id)
         .thenComposeAsync(
-            programMaybe ->
-                programMaybe.isEmpty()
-                    ? CompletableFuture.failedFuture(new ProgramNotFoundException(id))
-                    : programMaybe
-                        .map(Program::getProgramDefinition)
-                        .map(this::syncProgramDefinitionQuestions)
-                        .get(),
+            programMaybe -> {
+              if (programMaybe.isEmpty()) {
+                return CompletableFuture.failedFuture(new ProgramNotFoundException(id));
+              }
+              Program program = programMaybe.get();
+              return syncProgramDefinitionQuestions(program.getProgramDefinition())
+                  .thenApply(
+                      programDefinition -> {
+                        if (!isDraft(program)) {
+                          programDefinitionCache.put(cacheGeneration, programDefinition);
+                        }
+                        return programDefinition;
+                      });
+            },
             httpExecutionContext.current());
   }
 
+  /**
+   * Draft programs, and the draft questions they refer to, can be edited in place, so their
+   * definitions must not be cached.
+   */
+  private static boolean isDraft(Program program) {
+    return program.getVersions().stream()
+        .anyMatch(version -> version.getLifecycleStage().equals(LifecycleStage.DRAFT));
+  }
+
   @Override
   public ErrorAnd<ProgramDefinition, CiviFormError> createProgramDefinition(
       String adminName,
@@ -117,32 +149,52 @@ public class ProgramServiceImpl implements ProgramService {
       String displayName,
       String displayDescription)
       throws ProgramNotFoundException {
-    ProgramDefinition programDefinition = getProgramDefinition(programId);
-    ImmutableSet.Builder<CiviFormError> errorsBuilder = ImmutableSet.builder();
-    validateProgramText(errorsBuilder, "admin description", adminDescription);
-    validateProgramText(errorsBuilder, "display name", displayName);
-    validateProgramText(errorsBuilder, "display description", displayDescription);
-    ImmutableSet<CiviFormError> errors = errorsBuilder.build();
-    if (!errors.isEmpty()) {
-      return ErrorAnd.error(errors);
+    try {
+      return updateProgramDefinitionAsync(
+              programId, locale, adminDescription, displayName, displayDescription)
+          .toCompletableFuture()
+          .join();
+    } catch (CompletionException e) {
+      rethrowCause(e, ProgramNotFoundException.class);
+      throw new RuntimeException(e);
     }
+  }
 
-    Program program =
-        programDefinition.toBuilder()
-            .setAdminDescription(adminDescription)
-            .setLocalizedName(
-                programDefinition.localizedName().updateTranslation(locale, displayName))
-            .setLocalizedDescription(
-                programDefinition
-                    .localizedDescription()
-                    .updateTranslation(locale, displayDescription))
-            .build()
-            .toProgram();
-    return ErrorAnd.of(
-        syncProgramDefinitionQuestions(
-                programRepository.updateProgramSync(program).getProgramDefinition())
-            .toCompletableFuture()
-            .join());
+  @Override
+  public CompletionStage<ErrorAnd<ProgramDefinition, CiviFormError>> updateProgramDefinitionAsync(
+      long programId,
+      Locale locale,
+      String adminDescription,
+      String displayName,
+      String displayDescription) {
+    return getProgramDefinitionAsync(programId)
+        .thenComposeAsync(
+            programDefinition -> {
+              ImmutableSet.Builder<CiviFormError> errorsBuilder = ImmutableSet.builder();
+              validateProgramText(errorsBuilder, "admin description", adminDescription);
+              validateProgramText(errorsBuilder, "display name", displayName);
+              validateProgramText(errorsBuilder, "display description", displayDescription);
+              ImmutableSet<CiviFormError> errors = errorsBuilder.build();
+              if (!errors.isEmpty()) {
+                return CompletableFuture.completedFuture(
+                    ErrorAnd.<ProgramDefinition, CiviFormError>error(errors));
+              }
+
+              Program program =
+                  programDefinition.toBuilder()
+                      .setAdminDescription(adminDescription)
+                      .setLocalizedName(
+                          programDefinition.localizedName().updateTranslation(locale, displayName))
+                      .setLocalizedDescription(
+                          programDefinition
+                              .localizedDescription()
+                              .updateTranslation(locale, displayDescription))
+                      .build()
+                      .toProgram();
+              return updateProgramAsync(program)
+                  .thenApply(ErrorAnd::<ProgramDefinition, CiviFormError>of);
+            },
+            httpExecutionContext.current());
   }
 
   @Override
@@ -300,45 +352,64 @@ public class ProgramServiceImpl implements ProgramService {
   }
 
   @Override
-  @Transactional
   public ProgramDefinition addQuestionsToBlock(
       long programId, long blockDefinitionId, ImmutableList<Long> questionIds)
       throws DuplicateProgramQuestionException, QuestionNotFoundException, ProgramNotFoundException,
           ProgramBlockDefinitionNotFoundException {
-    ProgramDefinition programDefinition = getProgramDefinition(programId);
-
-    for (long questionId : questionIds) {
-      if (programDefinition.hasQuestion(questionId)) {
-        throw new DuplicateProgramQuestionException(programId, questionId);
-      }
-    }
-
-    BlockDefinition blockDefinition = programDefinition.getBlockDefinition(blockDefinitionId);
-
-    ImmutableList<ProgramQuestionDefinition> programQuestionDefinitions =
-        blockDefinition.programQuestionDefinitions();
-
-    ImmutableList.Builder<ProgramQuestionDefinition> newQuestionListBuilder =
-        ImmutableList.builder();
-    newQuestionListBuilder.addAll(programQuestionDefinitions);
-
-    ReadOnlyQuestionService roQuestionService =
-        questionService.getReadOnlyQuestionService().toCompletableFuture().join();
-
-    for (long qid : questionIds) {
-      newQuestionListBuilder.add(
-          ProgramQuestionDefinition.create(roQuestionService.getQuestionDefinition(qid)));
+    try {
+      return addQuestionsToBlockAsync(programId, blockDefinitionId, questionIds)
+          .toCompletableFuture()
+          .join();
+    } catch (CompletionException e) {
+      rethrowCause(e, DuplicateProgramQuestionException.class);
+      rethrowCause(e, QuestionNotFoundException.class);
+      rethrowCause(e, ProgramNotFoundException.class);
+      rethrowCause(e, ProgramBlockDefinitionNotFoundException.class);
+      throw new RuntimeException(e);
     }
+  }
 
-    ImmutableList<ProgramQuestionDefinition> newProgramQuestionDefinitions =
-        newQuestionListBuilder.build();
-
-    blockDefinition =
-        blockDefinition.toBuilder()
-            .setProgramQuestionDefinitions(newProgramQuestionDefinitions)
-            .build();
-
-    return updateProgramDefinitionWithBlockDefinition(programDefinition, blockDefinition);
+  @Override
+  public CompletionStage<ProgramDefinition> addQuestionsToBlockAsync(
+      long programId, long blockDefinitionId, ImmutableList<Long> questionIds) {
+    return questionService
+        .getReadOnlyQuestionService()
+        .thenComposeAsync(
+            roQuestionService ->
+                updateProgramInTransaction(
+                    programId,
+                    programDefinition -> {
+                      try {
+                        for (long questionId : questionIds) {
+                          if (programDefinition.hasQuestion(questionId)) {
+                            throw new DuplicateProgramQuestionException(programId, questionId);
+                          }
+                        }
+
+                        BlockDefinition blockDefinition =
+                            programDefinition.getBlockDefinition(blockDefinitionId);
+
+                        ImmutableList.Builder<ProgramQuestionDefinition> newQuestionListBuilder =
+                            ImmutableList.builder();
+                        newQuestionListBuilder.addAll(blockDefinition.programQuestionDefinitions());
+                        for (long qid : questionIds) {
+                          newQuestionListBuilder.add(
+                              ProgramQuestionDefinition.create(
+                                  roQuestionService.getQuestionDefinition(qid)));
+                        }
+
+                        blockDefinition =
+                            blockDefinition.toBuilder()
+                                .setProgramQuestionDefinitions(newQuestionListBuilder.build())
+                                .build();
+                        return programWithBlockDefinition(programDefinition, blockDefinition);
+                      } catch (DuplicateProgramQuestionException
+                          | ProgramBlockDefinitionNotFoundException
+                          | QuestionNotFoundException e) {
+                        throw new CompletionException(e);
+                      }
+                    }),
+            httpExecutionContext.current());
   }
 
   @Override
@@ -386,50 +457,116 @@ public class ProgramServiceImpl implements ProgramService {
   }
 
   @Override
-  @Transactional
   public ProgramDefinition deleteBlock(long programId, long blockDefinitionId)
       throws ProgramNotFoundException, ProgramNeedsABlockException {
-    ProgramDefinition programDefinition = getProgramDefinition(programId);
-
-    ImmutableList<BlockDefinition> newBlocks =
-        programDefinition.blockDefinitions().stream()
-            .filter(block -> block.id() != blockDefinitionId)
-            .collect(ImmutableList.toImmutableList());
-    if (newBlocks.isEmpty()) {
-      throw new ProgramNeedsABlockException(programId);
+    try {
+      return deleteBlockAsync(programId, blockDefinitionId).toCompletableFuture().join();
+    } catch (CompletionException e) {
+      rethrowCause(e, ProgramNotFoundException.class);
+      rethrowCause(e, ProgramNeedsABlockException.class);
+      throw new RuntimeException(e);
     }
+  }
 
-    Program program =
-        programDefinition.toBuilder().setBlockDefinitions(newBlocks).build().toProgram();
-    return syncProgramDefinitionQuestions(
-            programRepository.updateProgramSync(program).getProgramDefinition())
-        .toCompletableFuture()
-        .join();
+  @Override
+  public CompletionStage<ProgramDefinition> deleteBlockAsync(
+      long programId, long blockDefinitionId) {
+    return updateProgramInTransaction(
+        programId,
+        programDefinition -> {
+          ImmutableList<BlockDefinition> newBlocks =
+              programDefinition.blockDefinitions().stream()
+                  .filter(block -> block.id() != blockDefinitionId)
+                  .collect(ImmutableList.toImmutableList());
+          if (newBlocks.isEmpty()) {
+            throw new CompletionException(new ProgramNeedsABlockException(programId));
+          }
+          return programDefinition.toBuilder().setBlockDefinitions(newBlocks).build().toProgram();
+        });
   }
 
   @Override
-  public ImmutableList<Application> getProgramApplications(long programId)
-      throws ProgramNotFoundException {
-    Optional<Program> programMaybe =
-        programRepository.lookupProgram(programId).toCompletableFuture().join();
-    if (programMaybe.isEmpty()) {
-      throw new ProgramNotFoundException(programId);
-    }
-    return programMaybe.get().getApplications();
+  public CompletionStage<ImmutableList<Application>> getProgramApplications(long programId) {
+    return programRepository
+        .lookupProgram(programId)
+        .thenApplyAsync(
+            programMaybe -> {
+              if (programMaybe.isEmpty()) {
+                throw new CompletionException(new ProgramNotFoundException(programId));
+              }
+              return programMaybe.get().getApplications();
+            },
+            httpExecutionContext.current());
   }
 
   @Override
-  public ImmutableList<Application> getProgramApplications(long programId, Optional<String> search)
-      throws ProgramNotFoundException {
-    return getProgramApplications(programId).stream()
-        .filter(
-            application ->
-                application
-                    .getApplicantData()
-                    .getApplicantName()
-                    .toLowerCase(Locale.ROOT)
-                    .contains(search.orElse("").toLowerCase(Locale.ROOT)))
-        .collect(ImmutableList.toImmutableList());
+  public CompletionStage<ApplicationsPage> getProgramApplicationsAsync(
+      long programId,
+      Optional<String> search,
+      Optional<ApplicationCursor> after,
+      Optional<ApplicationCursor> before,
+      int pageSize,
+      int page) {
+    return programRepository
+        .lookupProgram(programId)
+        .thenComposeAsync(
+            programMaybe -> {
+              if (programMaybe.isEmpty()) {
+                return CompletableFuture.failedFuture(new ProgramNotFoundException(programId));
+              }
+              if (before.isPresent()) {
+                return getApplicationsPageBefore(programId, search, before.get(), pageSize, page);
+              }
+              return getApplicationsPageAfter(programId, search, after, pageSize, page);
+            },
+            httpExecutionContext.current());
+  }
+
+  /**
+   * Returns the page of applications after the {@code after} cursor. One more application than
+   * fits on the page is fetched to find out whether there is a next page.
+   */
+  private CompletionStage<ApplicationsPage> getApplicationsPageAfter(
+      long programId,
+      Optional<String> search,
+      Optional<ApplicationCursor> after,
+      int pageSize,
+      int page) {
+    return applicationRepository
+        .getApplicationsAfter(programId, search, after, pageSize + 1)
+        .thenApply(
+            applications -> {
+              boolean hasNextPage = applications.size() > pageSize;
+              return ApplicationsPage.create(
+                  hasNextPage ? applications.subList(0, pageSize) : applications,
+                  after.isPresent() ? page : 1,
+                  after.isPresent(),
+                  hasNextPage);
+            });
+  }
+
+  /**
+   * Returns the page of applications before the {@code before} cursor. If there are not enough
+   * applications before it to fill a page, the first page is returned instead, so that the first
+   * page is always full.
+   */
+  private CompletionStage<ApplicationsPage> getApplicationsPageBefore(
+      long programId, Optional<String> search, ApplicationCursor before, int pageSize, int page) {
+    return applicationRepository
+        .getApplicationsBefore(programId, search, before, pageSize + 1)
+        .thenCompose(
+            applications -> {
+              if (applications.size() <= pageSize) {
+                return getApplicationsPageAfter(
+                    programId, search, Optional.empty(), pageSize, /* page= */ 1);
+              }
+              return CompletableFuture.completedFuture(
+                  ApplicationsPage.create(
+                      applications.subList(1, applications.size()),
+                      Math.max(page, 2),
+                      /* hasPreviousPage= */ true,
+                      /* hasNextPage= */ true));
+            });
   }
 
   @Override
@@ -458,27 +595,68 @@ public class ProgramServiceImpl implements ProgramService {
   }
 
   @Override
-  public ImmutableList<Program> getOtherProgramVersions(long programId) {
+  public CompletionStage<ImmutableList<Program>> getOtherProgramVersions(long programId) {
     return programRepository.getOtherProgramVersions(programId);
   }
 
   private ProgramDefinition updateProgramDefinitionWithBlockDefinition(
       ProgramDefinition programDefinition, BlockDefinition blockDefinition) {
+    Program program = programWithBlockDefinition(programDefinition, blockDefinition);
+    return syncProgramDefinitionQuestions(
+            programRepository.updateProgramSync(program).getProgramDefinition())
+        .toCompletableFuture()
+        .join();
+  }
 
+  /** Returns the program with the block that has the same id replaced by the given one. */
+  private static Program programWithBlockDefinition(
+      ProgramDefinition programDefinition, BlockDefinition blockDefinition) {
     ImmutableList<BlockDefinition> updatedBlockDefinitions =
         programDefinition.blockDefinitions().stream()
             .map(b -> b.id() == blockDefinition.id() ? blockDefinition : b)
             .collect(ImmutableList.toImmutableList());
+    return programDefinition.toBuilder()
+        .setBlockDefinitions(updatedBlockDefinitions)
+        .build()
+        .toProgram();
+  }
 
-    Program program =
-        programDefinition.toBuilder()
-            .setBlockDefinitions(updatedBlockDefinitions)
-            .build()
-            .toProgram();
-    return syncProgramDefinitionQuestions(
-            programRepository.updateProgramSync(program).getProgramDefinition())
-        .toCompletableFuture()
-        .join();
+  /**
+   * Updates the program on the admin database thread pool, and returns its definition with the
+   * questions synced.
+   */
+  private CompletionStage<ProgramDefinition> updateProgramAsync(Program program) {
+    return programRepository
+        .updateProgramAsync(program)
+        .thenComposeAsync(
+            updatedProgram -> syncProgramDefinitionQuestions(updatedProgram.getProgramDefinition()),
+            httpExecutionContext.current());
+  }
+
+  /**
+   * Updates the program with the given id to the one that {@code update} makes from its stored
+   * definition, reading and writing it in one transaction so that concurrent edits to the program
+   * are not lost, and returns its definition with the questions synced. {@code update} runs on the
+   * admin database thread pool, and fails the update by throwing a {@link CompletionException}.
+   */
+  private CompletionStage<ProgramDefinition> updateProgramInTransaction(
+      long programId, Function<ProgramDefinition, Program> update) {
+    return programRepository
+        .updateProgramAsync(programId, update)
+        .thenComposeAsync(
+            updatedProgram -> syncProgramDefinitionQuestions(updatedProgram.getProgramDefinition()),
+            httpExecutionContext.current());
+  }
+
+  /**
+   * Rethrows the cause of {@code e} if it is a {@code type}, so that the blocking methods throw the
+   * same checked exceptions that their asynchronous variants fail with.
+   */
+  private static <E extends Exception> void rethrowCause(CompletionException e, Class<E> type)
+      throws E {
+    if (type.isInstance(e.getCause())) {
+      throw type.cast(e.getCause());
+    }
   }
 
   private long getNextBlockId(ProgramDefinition programDefinition) {
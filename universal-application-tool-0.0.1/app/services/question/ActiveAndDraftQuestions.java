@@ -11,9 +11,10 @@ import services.question.types.QuestionDefinition;
 
 /**
  * A data class storing the current active and draft questions. For efficient querying of
- * information about current active / draft questions which does not hit the database. Lifespan
- * should be measured in milliseconds - seconds at the maximum - within one request serving path -
- * because it does not have any mechanism for a refresh.
+ * information about current active / draft questions which does not hit the database. It does not
+ * have any mechanism for a refresh, so it should only be obtained through the {@link
+ * ReadOnlyQuestionService} that {@link QuestionService#getReadOnlyQuestionService()} returns,
+ * which {@link ReadOnlyQuestionServiceCache} replaces when the active or draft questions change.
  */
 public class ActiveAndDraftQuestions {
 
@@ -2,11 +2,11 @@ package services.question;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
-import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import com.google.inject.Inject;
 import com.google.inject.Provider;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
 import models.Question;
 import repository.QuestionRepository;
@@ -20,13 +20,16 @@ public final class QuestionServiceImpl implements QuestionService {
 
   private final QuestionRepository questionRepository;
   private final Provider<VersionRepository> versionRepositoryProvider;
+  private final ReadOnlyQuestionServiceCache readOnlyQuestionServiceCache;
 
   @Inject
   public QuestionServiceImpl(
       QuestionRepository questionRepository,
-      Provider<VersionRepository> versionRepositoryProvider) {
+      Provider<VersionRepository> versionRepositoryProvider,
+      ReadOnlyQuestionServiceCache readOnlyQuestionServiceCache) {
     this.questionRepository = checkNotNull(questionRepository);
     this.versionRepositoryProvider = checkNotNull(versionRepositoryProvider);
+    this.readOnlyQuestionServiceCache = checkNotNull(readOnlyQuestionServiceCache);
   }
 
   @Override
@@ -47,14 +50,36 @@ public final class QuestionServiceImpl implements QuestionService {
     return ErrorAnd.of(question.getQuestionDefinition());
   }
 
+  /**
+   * Returns the cached {@link ReadOnlyQuestionService} if the active and draft questions have not
+   * changed since it was built. Otherwise builds, caches, and returns a new one. Whether they have
+   * changed is only checked against the database once per recheck interval of the {@link
+   * ReadOnlyQuestionServiceCache}.
+   */
   @Override
   public CompletionStage<ReadOnlyQuestionService> getReadOnlyQuestionService() {
-    return listQuestionDefinitionsAsync()
+    Optional<ReadOnlyQuestionService> recentlyChecked =
+        readOnlyQuestionServiceCache.getRecentlyCheckedService();
+    if (recentlyChecked.isPresent()) {
+      return CompletableFuture.completedFuture(recentlyChecked.get());
+    }
+    ReadOnlyQuestionServiceCache.Snapshot snapshot = readOnlyQuestionServiceCache.getSnapshot();
+    return questionRepository
+        .getActiveAndDraftQuestionsFingerprint()
         .thenApply(
-            questionDefinitions ->
-                new ReadOnlyQuestionServiceImpl(
-                    versionRepositoryProvider.get().getActiveVersion(),
-                    versionRepositoryProvider.get().getDraftVersion()));
+            fingerprint -> {
+              Optional<ReadOnlyQuestionService> cached = snapshot.getService(fingerprint);
+              if (cached.isPresent()) {
+                readOnlyQuestionServiceCache.markChecked(snapshot);
+                return cached.get();
+              }
+              ReadOnlyQuestionService readOnlyQuestionService =
+                  new ReadOnlyQuestionServiceImpl(
+                      versionRepositoryProvider.get().getActiveVersion(),
+                      versionRepositoryProvider.get().getDraftVersion());
+              readOnlyQuestionServiceCache.update(snapshot, fingerprint, readOnlyQuestionService);
+              return readOnlyQuestionService;
+            });
   }
 
   @Override
@@ -88,16 +113,6 @@ public final class QuestionServiceImpl implements QuestionService {
     return ErrorAnd.of(question.getQuestionDefinition());
   }
 
-  private CompletionStage<ImmutableList<QuestionDefinition>> listQuestionDefinitionsAsync() {
-    return questionRepository
-        .listQuestions()
-        .thenApply(
-            questions ->
-                questions.stream()
-                    .map(question -> question.getQuestionDefinition())
-                    .collect(ImmutableList.toImmutableList()));
-  }
-
   /**
    * Check for conflicts with other questions. This is to be only used with new questions because
    * questions being updated will likely conflict with themselves, and new versions of previous
@@ -0,0 +1,115 @@
+package services.question;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.typesafe.config.Config;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+/**
+ * Holds the most recently built {@link ReadOnlyQuestionService}, so that it only needs to be
+ * rebuilt when questions or versions change.
+ *
+ * <p>The service is stored in an atomically swapped {@link Snapshot} together with a fingerprint of
+ * the active and draft versions it was built from, and the time the fingerprint was last checked.
+ * Callers compare the fingerprint with the current one to find out whether the snapshot is still up
+ * to date, but only once it is older than {@code question_cache.fingerprint_recheck_interval}, so
+ * most reads don't query the database at all. Changes made on this server must call {@link
+ * #invalidate()} so they are seen right away, and changes made on other servers are seen within
+ * that interval. Changes that the fingerprint cannot see, such as editing a draft question in
+ * place, must always call {@link #invalidate()}.
+ */
+@Singleton
+public final class ReadOnlyQuestionServiceCache {
+
+  private final Clock clock;
+  private final Duration recheckInterval;
+  private final AtomicReference<Snapshot> snapshot = new AtomicReference<>(new Snapshot());
+
+  @Inject
+  public ReadOnlyQuestionServiceCache(Config configuration, Clock clock) {
+    this.clock = checkNotNull(clock);
+    this.recheckInterval =
+        checkNotNull(configuration).getDuration("question_cache.fingerprint_recheck_interval");
+  }
+
+  /**
+   * Returns the cached service if its fingerprint was checked within the recheck interval, in which
+   * case it does not need to be checked again.
+   */
+  public Optional<ReadOnlyQuestionService> getRecentlyCheckedService() {
+    Snapshot current = snapshot.get();
+    if (current.checkedAt.isEmpty()
+        || !clock.instant().isBefore(current.checkedAt.get().plus(recheckInterval))) {
+      return Optional.empty();
+    }
+    return current.service;
+  }
+
+  /**
+   * Returns the current snapshot. Callers that check its fingerprint should pass it to {@link
+   * #markChecked} or {@link #update} as the snapshot they expect to replace.
+   */
+  public Snapshot getSnapshot() {
+    return snapshot.get();
+  }
+
+  /**
+   * Records that the fingerprint of {@code expected} was found to be current, so that it is not
+   * checked again until the recheck interval has passed. Does nothing if the snapshot was replaced
+   * or invalidated since {@code expected} was read.
+   */
+  public void markChecked(Snapshot expected) {
+    if (expected.fingerprint.isPresent() && expected.service.isPresent()) {
+      snapshot.compareAndSet(
+          expected,
+          new Snapshot(expected.fingerprint.get(), expected.service.get(), clock.instant()));
+    }
+  }
+
+  /**
+   * Replaces {@code expected} with a snapshot of the given service. Does nothing if the snapshot
+   * was replaced or invalidated since {@code expected} was read, since the service may then have
+   * been built from outdated data.
+   */
+  public void update(Snapshot expected, String fingerprint, ReadOnlyQuestionService service) {
+    snapshot.compareAndSet(expected, new Snapshot(fingerprint, service, clock.instant()));
+  }
+
+  /** Discards the current snapshot. */
+  public void invalidate() {
+    snapshot.set(new Snapshot());
+  }
+
+  /**
+   * An immutable pairing of a {@link ReadOnlyQuestionService}, the fingerprint it was for, and when
+   * that fingerprint was last checked.
+   */
+  public static final class Snapshot {
+    private final Optional<String> fingerprint;
+    private final Optional<ReadOnlyQuestionService> service;
+    private final Optional<Instant> checkedAt;
+
+    private Snapshot() {
+      this.fingerprint = Optional.empty();
+      this.service = Optional.empty();
+      this.checkedAt = Optional.empty();
+    }
+
+    private Snapshot(String fingerprint, ReadOnlyQuestionService service, Instant checkedAt) {
+      this.fingerprint = Optional.of(fingerprint);
+      this.service = Optional.of(checkNotNull(service));
+      this.checkedAt = Optional.of(checkedAt);
+    }
+
+    /** Returns the service if it was built for the given fingerprint. */
+    public Optional<ReadOnlyQuestionService> getService(String currentFingerprint) {
+      return fingerprint.equals(Optional.of(currentFingerprint)) ? service : Optional.empty();
+    }
+  }
+}
@@ -130,20 +130,35 @@ public abstract class BaseHtmlView {
 
   protected ContainerTag renderPaginationDiv(
       int page, int pageCount, Function<Integer, Call> linkForPage) {
+    return renderPaginationLinks(
+        "Page " + page + " of " + pageCount,
+        page > 1 ? Optional.of(linkForPage.apply(page - 1)) : Optional.empty(),
+        pageCount > page ? Optional.of(linkForPage.apply(page + 1)) : Optional.empty());
+  }
+
+  /**
+   * Renders links to the pages before and after the given one, for lists that are paged through
+   * without counting how many pages there are.
+   */
+  protected ContainerTag renderPaginationDiv(
+      int page, Optional<Call> previousPage, Optional<Call> nextPage) {
+    return renderPaginationLinks("Page " + page, previousPage, nextPage);
+  }
+
+  private ContainerTag renderPaginationLinks(
+      String label, Optional<Call> previousPage, Optional<Call> nextPage) {
     ContainerTag div = div();
-    if (page <= 1) {
+    if (previousPage.isEmpty()) {
       div.with(new LinkElement().setText("∅").asButton());
     } else {
-      div.with(
-          new LinkElement().setText("←").setHref(linkForPage.apply(page - 1).url()).asButton());
+      div.with(new LinkElement().setText("←").setHref(previousPage.get().url()).asButton());
     }
     div.with(
-        div("Page " + page + " of " + pageCount)
+        div(label)
             .withClasses(
                 Styles.LEADING_3, Styles.FLOAT_LEFT, Styles.INLINE_BLOCK, Styles.P_2, Styles.M_4));
-    if (pageCount > page) {
-      div.with(
-          new LinkElement().setText("→").setHref(linkForPage.apply(page + 1).url()).asButton());
+    if (nextPage.isPresent()) {
+      div.with(new LinkElement().setText("→").setHref(nextPage.get().url()).asButton());
     } else {
       div.with(new LinkElement().setText("∅").asButton());
     }
@@ -19,8 +19,11 @@ import models.Program;
 import models.Version;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import play.mvc.Call;
 import play.mvc.Http;
 import play.twirl.api.Content;
+import repository.ApplicationCursor;
+import services.program.ApplicationsPage;
 import views.BaseHtmlView;
 import views.HtmlBundle;
 import views.admin.AdminLayout;
@@ -40,9 +43,7 @@ public final class ProgramApplicationListView extends BaseHtmlView {
   public Content render(
       Http.Request request,
       long programId,
-      ImmutableList<Application> applications,
-      int page,
-      int pageCount,
+      ApplicationsPage applicationsPage,
       Optional<String> search,
       ImmutableList<Program> previousVersions) {
     String title = "All Applications";
@@ -51,22 +52,20 @@ public final class ProgramApplicationListView extends BaseHtmlView {
             .withClasses(Styles.PX_20)
             .with(
                 h1(title).withClasses(Styles.MY_4),
-                renderPaginationDiv(
-                        page,
-                        pageCount,
-                        pageNumber ->
-                            routes.AdminApplicationController.index(
-                                programId, search, Optional.of(pageNumber)))
-                    .withClasses(Styles.MB_2),
+                renderPageLinks(programId, applicationsPage, search).withClasses(Styles.MB_2),
                 br(),
                 renderSearchForm(
                         request,
                         search,
                         routes.AdminApplicationController.index(
-                            programId, Optional.empty(), Optional.empty()))
+                            programId,
+                            Optional.empty(),
+                            Optional.empty(),
+                            Optional.empty(),
+                            Optional.empty()))
                     .withClasses(Styles.MT_6),
                 each(
-                    applications,
+                    applicationsPage.applications(),
                     application -> this.renderApplicationListItem(programId, application)),
                 br(),
                 renderDownloadButton(programId))
@@ -82,6 +81,38 @@ public final class ProgramApplicationListView extends BaseHtmlView {
     return layout.renderCentered(htmlBundle);
   }
 
+  /**
+   * Renders links to the pages right before and after this one, which pass the first or last
+   * application on this page as the cursor.
+   */
+  private Tag renderPageLinks(
+      long programId, ApplicationsPage applicationsPage, Optional<String> search) {
+    ImmutableList<Application> applications = applicationsPage.applications();
+    int page = applicationsPage.page();
+    Optional<Call> previousPage =
+        applicationsPage.hasPreviousPage() && !applications.isEmpty()
+            ? Optional.of(
+                routes.AdminApplicationController.index(
+                    programId,
+                    search,
+                    Optional.of(page - 1),
+                    Optional.empty(),
+                    Optional.of(ApplicationCursor.of(applications.get(0)).encode())))
+            : Optional.empty();
+    Optional<Call> nextPage =
+        applicationsPage.hasNextPage() && !applications.isEmpty()
+            ? Optional.of(
+                routes.AdminApplicationController.index(
+                    programId,
+                    search,
+                    Optional.of(page + 1),
+                    Optional.of(
+                        ApplicationCursor.of(applications.get(applications.size() - 1)).encode()),
+                    Optional.empty()))
+            : Optional.empty();
+    return renderPaginationDiv(page, previousPage, nextPage);
+  }
+
   private Tag renderPreviousVersionDiv(Program program) {
     Optional<Version> lastContainingVersion =
         program.getVersions().stream().max(Comparator.comparing(Version::getSubmitTime));
@@ -185,7 +216,7 @@ public final class ProgramApplicationListView extends BaseHtmlView {
   private Tag renderApplicationsLink(String text, long programId) {
     String viewLink =
         controllers.admin.routes.AdminApplicationController.index(
-                programId, Optional.empty(), Optional.empty())
+                programId, Optional.empty(), Optional.empty(), Optional.empty(), Optional.empty())
             .url();
 
     return new LinkElement()
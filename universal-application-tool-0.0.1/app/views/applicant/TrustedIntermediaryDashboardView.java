@@ -73,7 +73,7 @@ public class TrustedIntermediaryDashboardView extends BaseHtmlView {
                     request,
                     search,
                     routes.TrustedIntermediaryController.dashboard(
-                        Optional.empty(), Optional.empty())),
+                        Optional.empty(), Optional.empty(), Optional.empty(), Optional.empty())),
                 renderTIApplicantsTable(managedAccounts, search, page, totalPageCount),
                 hr().withClasses(Styles.MT_6),
                 renderHeader("Trusted Intermediary Members"),
@@ -93,6 +93,11 @@ public class TrustedIntermediaryDashboardView extends BaseHtmlView {
     return layout.renderWithNav(request, userName, messages, bundle);
   }
 
+  /**
+   * Renders the given page of managed accounts, which the repository has already sorted. The
+   * pagination links point at the pages right before and after this one by passing the first or
+   * last account on this page as the cursor.
+   */
   private ContainerTag renderTIApplicantsTable(
       ImmutableList<Account> managedAccounts,
       Optional<String> search,
@@ -102,20 +107,30 @@ public class TrustedIntermediaryDashboardView extends BaseHtmlView {
         div(table()
                 .withClasses(Styles.BORDER, Styles.BORDER_GRAY_300, Styles.SHADOW_MD, Styles.W_3_4)
                 .with(renderApplicantTableHeader())
-                .with(
-                    tbody(
-                        each(
-                            managedAccounts.stream()
-                                .sorted(Comparator.comparing(Account::getApplicantName))
-                                .collect(Collectors.toList()),
-                            account -> renderApplicantRow(account)))))
+                .with(tbody(each(managedAccounts, account -> renderApplicantRow(account)))))
             .withClasses(Styles.MB_16);
     return main.with(
         renderPaginationDiv(
             page,
             totalPageCount,
-            pageNumber ->
-                routes.TrustedIntermediaryController.dashboard(search, Optional.of(pageNumber))));
+            pageNumber -> {
+              if (managedAccounts.isEmpty()) {
+                return routes.TrustedIntermediaryController.dashboard(
+                    search, Optional.of(1), Optional.empty(), Optional.empty());
+              }
+              if (pageNumber > page) {
+                return routes.TrustedIntermediaryController.dashboard(
+                    search,
+                    Optional.of(pageNumber),
+                    Optional.of(managedAccounts.get(managedAccounts.size() - 1).id),
+                    Optional.empty());
+              }
+              return routes.TrustedIntermediaryController.dashboard(
+                  search,
+                  Optional.of(pageNumber),
+                  Optional.empty(),
+                  Optional.of(managedAccounts.get(0).id));
+            }));
   }
 
   private ContainerTag renderTIMembersTable(TrustedIntermediaryGroup tiGroup) {
@@ -0,0 +1,50 @@
+package services;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import services.applicant.question.Scalar;
+
+/** Creates and extends {@link Path}s like the ones the applicant engine builds for answers. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PathBenchmark {
+
+  private static final String NESTED_PATH =
+      "applicant.household_members[49].household_member_jobs[2].job_income.number";
+
+  private final Path jobPath =
+      Path.create("applicant.household_members[49].household_member_jobs[2]");
+  private final Path enumeratorPath = Path.create("applicant.household_members[]");
+
+  @Benchmark
+  public Path create() {
+    return Path.create(NESTED_PATH);
+  }
+
+  @Benchmark
+  public Path join() {
+    return jobPath.join("job_income");
+  }
+
+  @Benchmark
+  public Path join_scalar() {
+    return jobPath.join("job_income").join(Scalar.NUMBER);
+  }
+
+  @Benchmark
+  public Path atIndex() {
+    return enumeratorPath.atIndex(49);
+  }
+}
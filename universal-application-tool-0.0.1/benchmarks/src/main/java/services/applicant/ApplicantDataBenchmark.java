@@ -0,0 +1,70 @@
+package services.applicant;
+
+import com.google.common.collect.ImmutableList;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import services.Path;
+import services.applicant.question.Scalar;
+
+/** Reads and writes answers in the {@link ApplicantData} of a fully answered application. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ApplicantDataBenchmark {
+
+  @Param({"5", "50"})
+  public int householdSize;
+
+  private ApplicantData applicantData;
+  private Path firstQuestionTextPath;
+  private Path lastJobIncomePath;
+  private Path householdMembersPath;
+
+  @Setup
+  public void setUp() {
+    BenchmarkFixtures fixtures = new BenchmarkFixtures();
+    applicantData = fixtures.answeredApplicantData(householdSize);
+    firstQuestionTextPath = fixtures.firstQuestionPath().join(Scalar.TEXT);
+    lastJobIncomePath = fixtures.lastJobIncomePath(householdSize);
+    householdMembersPath = fixtures.householdMembersPath();
+  }
+
+  @Benchmark
+  public void putString() {
+    applicantData.putString(firstQuestionTextPath, "updated answer");
+  }
+
+  @Benchmark
+  public void putLong_nestedRepeatedEntity() {
+    applicantData.putLong(lastJobIncomePath, 1000L);
+  }
+
+  @Benchmark
+  public Optional<String> readString() {
+    return applicantData.readString(firstQuestionTextPath);
+  }
+
+  @Benchmark
+  public Optional<Long> readLong_nestedRepeatedEntity() {
+    return applicantData.readLong(lastJobIncomePath);
+  }
+
+  @Benchmark
+  public ImmutableList<String> readRepeatedEntities() {
+    return applicantData.readRepeatedEntities(householdMembersPath);
+  }
+}
@@ -0,0 +1,282 @@
+package services.applicant;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import com.google.common.collect.ImmutableList;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import org.mockito.Mockito;
+import services.LocalizedStrings;
+import services.Path;
+import services.applicant.question.Scalar;
+import services.aws.SimpleStorage;
+import services.program.BlockDefinition;
+import services.program.ProgramDefinition;
+import services.program.ProgramQuestionDefinition;
+import services.question.exceptions.UnsupportedQuestionTypeException;
+import services.question.types.EnumeratorQuestionDefinition;
+import services.question.types.QuestionDefinition;
+import services.question.types.QuestionDefinitionBuilder;
+import services.question.types.QuestionType;
+
+/**
+ * Builds a program and the answers of an applicant to it, shaped like a large real application,
+ * for the benchmarks to run against. Nothing is stored in a database.
+ *
+ * <p>The program has {@link #BLOCK_COUNT} block definitions:
+ *
+ * <ul>
+ *   <li>{@link #TOP_LEVEL_BLOCK_COUNT} blocks of {@link #QUESTIONS_PER_BLOCK} text, number, name,
+ *       date and address questions each
+ *   <li>a household members enumerator block
+ *   <li>a block repeated for each household member, asking for their name and age
+ *   <li>a jobs enumerator block, repeated for each household member
+ *   <li>a block repeated for each job of each household member, asking for its income
+ * </ul>
+ *
+ * <p>The applicant has answered every question, for a given number of household members with
+ * {@link #JOBS_PER_HOUSEHOLD_MEMBER} jobs each.
+ */
+final class BenchmarkFixtures {
+
+  static final int BLOCK_COUNT = 30;
+  static final int TOP_LEVEL_BLOCK_COUNT = BLOCK_COUNT - 4;
+  static final int QUESTIONS_PER_BLOCK = 3;
+  static final int JOBS_PER_HOUSEHOLD_MEMBER = 3;
+
+  private static final ImmutableList<QuestionType> TOP_LEVEL_QUESTION_TYPES =
+      ImmutableList.of(
+          QuestionType.TEXT,
+          QuestionType.NUMBER,
+          QuestionType.NAME,
+          QuestionType.DATE,
+          QuestionType.ADDRESS);
+
+  private final AtomicLong nextQuestionId = new AtomicLong(1);
+  private final ImmutableList<QuestionDefinition> topLevelQuestions;
+  private final EnumeratorQuestionDefinition householdMembersQuestion;
+  private final QuestionDefinition memberNameQuestion;
+  private final QuestionDefinition memberAgeQuestion;
+  private final EnumeratorQuestionDefinition jobsQuestion;
+  private final QuestionDefinition jobIncomeQuestion;
+  private final ProgramDefinition program;
+
+  BenchmarkFixtures() {
+    ImmutableList.Builder<QuestionDefinition> topLevelQuestionsBuilder = ImmutableList.builder();
+    for (int i = 0; i < TOP_LEVEL_BLOCK_COUNT * QUESTIONS_PER_BLOCK; i++) {
+      QuestionType type = TOP_LEVEL_QUESTION_TYPES.get(i % TOP_LEVEL_QUESTION_TYPES.size());
+      topLevelQuestionsBuilder.add(question("question " + i, type, Optional.empty()));
+    }
+    topLevelQuestions = topLevelQuestionsBuilder.build();
+    householdMembersQuestion =
+        (EnumeratorQuestionDefinition)
+            question("household members", QuestionType.ENUMERATOR, Optional.empty());
+    memberNameQuestion =
+        question(
+            "household member name",
+            QuestionType.NAME,
+            Optional.of(householdMembersQuestion.getId()));
+    memberAgeQuestion =
+        question(
+            "household member age",
+            QuestionType.NUMBER,
+            Optional.of(householdMembersQuestion.getId()));
+    jobsQuestion =
+        (EnumeratorQuestionDefinition)
+            question(
+                "household member jobs",
+                QuestionType.ENUMERATOR,
+                Optional.of(householdMembersQuestion.getId()));
+    jobIncomeQuestion =
+        question("job income", QuestionType.NUMBER, Optional.of(jobsQuestion.getId()));
+    program = buildProgram();
+  }
+
+  ProgramDefinition program() {
+    return program;
+  }
+
+  /** Returns the block definition with the given id, which is between 1 and BLOCK_COUNT. */
+  BlockDefinition blockDefinition(long id) {
+    return program.blockDefinitions().stream()
+        .filter(blockDefinition -> blockDefinition.id() == id)
+        .findFirst()
+        .orElseThrow();
+  }
+
+  /** Returns the block definition asking for the income of each job. */
+  BlockDefinition jobIncomeBlockDefinition() {
+    return blockDefinition(BLOCK_COUNT);
+  }
+
+  EnumeratorQuestionDefinition householdMembersQuestion() {
+    return householdMembersQuestion;
+  }
+
+  EnumeratorQuestionDefinition jobsQuestion() {
+    return jobsQuestion;
+  }
+
+  /** Returns the path of the first top level question. */
+  Path firstQuestionPath() {
+    return topLevelPath(topLevelQuestions.get(0));
+  }
+
+  /** Returns the path of the income of the last job of the last household member. */
+  Path lastJobIncomePath(int householdSize) {
+    checkArgument(householdSize > 0);
+    return jobPath(householdSize - 1, JOBS_PER_HOUSEHOLD_MEMBER - 1)
+        .join(jobIncomeQuestion.getQuestionPathSegment())
+        .join(Scalar.NUMBER);
+  }
+
+  /** Returns the path of the household members enumerator question. */
+  Path householdMembersPath() {
+    return topLevelPath(householdMembersQuestion);
+  }
+
+  /** Returns applicant data that answers every question, with the given number of members. */
+  ApplicantData answeredApplicantData(int householdSize) {
+    ApplicantData applicantData = new ApplicantData();
+    for (int i = 0; i < topLevelQuestions.size(); i++) {
+      QuestionDefinition question = topLevelQuestions.get(i);
+      answer(applicantData, topLevelPath(question), question.getQuestionType(), i);
+    }
+    for (int member = 0; member < householdSize; member++) {
+      Path memberPath = householdMembersPath().atIndex(member);
+      applicantData.putString(memberPath.join(Scalar.ENTITY_NAME), "member " + member);
+      answer(
+          applicantData,
+          memberPath.join(memberNameQuestion.getQuestionPathSegment()),
+          QuestionType.NAME,
+          member);
+      answer(
+          applicantData,
+          memberPath.join(memberAgeQuestion.getQuestionPathSegment()),
+          QuestionType.NUMBER,
+          member);
+      for (int job = 0; job < JOBS_PER_HOUSEHOLD_MEMBER; job++) {
+        Path jobPath = jobPath(member, job);
+        applicantData.putString(jobPath.join(Scalar.ENTITY_NAME), "job " + job);
+        answer(
+            applicantData,
+            jobPath.join(jobIncomeQuestion.getQuestionPathSegment()),
+            QuestionType.NUMBER,
+            job);
+      }
+    }
+    return applicantData;
+  }
+
+  /**
+   * Returns a storage client for services that need one. The fixtures have no file upload
+   * questions, so it is never called.
+   */
+  static SimpleStorage storage() {
+    return Mockito.mock(SimpleStorage.class);
+  }
+
+  private ProgramDefinition buildProgram() {
+    ImmutableList.Builder<BlockDefinition> blocks = ImmutableList.builder();
+    for (int block = 0; block < TOP_LEVEL_BLOCK_COUNT; block++) {
+      int firstQuestion = block * QUESTIONS_PER_BLOCK;
+      blocks.add(
+          block(
+              block + 1,
+              Optional.empty(),
+              topLevelQuestions.subList(firstQuestion, firstQuestion + QUESTIONS_PER_BLOCK)));
+    }
+    long householdBlockId = TOP_LEVEL_BLOCK_COUNT + 1;
+    long jobsBlockId = TOP_LEVEL_BLOCK_COUNT + 3;
+    blocks.add(
+        block(householdBlockId, Optional.empty(), ImmutableList.of(householdMembersQuestion)));
+    blocks.add(
+        block(
+            TOP_LEVEL_BLOCK_COUNT + 2,
+            Optional.of(householdBlockId),
+            ImmutableList.of(memberNameQuestion, memberAgeQuestion)));
+    blocks.add(block(jobsBlockId, Optional.of(householdBlockId), ImmutableList.of(jobsQuestion)));
+    blocks.add(block(BLOCK_COUNT, Optional.of(jobsBlockId), ImmutableList.of(jobIncomeQuestion)));
+
+    return ProgramDefinition.builder()
+        .setId(1L)
+        .setAdminName("benchmark program")
+        .setAdminDescription("A program shaped like a large real application")
+        .setLocalizedName(LocalizedStrings.of(Locale.US, "Benchmark program"))
+        .setLocalizedDescription(LocalizedStrings.of(Locale.US, "Benchmark program"))
+        .setBlockDefinitions(blocks.build())
+        .setExportDefinitions(ImmutableList.of())
+        .build();
+  }
+
+  private static BlockDefinition block(
+      long id, Optional<Long> enumeratorId, ImmutableList<QuestionDefinition> questions) {
+    return BlockDefinition.builder()
+        .setId(id)
+        .setName("block " + id)
+        .setDescription("block " + id)
+        .setEnumeratorId(enumeratorId)
+        .setProgramQuestionDefinitions(
+            questions.stream()
+                .map(ProgramQuestionDefinition::create)
+                .collect(ImmutableList.toImmutableList()))
+        .build();
+  }
+
+  private QuestionDefinition question(
+      String name, QuestionType type, Optional<Long> enumeratorId) {
+    try {
+      return new QuestionDefinitionBuilder()
+          .setId(nextQuestionId.getAndIncrement())
+          .setName(name)
+          .setEnumeratorId(enumeratorId)
+          .setDescription(name)
+          .setQuestionText(LocalizedStrings.of(Locale.US, "What is the " + name + "?"))
+          .setQuestionHelpText(LocalizedStrings.of(Locale.US, "Help for " + name))
+          .setQuestionType(type)
+          .build();
+    } catch (UnsupportedQuestionTypeException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  private static Path topLevelPath(QuestionDefinition question) {
+    return ApplicantData.APPLICANT_PATH.join(question.getQuestionPathSegment());
+  }
+
+  private Path jobPath(int member, int job) {
+    return householdMembersPath()
+        .atIndex(member)
+        .join(jobsQuestion.getQuestionPathSegment())
+        .atIndex(job);
+  }
+
+  private static void answer(ApplicantData applicantData, Path path, QuestionType type, int seed) {
+    switch (type) {
+      case TEXT:
+        applicantData.putString(path.join(Scalar.TEXT), "answer " + seed);
+        break;
+      case NUMBER:
+        applicantData.putLong(path.join(Scalar.NUMBER), seed);
+        break;
+      case NAME:
+        applicantData.putString(path.join(Scalar.FIRST_NAME), "First" + seed);
+        applicantData.putString(path.join(Scalar.MIDDLE_NAME), "Middle" + seed);
+        applicantData.putString(path.join(Scalar.LAST_NAME), "Last" + seed);
+        break;
+      case DATE:
+        applicantData.putDate(path.join(Scalar.DATE), "2021-01-01");
+        break;
+      case ADDRESS:
+        applicantData.putString(path.join(Scalar.STREET), seed + " Main St");
+        applicantData.putString(path.join(Scalar.LINE2), "Apt " + seed);
+        applicantData.putString(path.join(Scalar.CITY), "Seattle");
+        applicantData.putString(path.join(Scalar.STATE), "WA");
+        applicantData.putString(path.join(Scalar.ZIP), "98101");
+        break;
+      default:
+        throw new IllegalArgumentException("No fixture answers for " + type);
+    }
+  }
+}
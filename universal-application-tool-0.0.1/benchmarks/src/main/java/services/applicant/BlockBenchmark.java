@@ -0,0 +1,70 @@
+package services.applicant;
+
+import com.google.common.collect.ImmutableList;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import services.applicant.question.ApplicantQuestion;
+import services.program.BlockDefinition;
+
+/**
+ * Builds the questions of a {@link Block}. Blocks memoize their questions, so each invocation
+ * creates a new block, as the applicant engine does on every request.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BlockBenchmark {
+
+  @Param({"5", "50"})
+  public int householdSize;
+
+  private ApplicantData applicantData;
+  private BlockDefinition topLevelBlockDefinition;
+  private BlockDefinition jobIncomeBlockDefinition;
+  private String lastJobBlockId;
+  private RepeatedEntity lastJob;
+
+  @Setup
+  public void setUp() {
+    BenchmarkFixtures fixtures = new BenchmarkFixtures();
+    applicantData = fixtures.answeredApplicantData(householdSize).asImmutableSnapshot();
+    topLevelBlockDefinition = fixtures.blockDefinition(1);
+    jobIncomeBlockDefinition = fixtures.jobIncomeBlockDefinition();
+    ImmutableList<RepeatedEntity> members =
+        RepeatedEntity.createRepeatedEntities(fixtures.householdMembersQuestion(), applicantData);
+    ImmutableList<RepeatedEntity> jobs =
+        members
+            .get(members.size() - 1)
+            .createNestedRepeatedEntities(fixtures.jobsQuestion(), applicantData);
+    lastJob = jobs.get(jobs.size() - 1);
+    lastJobBlockId =
+        String.format(
+            "%d-%d-%d", jobIncomeBlockDefinition.id(), members.size() - 1, jobs.size() - 1);
+  }
+
+  @Benchmark
+  public ImmutableList<ApplicantQuestion> getQuestions() {
+    return new Block("1", topLevelBlockDefinition, applicantData, Optional.empty())
+        .getQuestions();
+  }
+
+  @Benchmark
+  public ImmutableList<ApplicantQuestion> getQuestions_nestedRepeatedEntity() {
+    return new Block(lastJobBlockId, jobIncomeBlockDefinition, applicantData, Optional.of(lastJob))
+        .getQuestions();
+  }
+}
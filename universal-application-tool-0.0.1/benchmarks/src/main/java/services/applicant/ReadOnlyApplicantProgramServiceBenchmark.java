@@ -0,0 +1,83 @@
+package services.applicant;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import services.Path;
+import services.applicant.question.ApplicantQuestion;
+import services.aws.SimpleStorage;
+import services.program.ProgramDefinition;
+
+/**
+ * Computes the blocks and summary of a fully answered application. The service memoizes its
+ * blocks, so each invocation creates a new service, as the applicant engine does on every request.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReadOnlyApplicantProgramServiceBenchmark {
+
+  @Param({"5", "50"})
+  public int householdSize;
+
+  private SimpleStorage storage;
+  private ApplicantData applicantData;
+  private ProgramDefinition program;
+  private ImmutableSet<Path> firstBlockPaths;
+
+  @Setup
+  public void setUp() {
+    BenchmarkFixtures fixtures = new BenchmarkFixtures();
+    storage = BenchmarkFixtures.storage();
+    applicantData = fixtures.answeredApplicantData(householdSize);
+    program = fixtures.program();
+    firstBlockPaths =
+        newService().getAllBlocks().get(0).getQuestions().stream()
+            .map(ApplicantQuestion::getContextualizedPath)
+            .collect(ImmutableSet.toImmutableSet());
+  }
+
+  @Benchmark
+  public ImmutableList<Block> getAllBlocks() {
+    return newService().getAllBlocks();
+  }
+
+  @Benchmark
+  public ImmutableList<Block> getInProgressBlocks() {
+    return newService().getInProgressBlocks();
+  }
+
+  /**
+   * Computes the in-progress blocks before and after the first block is answered again, as
+   * submitting a block does. Compare with twice {@link #getInProgressBlocks}.
+   */
+  @Benchmark
+  public ImmutableList<Block> getInProgressBlocksAfterUpdate() {
+    ReadOnlyApplicantProgramServiceImpl service = newService();
+    service.getInProgressBlocks();
+    return service.withUpdatedData(applicantData, firstBlockPaths).getInProgressBlocks();
+  }
+
+  @Benchmark
+  public ImmutableList<AnswerData> getSummaryData() {
+    return newService().getSummaryData();
+  }
+
+  private ReadOnlyApplicantProgramServiceImpl newService() {
+    return new ReadOnlyApplicantProgramServiceImpl(storage, applicantData, program);
+  }
+}
@@ -0,0 +1,8 @@
+# --- Index applications by applicant and lifecycle stage so the programs an applicant has
+# --- draft applications for can be found without scanning the table.
+
+# --- !Ups
+create index idx_applications_applicant_stage on applications (applicant_id, lifecycle_stage, program_id);
+
+# --- !Downs
+drop index if exists idx_applications_applicant_stage;
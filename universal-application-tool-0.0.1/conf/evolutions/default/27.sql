@@ -0,0 +1,12 @@
+# --- Backfill slugs for programs created before slugs were stored, and index them for
+# --- deep linking. The expression matches Slugify for ASCII program names.
+
+# --- !Ups
+update programs
+  set slug = lower(trim(both '-' from regexp_replace(name, '[^a-zA-Z0-9_]+', '-', 'g')))
+  where slug is null or slug = '';
+
+create index idx_programs_slug on programs (slug);
+
+# --- !Downs
+drop index if exists idx_programs_slug;
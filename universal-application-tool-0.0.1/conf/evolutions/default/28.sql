@@ -0,0 +1,22 @@
+# --- Add a generated, lower-cased applicant name column to applications, matching the name shown
+# --- in the admin application list, and index it for substring search. Also index applications
+# --- by program so they can be paged through in id order.
+
+# --- !Ups
+create extension if not exists pg_trgm;
+
+alter table applications add column applicant_name_search varchar generated always as (
+  case
+    when object #>> '{applicant,name,first}' is null or object #>> '{applicant,name,last}' is null
+      then '<anonymous applicant>'
+    else lower((object #>> '{applicant,name,last}') || ', ' || (object #>> '{applicant,name,first}'))
+  end
+) stored;
+
+create index idx_applications_applicant_name_search on applications using gin (applicant_name_search gin_trgm_ops);
+create index idx_applications_program_id on applications (program_id, id);
+
+# --- !Downs
+drop index if exists idx_applications_program_id;
+drop index if exists idx_applications_applicant_name_search;
+alter table applications drop column if exists applicant_name_search;
@@ -0,0 +1,50 @@
+# --- Materialize the display name of each account, which is the name of its most recently created
+# --- applicant, so that the accounts managed by a trusted intermediary group can be sorted,
+# --- searched and paged through in the database. The column is kept up to date by a trigger on
+# --- applicants, and uses the "C" collation so it sorts the same way as Java strings.
+# --- Semicolons inside the function bodies are escaped as ;; for the evolutions parser.
+
+# --- !Ups
+alter table accounts add column display_name varchar collate "C" not null default '<Unnamed User>';
+
+create or replace function account_display_name(account bigint) returns varchar as $$
+  select coalesce((
+    select case
+      when object #>> '{applicant,name,first}' is null or object #>> '{applicant,name,last}' is null
+        then '<Anonymous Applicant>'
+      else (object #>> '{applicant,name,last}') || ', ' || (object #>> '{applicant,name,first}')
+    end
+    from applicants
+    where applicants.account_id = account
+    order by applicants.when_created desc nulls last, applicants.id desc
+    limit 1), '<Unnamed User>')
+$$ language sql stable;
+
+create or replace function update_account_display_name() returns trigger as $$
+begin
+  if tg_op <> 'INSERT' and old.account_id is not null then
+    update accounts set display_name = account_display_name(old.account_id) where id = old.account_id;;
+  end if;;
+  if tg_op <> 'DELETE' and new.account_id is not null then
+    update accounts set display_name = account_display_name(new.account_id) where id = new.account_id;;
+  end if;;
+  return null;;
+end;;
+$$ language plpgsql;
+
+create trigger applicants_update_account_display_name
+  after insert or delete or update of object, account_id, when_created on applicants
+  for each row execute procedure update_account_display_name();
+
+update accounts set display_name = account_display_name(id);
+
+create index idx_accounts_managed_by_display_name on accounts (managed_by_group_id, display_name, id);
+create index idx_accounts_display_name_search on accounts using gin (lower(display_name) gin_trgm_ops);
+
+# --- !Downs
+drop index if exists idx_accounts_display_name_search;
+drop index if exists idx_accounts_managed_by_display_name;
+drop trigger if exists applicants_update_account_display_name on applicants;
+drop function if exists update_account_display_name();
+drop function if exists account_display_name(bigint);
+alter table accounts drop column if exists display_name;
@@ -0,0 +1,8 @@
+# --- Add a version to applicants, which is incremented by every update, so that an update made
+# --- from an out-of-date copy of an applicant fails instead of overwriting newer answers.
+
+# --- !Ups
+alter table applicants add column version bigint not null default 1;
+
+# --- !Downs
+alter table applicants drop column if exists version;
@@ -0,0 +1,19 @@
+# --- Outbox of program admin notification emails. A row is written in the same transaction as the
+# --- application it is about, and deleted once the email is sent, so that submitting does not wait
+# --- on the email and a submitted application is never left without its notification.
+
+# --- !Ups
+create table if not exists program_admin_notifications (
+  id bigserial primary key,
+  application_id bigint not null,
+  attempts int not null default 0,
+  next_attempt_time timestamp not null,
+  create_time timestamp,
+  constraint fk_application foreign key(application_id) references applications(id) on delete cascade
+);
+
+create index idx_program_admin_notifications_next_attempt_time on program_admin_notifications (next_attempt_time, id);
+
+# --- !Downs
+drop index if exists idx_program_admin_notifications_next_attempt_time;
+drop table if exists program_admin_notifications cascade;
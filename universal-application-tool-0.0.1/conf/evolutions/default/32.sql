@@ -0,0 +1,8 @@
+# --- Index programs by name, so that submitting an application can find the applications to every
+# --- version of the program without scanning the programs table.
+
+# --- !Ups
+create index idx_programs_name on programs (name);
+
+# --- !Downs
+drop index if exists idx_programs_name;
@@ -0,0 +1,58 @@
+# --- Only update the display name of an account when a change to one of its applicants can change
+# --- it. Saving an applicant's answers updates applicants.object, so without this every save also
+# --- rewrote and locked the applicant's account row. A trigger's WHEN clause can only refer to
+# --- OLD and NEW in update triggers, so inserts and deletes get a trigger of their own.
+# --- Semicolons inside the function bodies are escaped as ;; for the evolutions parser.
+
+# --- !Ups
+drop trigger if exists applicants_update_account_display_name on applicants;
+
+create or replace function update_account_display_name() returns trigger as $$
+declare
+  display_name_now varchar;;
+begin
+  if tg_op <> 'INSERT' and old.account_id is not null then
+    display_name_now := account_display_name(old.account_id);;
+    update accounts set display_name = display_name_now
+      where id = old.account_id and display_name is distinct from display_name_now;;
+  end if;;
+  if tg_op <> 'DELETE' and new.account_id is not null then
+    display_name_now := account_display_name(new.account_id);;
+    update accounts set display_name = display_name_now
+      where id = new.account_id and display_name is distinct from display_name_now;;
+  end if;;
+  return null;;
+end;;
+$$ language plpgsql;
+
+create trigger applicants_insert_or_delete_update_account_display_name
+  after insert or delete on applicants
+  for each row execute procedure update_account_display_name();
+
+create trigger applicants_update_update_account_display_name
+  after update of object, account_id, when_created on applicants
+  for each row
+  when (old.object #> '{applicant,name}' is distinct from new.object #> '{applicant,name}'
+    or old.account_id is distinct from new.account_id
+    or old.when_created is distinct from new.when_created)
+  execute procedure update_account_display_name();
+
+# --- !Downs
+drop trigger if exists applicants_update_update_account_display_name on applicants;
+drop trigger if exists applicants_insert_or_delete_update_account_display_name on applicants;
+
+create or replace function update_account_display_name() returns trigger as $$
+begin
+  if tg_op <> 'INSERT' and old.account_id is not null then
+    update accounts set display_name = account_display_name(old.account_id) where id = old.account_id;;
+  end if;;
+  if tg_op <> 'DELETE' and new.account_id is not null then
+    update accounts set display_name = account_display_name(new.account_id) where id = new.account_id;;
+  end if;;
+  return null;;
+end;;
+$$ language plpgsql;
+
+create trigger applicants_update_account_display_name
+  after insert or delete or update of object, account_id, when_created on applicants
+  for each row execute procedure update_account_display_name();
@@ -0,0 +1,8 @@
+# --- Index applications by program and id, so the admin application list can seek to a page by
+# --- the id of the application before it instead of skipping over every earlier row.
+
+# --- !Ups
+create index idx_applications_program_id on applications (program_id, id);
+
+# --- !Downs
+drop index if exists idx_applications_program_id;
@@ -3,6 +3,7 @@ package auth;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
+import java.util.Locale;
 import java.util.concurrent.ExecutionException;
 import javax.inject.Provider;
 import org.junit.Before;
@@ -10,6 +11,8 @@ import org.junit.Test;
 import org.pac4j.oidc.profile.OidcProfile;
 import repository.UserRepository;
 import repository.WithPostgresContainer;
+import services.WellKnownPaths;
+import services.applicant.ApplicantData;
 
 public class ProfileMergeTest extends WithPostgresContainer {
 
@@ -74,4 +77,21 @@ public class ProfileMergeTest extends WithPostgresContainer {
                     profileFactory.wrapProfileData(profileData), conflictingProfile))
         .hasCauseInstanceOf(ProfileMergeConflictException.class);
   }
+
+  @Test
+  public void mergeUatProfile_savesLocaleAndDisplayNameTogether() {
+    OidcProfile oidcProfile = new OidcProfile();
+    oidcProfile.addAttribute("user_emailid", "foo@example.com");
+    oidcProfile.addAttribute("user_locale", "es-US");
+    oidcProfile.addAttribute("user_displayname", "Alice Appleton");
+
+    UatProfileData profileData = profileAdapter.uatProfileFromOidcProfile(oidcProfile);
+
+    ApplicantData applicantData =
+        profileFactory.wrapProfileData(profileData).getApplicant().join().getApplicantData();
+    assertThat(applicantData.preferredLocale()).isEqualTo(Locale.forLanguageTag("es-US"));
+    assertThat(applicantData.readString(WellKnownPaths.APPLICANT_FIRST_NAME)).hasValue("Alice");
+    assertThat(applicantData.readString(WellKnownPaths.APPLICANT_LAST_NAME))
+        .hasValue("Appleton");
+  }
 }
@@ -1,5 +1,6 @@
 package auth;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.assertj.core.api.Assertions.fail;
 
@@ -7,9 +8,11 @@ import com.google.common.collect.ImmutableList;
 import java.util.concurrent.CompletionException;
 import models.Account;
 import models.Applicant;
+import models.TrustedIntermediaryGroup;
 import org.junit.Before;
 import org.junit.Test;
 import repository.WithPostgresContainer;
+import services.Path;
 
 public class UatProfileTest extends WithPostgresContainer {
 
@@ -41,6 +44,21 @@ public class UatProfileTest extends WithPostgresContainer {
     profile.checkAuthorization(profile.getApplicant().get().id).join();
   }
 
+  @Test
+  public void getApplicant_loadsNewApplicantEachTime() {
+    UatProfileData data = profileFactory.createNewApplicant();
+    UatProfile profile = profileFactory.wrapProfileData(data);
+    Applicant applicant = profile.getApplicant().join();
+
+    applicant.getApplicantData().putString(Path.create("applicant.color"), "blue");
+    applicant.save();
+
+    Applicant reloaded = profile.getApplicant().join();
+    assertThat(reloaded).isNotSameAs(applicant);
+    assertThat(reloaded.getApplicantData().readString(Path.create("applicant.color")))
+        .hasValue("blue");
+  }
+
   @Test
   public void checkAuthorization_passesForOneOfSeveralIdsInAccount() {
     // We need to save these first so that the IDs are populated.
@@ -64,6 +82,30 @@ public class UatProfileTest extends WithPostgresContainer {
     profile.checkAuthorization(two.id).join();
   }
 
+  @Test
+  public void checkAuthorization_trustedIntermediary_passesOnlyForManagedApplicants() {
+    TrustedIntermediaryGroup tiGroup = new TrustedIntermediaryGroup("org", "an org");
+    tiGroup.save();
+    Account ti = resourceCreator.insertAccount();
+    ti.setMemberOfGroup(tiGroup);
+    ti.save();
+    Account managed = resourceCreator.insertAccount();
+    managed.setManagedByGroup(tiGroup);
+    managed.save();
+    Applicant managedApplicant = resourceCreator.insertApplicant();
+    managedApplicant.setAccount(managed);
+    managedApplicant.save();
+    Applicant otherApplicant = resourceCreator.insertApplicant();
+    otherApplicant.setAccount(resourceCreator.insertAccount());
+    otherApplicant.save();
+
+    UatProfile profile = profileFactory.wrap(ti);
+
+    profile.checkAuthorization(managedApplicant.id).join();
+    assertThatThrownBy(() -> profile.checkAuthorization(otherApplicant.id).join())
+        .hasCauseInstanceOf(SecurityException.class);
+  }
+
   @Test
   public void checkAuthorization_fails() {
     UatProfileData data = profileFactory.createNewApplicant();
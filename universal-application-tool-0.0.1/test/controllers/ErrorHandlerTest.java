@@ -0,0 +1,43 @@
+package controllers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static play.mvc.Http.Status.INTERNAL_SERVER_ERROR;
+import static play.mvc.Http.Status.SERVICE_UNAVAILABLE;
+import static play.test.Helpers.fakeRequest;
+
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import org.junit.Test;
+import play.http.HttpErrorHandler;
+import play.mvc.Http;
+import play.mvc.Result;
+import repository.WithPostgresContainer;
+
+public class ErrorHandlerTest extends WithPostgresContainer {
+
+  @Test
+  public void onServerError_rejectedExecution_isServiceUnavailable() {
+    Result result =
+        instanceOf(HttpErrorHandler.class)
+            .onServerError(
+                fakeRequest().build(),
+                new RuntimeException(
+                    new CompletionException(new RejectedExecutionException("full"))))
+            .toCompletableFuture()
+            .join();
+
+    assertThat(result.status()).isEqualTo(SERVICE_UNAVAILABLE);
+    assertThat(result.header(Http.HeaderNames.RETRY_AFTER)).hasValue("5");
+  }
+
+  @Test
+  public void onServerError_otherException_isInternalServerError() {
+    Result result =
+        instanceOf(HttpErrorHandler.class)
+            .onServerError(fakeRequest().build(), new IllegalStateException("broken"))
+            .toCompletableFuture()
+            .join();
+
+    assertThat(result.status()).isEqualTo(INTERNAL_SERVER_ERROR);
+  }
+}
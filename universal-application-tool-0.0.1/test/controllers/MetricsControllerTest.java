@@ -0,0 +1,58 @@
+package controllers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static play.mvc.Http.Status.OK;
+import static play.mvc.Http.Status.UNAUTHORIZED;
+import static play.test.Helpers.contentAsString;
+import static play.test.Helpers.fakeRequest;
+import static play.test.Helpers.route;
+
+import org.junit.Test;
+import play.mvc.Http;
+import play.mvc.Result;
+import repository.ApplicationRepository;
+import repository.WithPostgresContainer;
+
+public class MetricsControllerTest extends WithPostgresContainer {
+
+  @Test
+  public void index_exportsDispatcherAndApplicationMetrics() {
+    instanceOf(ApplicationRepository.class);
+    route(app, fakeRequest("GET", "/"));
+
+    Result result =
+        instanceOf(MetricsController.class)
+            .index(
+                fakeRequest()
+                    .header(Http.HeaderNames.AUTHORIZATION, "Bearer test-metrics-token")
+                    .build());
+
+    assertThat(result.status()).isEqualTo(OK);
+    String metrics = contentAsString(result);
+    assertThat(metrics)
+        .contains("database_dispatcher_queued_tasks{dispatcher=\"database.dispatcher\"")
+        .contains("database_dispatcher_active_tasks{dispatcher=\"database.export-dispatcher\"")
+        .contains("application_submit_seconds_count")
+        .contains(
+            "http_server_requests_database_statements_count{method=\"GET\",route=\"/\",");
+  }
+
+  @Test
+  public void index_withoutBearerToken_isUnauthorized() {
+    Result result = instanceOf(MetricsController.class).index(fakeRequest().build());
+
+    assertThat(result.status()).isEqualTo(UNAUTHORIZED);
+  }
+
+  @Test
+  public void index_withWrongBearerToken_isUnauthorized() {
+    Result result =
+        instanceOf(MetricsController.class)
+            .index(
+                fakeRequest()
+                    .header(Http.HeaderNames.AUTHORIZATION, "Bearer not-the-token")
+                    .build());
+
+    assertThat(result.status()).isEqualTo(UNAUTHORIZED);
+  }
+}
@@ -174,7 +174,7 @@ public class AdminProgramBlocksControllerTest extends WithPostgresContainer {
 
   @Test
   public void destroy_withInvalidProgram_notFound() {
-    Result result = controller.destroy(1L, 1L);
+    Result result = controller.destroy(1L, 1L).toCompletableFuture().join();
 
     assertThat(result.status()).isEqualTo(NOT_FOUND);
   }
@@ -182,7 +182,7 @@ public class AdminProgramBlocksControllerTest extends WithPostgresContainer {
   @Test
   public void destroy_programWithTwoBlocks_redirects() {
     Program program = ProgramBuilder.newDraftProgram().withBlock().withBlock().build();
-    Result result = controller.destroy(program.id, 1L);
+    Result result = controller.destroy(program.id, 1L).toCompletableFuture().join();
 
     assertThat(result.status()).isEqualTo(SEE_OTHER);
     assertThat(result.redirectLocation())
@@ -192,7 +192,7 @@ public class AdminProgramBlocksControllerTest extends WithPostgresContainer {
   @Test
   public void destroy_lastBlock_notFound() {
     Program program = ProgramBuilder.newDraftProgram().build();
-    Result result = controller.destroy(program.id, 1L);
+    Result result = controller.destroy(program.id, 1L).toCompletableFuture().join();
 
     assertThat(result.status()).isEqualTo(NOT_FOUND);
   }
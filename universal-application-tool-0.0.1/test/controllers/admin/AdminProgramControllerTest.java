@@ -157,7 +157,7 @@ public class AdminProgramControllerTest extends WithPostgresContainer {
             .bodyForm(ImmutableMap.of("name", "name", "description", "description"))
             .build();
 
-    Result result = controller.update(request, 1L);
+    Result result = controller.update(request, 1L).toCompletableFuture().join();
 
     assertThat(result.status()).isEqualTo(NOT_FOUND);
   }
@@ -170,7 +170,7 @@ public class AdminProgramControllerTest extends WithPostgresContainer {
             .bodyForm(ImmutableMap.of("name", "", "description", ""))
             .build();
 
-    Result result = controller.update(request, program.id);
+    Result result = controller.update(request, program.id).toCompletableFuture().join();
 
     assertThat(result.status()).isEqualTo(OK);
     assertThat(contentAsString(result)).contains("Edit program");
@@ -192,7 +192,11 @@ public class AdminProgramControllerTest extends WithPostgresContainer {
                     "localizedDisplayDescription",
                     "test"));
 
-    Result result = controller.update(addCSRFToken(requestBuilder).build(), program.id);
+    Result result =
+        controller
+            .update(addCSRFToken(requestBuilder).build(), program.id)
+            .toCompletableFuture()
+            .join();
 
     assertThat(result.status()).isEqualTo(SEE_OTHER);
     assertThat(result.redirectLocation()).hasValue(routes.AdminProgramController.index().url());
@@ -0,0 +1,59 @@
+package repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import models.Account;
+import models.Applicant;
+import org.junit.Before;
+import org.junit.Test;
+import repository.AccountCache.CachedAccount;
+import services.Path;
+
+public class AccountCacheTest extends WithPostgresContainer {
+
+  private AccountCache accountCache;
+
+  @Before
+  public void setUp() {
+    accountCache = instanceOf(AccountCache.class);
+  }
+
+  @Test
+  public void getAccount_missingAccount_isEmpty() {
+    assertThat(accountCache.getAccount(Long.MAX_VALUE)).isEmpty();
+  }
+
+  @Test
+  public void getAccount_returnsCachedAccountUntilInvalidated() {
+    Account account = new Account();
+    account.setEmailAddress("first@example.com");
+    account.save();
+    CachedAccount cached = accountCache.getAccount(account.id).get();
+
+    account.setEmailAddress("second@example.com");
+    account.save();
+
+    assertThat(accountCache.getAccount(account.id).get()).isSameAs(cached);
+    assertThat(cached.emailAddress()).hasValue("first@example.com");
+
+    accountCache.invalidate(account.id);
+
+    assertThat(accountCache.getAccount(account.id).get().emailAddress())
+        .hasValue("second@example.com");
+  }
+
+  @Test
+  public void updateApplicant_invalidatesAccountOfApplicant() {
+    Account account = new Account();
+    account.save();
+    Applicant applicant = new Applicant();
+    applicant.setAccount(account);
+    applicant.save();
+    CachedAccount cached = accountCache.getAccount(account.id).get();
+
+    applicant.getApplicantData().putString(Path.create("applicant.color"), "blue");
+    instanceOf(UserRepository.class).updateApplicant(applicant).toCompletableFuture().join();
+
+    assertThat(accountCache.getAccount(account.id).get()).isNotSameAs(cached);
+  }
+}
@@ -0,0 +1,22 @@
+package repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Test;
+
+public class ApplicationCursorTest {
+
+  @Test
+  public void decode_returnsEncodedCursor() {
+    ApplicationCursor cursor = ApplicationCursor.create(42L);
+
+    assertThat(ApplicationCursor.decode(cursor.encode())).contains(cursor);
+  }
+
+  @Test
+  public void decode_invalidCursor_isEmpty() {
+    assertThat(ApplicationCursor.decode("not a cursor")).isEmpty();
+    assertThat(ApplicationCursor.decode("bm90IGEgY3Vyc29y")).isEmpty();
+    assertThat(ApplicationCursor.decode("")).isEmpty();
+  }
+}
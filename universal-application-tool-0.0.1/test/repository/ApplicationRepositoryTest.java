@@ -2,7 +2,9 @@ package repository;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import com.google.common.collect.ImmutableList;
 import java.time.Instant;
+import java.util.Optional;
 import models.Applicant;
 import models.Application;
 import models.LifecycleStage;
@@ -51,6 +53,28 @@ public class ApplicationRepositoryTest extends WithPostgresContainer {
         .isEqualTo(LifecycleStage.DELETED);
   }
 
+  @Test
+  public void submitApplication_retiresApplicationsToOtherVersionsOfProgram() {
+    Applicant applicant = saveApplicant("Alice");
+    Program oldVersion = saveProgram("Program");
+    Program newVersion = saveProgram("Program");
+    Program otherProgram = saveProgram("OtherProgram");
+
+    Application oldApplication =
+        repo.submitApplication(applicant, oldVersion).toCompletableFuture().join();
+    Application otherApplication =
+        repo.submitApplication(applicant, otherProgram).toCompletableFuture().join();
+    Application draft =
+        repo.createOrUpdateDraft(applicant, newVersion).toCompletableFuture().join();
+    Application newApplication =
+        repo.submitApplication(applicant, newVersion).toCompletableFuture().join();
+
+    assertThat(lifecycleStageOf(oldApplication)).isEqualTo(LifecycleStage.OBSOLETE);
+    assertThat(lifecycleStageOf(draft)).isEqualTo(LifecycleStage.DELETED);
+    assertThat(lifecycleStageOf(newApplication)).isEqualTo(LifecycleStage.ACTIVE);
+    assertThat(lifecycleStageOf(otherApplication)).isEqualTo(LifecycleStage.ACTIVE);
+  }
+
   @Test
   public void createOrUpdateDraftApplication_updatesExistingDraft() {
     Applicant applicant = saveApplicant("Alice");
@@ -65,6 +89,108 @@ public class ApplicationRepositoryTest extends WithPostgresContainer {
     assertThat(applicationTwo.getSubmitTime()).isAfter(initialSubmitTime);
   }
 
+  @Test
+  public void getApplicationsAfter_seeksToCursorInIdOrder() {
+    Program program = saveProgram("Program");
+    Application first = submitApplication("Alice", "Appleton", program);
+    Application second = submitApplication("Bob", "Bobson", program);
+    Application third = submitApplication("Carol", "Carlson", program);
+    submitApplication("Dave", "Davis", saveProgram("OtherProgram"));
+
+    ImmutableList<Application> firstPage =
+        repo.getApplicationsAfter(program.id, Optional.empty(), Optional.empty(), 2)
+            .toCompletableFuture()
+            .join();
+    assertThat(firstPage).containsExactly(first, second);
+    ImmutableList<Application> secondPage =
+        repo.getApplicationsAfter(
+                program.id,
+                Optional.empty(),
+                Optional.of(ApplicationCursor.of(firstPage.get(1))),
+                2)
+            .toCompletableFuture()
+            .join();
+    assertThat(secondPage).containsExactly(third);
+    assertThat(
+            repo.getApplicationsBefore(
+                    program.id, Optional.empty(), ApplicationCursor.of(secondPage.get(0)), 2)
+                .toCompletableFuture()
+                .join())
+        .containsExactly(first, second);
+    assertThat(
+            repo.getApplicationsBefore(
+                    program.id, Optional.empty(), ApplicationCursor.of(secondPage.get(0)), 1)
+                .toCompletableFuture()
+                .join())
+        .containsExactly(second);
+  }
+
+  @Test
+  public void getApplicationsAfter_updatedApplication_keepsItsPlace() {
+    Program program = saveProgram("Program");
+    Application first = submitApplication("Alice", "Appleton", program);
+    Application second = submitApplication("Bob", "Bobson", program);
+    Application third = submitApplication("Carol", "Carlson", program);
+
+    ImmutableList<Application> firstPage =
+        repo.getApplicationsAfter(program.id, Optional.empty(), Optional.empty(), 2)
+            .toCompletableFuture()
+            .join();
+    // Updating an application changes its submit time, but not its place in the list.
+    first.setLifecycleStage(LifecycleStage.OBSOLETE);
+    first.save();
+
+    assertThat(firstPage).containsExactly(first, second);
+    assertThat(
+            repo.getApplicationsAfter(
+                    program.id,
+                    Optional.empty(),
+                    Optional.of(ApplicationCursor.of(firstPage.get(1))),
+                    2)
+                .toCompletableFuture()
+                .join())
+        .containsExactly(third);
+  }
+
+  @Test
+  public void getApplicationsAfter_withSearch_matchesApplicantNameIgnoringCase() {
+    Program program = saveProgram("Program");
+    Application alice = submitApplication("Alice", "Appleton", program);
+    submitApplication("Bob", "Bobson", program);
+    Application carol = submitApplication("Carol", "Apple", program);
+
+    assertThat(
+            repo.getApplicationsAfter(program.id, Optional.of("APPLE"), Optional.empty(), 10)
+                .toCompletableFuture()
+                .join())
+        .containsExactly(alice, carol);
+    assertThat(
+            repo.getApplicationsAfter(program.id, Optional.of("appleton, al"), Optional.empty(), 10)
+                .toCompletableFuture()
+                .join())
+        .containsExactly(alice);
+    assertThat(
+            repo.getApplicationsAfter(program.id, Optional.of("%"), Optional.empty(), 10)
+                .toCompletableFuture()
+                .join())
+        .isEmpty();
+  }
+
+  private Application submitApplication(String firstName, String lastName, Program program) {
+    Applicant applicant = new Applicant();
+    applicant.getApplicantData().setUserName(firstName, null, lastName);
+    applicant.save();
+    return repo.submitApplication(applicant, program).toCompletableFuture().join();
+  }
+
+  private LifecycleStage lifecycleStageOf(Application application) {
+    return repo.getApplication(application.id)
+        .toCompletableFuture()
+        .join()
+        .get()
+        .getLifecycleStage();
+  }
+
   private Applicant saveApplicant(String name) {
     Applicant applicant = new Applicant();
     applicant.getApplicantData().putString(Path.create("$.applicant.name"), name);
@@ -0,0 +1,50 @@
+package repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.ebean.Ebean;
+import io.ebean.EbeanServer;
+import models.Program;
+import org.junit.Test;
+import play.db.ebean.EbeanConfig;
+import support.ProgramBuilder;
+
+public class DatabaseStatementCountTest extends WithPostgresContainer {
+
+  @Test
+  public void call_countsOrmAndRawSqlStatements() {
+    EbeanServer ebeanServer = Ebean.getServer(instanceOf(EbeanConfig.class).defaultServer());
+    Program program = ProgramBuilder.newActiveProgram().build();
+    DatabaseStatementCount count = new DatabaseStatementCount();
+
+    count.call(() -> ebeanServer.find(Program.class).setId(program.id).findOneOrEmpty());
+    int afterQuery = count.get();
+    assertThat(afterQuery).isGreaterThan(0);
+
+    count.call(() -> ebeanServer.sqlQuery("SELECT 1 AS one").findOne());
+    assertThat(count.get()).isEqualTo(afterQuery + 1);
+  }
+
+  @Test
+  public void call_countsWorkHandedToDatabaseExecutionContext() {
+    ProgramRepository repo = instanceOf(ProgramRepository.class);
+    Program program = ProgramBuilder.newActiveProgram().build();
+    DatabaseStatementCount count = new DatabaseStatementCount();
+
+    count.call(() -> repo.lookupProgram(program.id)).toCompletableFuture().join();
+
+    assertThat(count.get()).isGreaterThan(0);
+  }
+
+  @Test
+  public void statementsOutsideOfCall_areNotCounted() {
+    ProgramRepository repo = instanceOf(ProgramRepository.class);
+    Program program = ProgramBuilder.newActiveProgram().build();
+    DatabaseStatementCount count = new DatabaseStatementCount();
+
+    repo.lookupProgram(program.id).toCompletableFuture().join();
+
+    assertThat(count.get()).isEqualTo(0);
+    assertThat(DatabaseStatementCount.current()).isEmpty();
+  }
+}
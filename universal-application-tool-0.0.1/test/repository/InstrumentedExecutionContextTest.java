@@ -0,0 +1,93 @@
+package repository;
+
+import static java.util.concurrent.CompletableFuture.runAsync;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import org.junit.Test;
+
+public class InstrumentedExecutionContextTest extends WithPostgresContainer {
+
+  @Test
+  public void dispatchers_haveSeparateConfiguredPools() {
+    InstrumentedExecutionContext applicant = instanceOf(DatabaseExecutionContext.class);
+    InstrumentedExecutionContext admin = instanceOf(AdminDatabaseExecutionContext.class);
+    InstrumentedExecutionContext export = instanceOf(ExportDatabaseExecutionContext.class);
+
+    assertThat(applicant.getName()).isEqualTo("database.dispatcher");
+    assertThat(applicant.getPoolSize()).isEqualTo(9);
+    assertThat(admin.getPoolSize()).isEqualTo(2);
+    assertThat(admin.getQueueCapacity()).isEqualTo(100);
+    assertThat(export.getPoolSize()).isEqualTo(2);
+    assertThat(export.getQueueCapacity()).isEqualTo(10);
+  }
+
+  @Test
+  public void execute_countsQueuedAndActiveTasks() throws Exception {
+    InstrumentedExecutionContext export = instanceOf(ExportDatabaseExecutionContext.class);
+    CountDownLatch started = new CountDownLatch(2);
+    CountDownLatch release = new CountDownLatch(1);
+    Runnable blockingTask =
+        () -> {
+          started.countDown();
+          try {
+            release.await();
+          } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+          }
+        };
+
+    // The pool has two threads, so the third task has to wait for one of them.
+    CompletableFuture<Void> first = runAsync(blockingTask, export);
+    CompletableFuture<Void> second = runAsync(blockingTask, export);
+    started.await();
+    CompletableFuture<Void> third = runAsync(() -> {}, export);
+
+    assertThat(export.getActiveTaskCount()).isEqualTo(2);
+    assertThat(export.getQueuedTaskCount()).isEqualTo(1);
+
+    release.countDown();
+    CompletableFuture.allOf(first, second, third).join();
+
+    assertThat(export.getQueuedTaskCount()).isEqualTo(0);
+    assertThat(export.getRejectedSubmissionCount()).isEqualTo(0);
+  }
+
+  @Test
+  public void execute_queueFull_rejectsTasks() throws Exception {
+    InstrumentedExecutionContext export = instanceOf(ExportDatabaseExecutionContext.class);
+    CountDownLatch started = new CountDownLatch(2);
+    CountDownLatch release = new CountDownLatch(1);
+    Runnable blockingTask =
+        () -> {
+          started.countDown();
+          try {
+            release.await();
+          } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+          }
+        };
+    List<CompletableFuture<Void>> tasks = new ArrayList<>();
+    tasks.add(runAsync(blockingTask, export));
+    tasks.add(runAsync(blockingTask, export));
+    started.await();
+    for (int i = 0; i < export.getQueueCapacity(); i++) {
+      tasks.add(runAsync(() -> {}, export));
+    }
+
+    // Both threads are busy and the queue is full, so the task is rejected rather than run here.
+    assertThatThrownBy(() -> runAsync(() -> {}, export))
+        .isInstanceOf(RejectedExecutionException.class);
+    assertThat(export.getRejectedSubmissionCount()).isEqualTo(1);
+    assertThat(export.getQueuedTaskCount()).isEqualTo(export.getQueueCapacity());
+
+    release.countDown();
+    CompletableFuture.allOf(tasks.toArray(new CompletableFuture[0])).join();
+    assertThat(export.getQueuedTaskCount()).isEqualTo(0);
+  }
+}
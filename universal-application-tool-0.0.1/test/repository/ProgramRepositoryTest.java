@@ -1,6 +1,7 @@
 package repository;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 import io.ebean.DB;
 import java.util.Locale;
@@ -89,6 +90,28 @@ public class ProgramRepositoryTest extends WithPostgresContainer {
     assertThat(found.getProgramDefinition().adminDescription()).isEqualTo("Description");
   }
 
+  @Test
+  public void getForSlug_draftProgram_notFound() {
+    resourceCreator.insertDraftProgram("Only A Draft");
+
+    assertThatThrownBy(() -> repo.getForSlug("only-a-draft").toCompletableFuture().join())
+        .hasCauseInstanceOf(RuntimeException.class)
+        .hasRootCauseInstanceOf(ProgramNotFoundException.class);
+  }
+
+  @Test
+  public void getForSlug_afterPublish_findsPublishedProgram() {
+    resourceCreator.insertActiveProgram("First Program");
+    assertThat(repo.getForSlug("first-program").toCompletableFuture().join()).isNotNull();
+
+    Program draft = resourceCreator.insertDraftProgram("Second Program");
+    versionRepo.publishNewSynchronizedVersion();
+
+    Program found = repo.getForSlug("second-program").toCompletableFuture().join();
+
+    assertThat(found.id).isEqualTo(draft.id);
+  }
+
   @Test
   public void getForSlug_findsCorrectProgram() {
     Program program = resourceCreator.insertActiveProgram("Something With A Name");
@@ -1,14 +1,26 @@
 package repository;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
+import com.google.common.collect.ImmutableList;
+import io.ebean.Ebean;
+import java.util.Locale;
 import java.util.Optional;
 import java.util.Set;
+import javax.persistence.OptimisticLockException;
 import models.Account;
 import models.Applicant;
+import models.Application;
+import models.LifecycleStage;
+import models.Program;
+import models.TrustedIntermediaryGroup;
 import org.junit.Before;
 import org.junit.Test;
+import play.db.ebean.EbeanConfig;
 import services.Path;
+import services.WellKnownPaths;
+import services.applicant.ApplicantData;
 import services.program.ProgramDefinition;
 import support.ProgramBuilder;
 
@@ -84,6 +96,99 @@ public class UserRepositoryTest extends WithPostgresContainer {
     assertThat(a.getApplicantData().readString(Path.create(path))).hasValue("1/1/2021");
   }
 
+  @Test
+  public void updateApplicant_onlyWritesChangedPaths() {
+    Applicant applicant = saveApplicantWithHousehold();
+    Applicant loaded = repo.lookupApplicant(applicant.id).toCompletableFuture().join().get();
+
+    loaded.getApplicantData().putString(Path.create("applicant.color"), "blue");
+    loaded.getApplicantData().putString(Path.create("applicant.household[1].name"), "Carol");
+    loaded.getApplicantData().putString(Path.create("applicant.household[3].name"), "Dave");
+    loaded.getApplicantData().setPreferredLocale(Locale.FRENCH);
+    repo.updateApplicant(loaded).toCompletableFuture().join();
+
+    ApplicantData saved =
+        repo.lookupApplicant(applicant.id).toCompletableFuture().join().get().getApplicantData();
+    assertThat(saved.readString(Path.create("applicant.color"))).hasValue("blue");
+    assertThat(saved.readString(Path.create("applicant.household[0].name"))).hasValue("Alice");
+    assertThat(saved.readString(Path.create("applicant.household[1].name"))).hasValue("Carol");
+    assertThat(saved.readString(Path.create("applicant.household[3].name"))).hasValue("Dave");
+    assertThat(saved.readString(Path.create("applicant.notes_7"))).hasValue("some note 7");
+    assertThat(saved.preferredLocale()).isEqualTo(Locale.FRENCH);
+  }
+
+  @Test
+  public void updateApplicant_sameApplicantTwice_writesBothUpdates() {
+    Applicant applicant = saveApplicantWithHousehold();
+    Applicant loaded = repo.lookupApplicant(applicant.id).toCompletableFuture().join().get();
+
+    loaded.getApplicantData().putString(Path.create("applicant.color"), "blue");
+    repo.updateApplicant(loaded).toCompletableFuture().join();
+    loaded.getApplicantData().putString(Path.create("applicant.household[0].name"), "Alicia");
+    repo.updateApplicant(loaded).toCompletableFuture().join();
+    // This value is longer than the stored document, so the whole document is written.
+    loaded.getApplicantData().putString(Path.create("applicant.notes_0"), "note".repeat(1000));
+    repo.updateApplicant(loaded).toCompletableFuture().join();
+
+    Applicant saved = repo.lookupApplicant(applicant.id).toCompletableFuture().join().get();
+    assertThat(saved.getVersion()).isEqualTo(loaded.getVersion());
+    assertThat(saved.getApplicantData().readString(Path.create("applicant.color")))
+        .hasValue("blue");
+    assertThat(saved.getApplicantData().readString(Path.create("applicant.household[0].name")))
+        .hasValue("Alicia");
+    assertThat(saved.getApplicantData().readString(Path.create("applicant.notes_0")))
+        .hasValue("note".repeat(1000));
+  }
+
+  @Test
+  public void updateApplicant_updatedSinceLoaded_throwsOptimisticLockException() {
+    Applicant applicant = saveApplicantWithHousehold();
+    Applicant first = repo.lookupApplicant(applicant.id).toCompletableFuture().join().get();
+    Applicant second = repo.lookupApplicant(applicant.id).toCompletableFuture().join().get();
+
+    first.getApplicantData().putString(Path.create("applicant.color"), "blue");
+    repo.updateApplicant(first).toCompletableFuture().join();
+    second.getApplicantData().putString(Path.create("applicant.color"), "red");
+
+    assertThatThrownBy(() -> repo.updateApplicant(second).toCompletableFuture().join())
+        .hasCauseInstanceOf(OptimisticLockException.class);
+    ApplicantData saved =
+        repo.lookupApplicant(applicant.id).toCompletableFuture().join().get().getApplicantData();
+    assertThat(saved.readString(Path.create("applicant.color"))).hasValue("blue");
+  }
+
+  @Test
+  public void updateApplicant_fullWriteUpdatedSinceLoaded_throwsOptimisticLockException() {
+    Applicant applicant = saveApplicantWithHousehold();
+    Applicant first = repo.lookupApplicant(applicant.id).toCompletableFuture().join().get();
+    Applicant second = repo.lookupApplicant(applicant.id).toCompletableFuture().join().get();
+
+    first.getApplicantData().putString(Path.create("applicant.color"), "blue");
+    repo.updateApplicant(first).toCompletableFuture().join();
+    // This value is longer than the stored document, so the whole document is written.
+    second.getApplicantData().putString(Path.create("applicant.color"), "red".repeat(1000));
+
+    assertThatThrownBy(() -> repo.updateApplicant(second).toCompletableFuture().join())
+        .hasCauseInstanceOf(OptimisticLockException.class);
+  }
+
+  @Test
+  public void updateApplicant_deletedEntities_areDeleted() {
+    Applicant applicant = saveApplicantWithHousehold();
+    Applicant loaded = repo.lookupApplicant(applicant.id).toCompletableFuture().join().get();
+
+    loaded
+        .getApplicantData()
+        .deleteRepeatedEntities(Path.create("applicant.household[]"), ImmutableList.of(0));
+    repo.updateApplicant(loaded).toCompletableFuture().join();
+
+    ApplicantData saved =
+        repo.lookupApplicant(applicant.id).toCompletableFuture().join().get().getApplicantData();
+    assertThat(saved.readString(Path.create("applicant.household[0].name"))).hasValue("Bob");
+    assertThat(saved.readString(Path.create("applicant.household[1].name"))).hasValue("Eve");
+    assertThat(saved.hasPath(Path.create("applicant.household[2]"))).isFalse();
+  }
+
   @Test
   public void lookupApplicantSync_returnsEmptyOptionalWhenApplicantNotFound() {
     Optional<Applicant> found = repo.lookupApplicantSync(1L);
@@ -175,10 +280,129 @@ public class UserRepositoryTest extends WithPostgresContainer {
         .doesNotContain(programName);
   }
 
+  @Test
+  public void programsForApplicant_includesActiveProgramsAndDraftApplicationPrograms() {
+    Applicant applicant = saveApplicant("Alice");
+    ProgramDefinition active = ProgramBuilder.newActiveProgram("active").buildDefinition();
+    Program draft = ProgramBuilder.newDraftProgram("draft").build();
+    new Application(applicant, draft, LifecycleStage.DRAFT).save();
+
+    ImmutableList<ProgramDefinition> programs =
+        repo.programsForApplicant(applicant.id).toCompletableFuture().join();
+
+    assertThat(programs.stream().map(ProgramDefinition::id))
+        .containsExactly(active.id(), draft.id);
+  }
+
+  @Test
+  public void programsForApplicant_programAddedToActiveVersion_isIncluded() {
+    Applicant applicant = saveApplicant("Alice");
+    ProgramDefinition first = ProgramBuilder.newActiveProgram("first").buildDefinition();
+    assertThat(repo.programsForApplicant(applicant.id).toCompletableFuture().join()).hasSize(1);
+
+    ProgramDefinition second = ProgramBuilder.newActiveProgram("second").buildDefinition();
+    ImmutableList<ProgramDefinition> programs =
+        repo.programsForApplicant(applicant.id).toCompletableFuture().join();
+
+    assertThat(programs.stream().map(ProgramDefinition::id))
+        .containsExactlyInAnyOrder(first.id(), second.id());
+  }
+
+  @Test
+  public void getManagedAccounts_pagesThroughAccountsSortedByName() {
+    TrustedIntermediaryGroup tiGroup = repo.createNewTrustedIntermediaryGroup("org", "an org");
+    Account carol = saveManagedAccount(tiGroup, "Carol Chen");
+    Account alice = saveManagedAccount(tiGroup, "Alice Adams");
+    Account bob = saveManagedAccount(tiGroup, "Bob Brown");
+    TrustedIntermediaryGroup otherGroup = repo.createNewTrustedIntermediaryGroup("other", "other");
+    saveManagedAccount(otherGroup, "Aaron Aardvark");
+
+    ImmutableList<Account> firstPage =
+        repo.getManagedAccountsAfter(tiGroup.id, Optional.empty(), Optional.empty(), 2);
+    ImmutableList<Account> secondPage =
+        repo.getManagedAccountsAfter(tiGroup.id, Optional.empty(), Optional.of(bob.id), 2);
+    ImmutableList<Account> previousPage =
+        repo.getManagedAccountsBefore(tiGroup.id, Optional.empty(), carol.id, 2);
+
+    assertThat(firstPage).containsExactly(alice, bob);
+    assertThat(firstPage.get(0).getDisplayName()).isEqualTo("Adams, Alice");
+    assertThat(secondPage).containsExactly(carol);
+    assertThat(previousPage).containsExactly(alice, bob);
+    assertThat(repo.countManagedAccounts(tiGroup.id, Optional.empty())).isEqualTo(3);
+  }
+
+  @Test
+  public void getManagedAccounts_withSearch_onlyIncludesMatchingNames() {
+    TrustedIntermediaryGroup tiGroup = repo.createNewTrustedIntermediaryGroup("org", "an org");
+    Account alice = saveManagedAccount(tiGroup, "Alice Adams");
+    saveManagedAccount(tiGroup, "Bob Brown");
+    Account carol = saveManagedAccount(tiGroup, "Carol Adamson");
+
+    ImmutableList<Account> accounts =
+        repo.getManagedAccountsAfter(tiGroup.id, Optional.of("adam"), Optional.empty(), 10);
+
+    assertThat(accounts).containsExactly(alice, carol);
+    assertThat(repo.countManagedAccounts(tiGroup.id, Optional.of("ADAM"))).isEqualTo(2);
+    assertThat(repo.countManagedAccounts(tiGroup.id, Optional.of("%"))).isEqualTo(0);
+  }
+
+  private Applicant saveApplicantWithHousehold() {
+    Applicant applicant = new Applicant();
+    ApplicantData applicantData = applicant.getApplicantData();
+    applicantData.putString(Path.create("applicant.household[0].name"), "Alice");
+    applicantData.putString(Path.create("applicant.household[1].name"), "Bob");
+    applicantData.putString(Path.create("applicant.household[2].name"), "Eve");
+    for (int i = 0; i < 20; i++) {
+      applicantData.putString(Path.create("applicant.notes_" + i), "some note " + i);
+    }
+    applicant.save();
+    return applicant;
+  }
+
   private Applicant saveApplicant(String name) {
     Applicant applicant = new Applicant();
     applicant.getApplicantData().putString(Path.create("$.applicant.name"), name);
     applicant.save();
     return applicant;
   }
+
+  @Test
+  public void updateApplicant_onlyUpdatesAccountWhenNameChanges() {
+    TrustedIntermediaryGroup tiGroup = repo.createNewTrustedIntermediaryGroup("org", "an org");
+    Account account = saveManagedAccount(tiGroup, "Alice Adams");
+    String accountRowVersion = accountRowVersion(account);
+
+    Applicant applicant = repo.lookupFirstApplicantSync(account.id).get();
+    applicant.getApplicantData().putString(Path.create("applicant.color"), "blue");
+    repo.updateApplicant(applicant).toCompletableFuture().join();
+
+    assertThat(accountRowVersion(account)).isEqualTo(accountRowVersion);
+
+    applicant = repo.lookupFirstApplicantSync(account.id).get();
+    applicant.getApplicantData().putString(WellKnownPaths.APPLICANT_FIRST_NAME, "Alicia");
+    repo.updateApplicant(applicant).toCompletableFuture().join();
+
+    account.refresh();
+    assertThat(account.getDisplayName()).isEqualTo("Adams, Alicia");
+  }
+
+  /** Returns the system column that changes whenever the account's row is written. */
+  private String accountRowVersion(Account account) {
+    return Ebean.getServer(instanceOf(EbeanConfig.class).defaultServer())
+        .sqlQuery("SELECT CAST(xmin AS text) AS row_version FROM accounts WHERE id = :id")
+        .setParameter("id", account.id)
+        .mapToScalar(String.class)
+        .findOne();
+  }
+
+  private Account saveManagedAccount(TrustedIntermediaryGroup tiGroup, String name) {
+    Account account = new Account();
+    account.setManagedByGroup(tiGroup);
+    account.save();
+    Applicant applicant = new Applicant();
+    applicant.getApplicantData().setUserName(name);
+    applicant.setAccount(account);
+    applicant.save();
+    return account;
+  }
 }
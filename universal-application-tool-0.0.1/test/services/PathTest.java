@@ -1,6 +1,7 @@
 package services;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 import org.junit.Test;
 import services.applicant.question.Scalar;
@@ -207,4 +208,48 @@ public class PathTest {
 
     assertThat(path.startsWith(other)).isFalse();
   }
+
+  @Test
+  public void create_returnsInternedInstance() {
+    Path path = Path.create("applicant.Children[2].name");
+
+    assertThat(path).isSameAs(Path.create("$.applicant.children[2].name"));
+    assertThat(path).isSameAs(Path.create("applicant").join("children[2]").join("name"));
+    assertThat(path.parentPath()).isSameAs(Path.create("applicant.children[2]"));
+  }
+
+  @Test
+  public void arrayAlgebra_returnsInternedInstances() {
+    Path element = Path.create("applicant.children[2]");
+
+    assertThat(element.atIndex(2)).isSameAs(element);
+    assertThat(element.atIndex(5)).isSameAs(Path.create("applicant.children[5]"));
+    assertThat(element.atIndex(1000)).isSameAs(Path.create("applicant.children[1000]"));
+    assertThat(element.withoutArrayReference()).isSameAs(Path.create("applicant.children"));
+    assertThat(element.withoutArrayReference().asArrayElement())
+        .isSameAs(Path.create("applicant.children[]"));
+  }
+
+  @Test
+  public void arrayIndex_indexTooLargeForInt_throws() {
+    Path path = Path.create("a.b[99999999999]");
+
+    assertThat(path.isArrayElement()).isTrue();
+    assertThatThrownBy(path::arrayIndex).isInstanceOf(IllegalStateException.class);
+  }
+
+  @Test
+  public void overlaps() {
+    Path path = Path.create("a.b[1].c");
+
+    assertThat(path.overlaps(path)).isTrue();
+    assertThat(path.overlaps(Path.create("a.b[]"))).isTrue();
+    assertThat(path.overlaps(Path.create("a.b"))).isTrue();
+    assertThat(path.overlaps(Path.create("a.b[1].c.d"))).isTrue();
+    assertThat(Path.create("a.b[].c.d").overlaps(path)).isTrue();
+    assertThat(path.overlaps(Path.empty())).isTrue();
+    assertThat(path.overlaps(Path.create("a.b[2]"))).isFalse();
+    assertThat(path.overlaps(Path.create("a.e"))).isFalse();
+    assertThat(path.overlaps(Path.create("a.b[1].d"))).isFalse();
+  }
 }
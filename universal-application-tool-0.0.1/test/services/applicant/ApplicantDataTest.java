@@ -4,6 +4,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
 import com.google.common.testing.EqualsTester;
 import java.util.Locale;
 import java.util.Optional;
@@ -95,6 +96,33 @@ public class ApplicantDataTest {
     assertThat(data.hasPath(Path.create("I_don't_exist!"))).isFalse();
   }
 
+  @Test
+  public void hasPath_returnsFalseForArrayIndexOutOfRange() {
+    ApplicantData data = new ApplicantData();
+    data.putString(Path.create("applicant.chores[0]"), "wash dishes");
+
+    assertThat(data.hasPath(Path.create("applicant.chores[1]"))).isFalse();
+    assertThat(data.hasPath(Path.create("applicant.chores[0].name"))).isFalse();
+  }
+
+  @Test
+  public void hasPath_returnsTrueForNull() {
+    ApplicantData data = new ApplicantData();
+    Path path = Path.create("applicant.horses");
+    data.putLong(path, "");
+
+    assertThat(data.hasPath(path)).isTrue();
+  }
+
+  @Test
+  public void readString_pathThatIsNotOnlyKeysAndIndices_usesJsonPath() {
+    ApplicantData data = new ApplicantData();
+    data.putString(Path.create("applicant.favorite_color"), "orange");
+
+    assertThat(data.readString(Path.create("applicant['favorite_color']"))).hasValue("orange");
+    assertThat(data.hasPath(Path.create("applicant['favorite_food']"))).isFalse();
+  }
+
   @Test
   public void hasValueAtPath_returnsTrueIfValuePresent() {
     ApplicantData data = new ApplicantData();
@@ -476,6 +504,97 @@ public class ApplicantDataTest {
         .hasMessage("Cannot change ApplicantData after it has been locked.");
   }
 
+  @Test
+  public void asImmutableSnapshot_isLockedAndHasSameContents() {
+    ApplicantData data = new ApplicantData(Optional.of(Locale.FRENCH), "{\"applicant\":{}}");
+    data.putString(Path.create("applicant.planet"), "Earth");
+
+    ApplicantData snapshot = data.asImmutableSnapshot();
+
+    assertThat(snapshot).isEqualTo(data);
+    assertThat(snapshot.preferredLocale()).isEqualTo(Locale.FRENCH);
+    assertThatThrownBy(() -> snapshot.putString(Path.create("applicant.planet"), "Mars"))
+        .isInstanceOf(RuntimeException.class)
+        .hasMessage("Cannot change ApplicantData after it has been locked.");
+    assertThat(snapshot.asImmutableSnapshot()).isSameAs(snapshot);
+  }
+
+  @Test
+  public void asImmutableSnapshot_laterChangesToOriginalAreNotVisible() {
+    ApplicantData data = new ApplicantData();
+    data.putString(Path.create("applicant.planet"), "Earth");
+    data.putRepeatedEntities(Path.create("applicant.moons[]"), ImmutableList.of("Luna"));
+
+    ApplicantData snapshot = data.asImmutableSnapshot();
+    data.putString(Path.create("applicant.planet"), "Mars");
+    data.putRepeatedEntities(
+        Path.create("applicant.moons[]"), ImmutableList.of("Phobos", "Deimos"));
+    data.deleteRepeatedEntities(Path.create("applicant.moons[]"), ImmutableList.of(0));
+
+    assertThat(snapshot.readString(Path.create("applicant.planet"))).hasValue("Earth");
+    assertThat(snapshot.readRepeatedEntities(Path.create("applicant.moons[]")))
+        .containsExactly("Luna");
+    assertThat(data.readString(Path.create("applicant.planet"))).hasValue("Mars");
+    assertThat(data.readRepeatedEntities(Path.create("applicant.moons[]")))
+        .containsExactly("Deimos");
+  }
+
+  @Test
+  public void projectedTo_keepsOnlyValuesAtPaths() {
+    ApplicantData data = new ApplicantData(Optional.of(Locale.FRENCH), "{\"applicant\":{}}");
+    data.putString(Path.create("applicant.name.first"), "Alice");
+    data.putString(Path.create("applicant.planet.name"), "Earth");
+    data.putLong(Path.create("applicant.planet.moons"), 1L);
+    data.putString(Path.create("applicant.color"), "blue");
+
+    ApplicantData projection =
+        data.projectedTo(
+            ImmutableSet.of(
+                Path.create("applicant.name"),
+                Path.create("applicant.planet.name"),
+                Path.create("applicant.missing")));
+
+    assertThat(projection.preferredLocale()).isEqualTo(Locale.FRENCH);
+    assertThat(projection.readString(Path.create("applicant.name.first"))).hasValue("Alice");
+    assertThat(projection.readString(Path.create("applicant.planet.name"))).hasValue("Earth");
+    assertThat(projection.hasPath(Path.create("applicant.planet.moons"))).isFalse();
+    assertThat(projection.hasPath(Path.create("applicant.color"))).isFalse();
+    assertThat(projection.hasPath(Path.create("applicant.missing"))).isFalse();
+
+    // The projection is a copy, so it does not change with the original.
+    data.putString(Path.create("applicant.name.first"), "Bob");
+    assertThat(projection.readString(Path.create("applicant.name.first"))).hasValue("Alice");
+  }
+
+  @Test
+  public void projectedTo_emptyArraySuffix_keepsValuesInEveryElement() {
+    ApplicantData data = new ApplicantData();
+    data.putRepeatedEntities(
+        Path.create("applicant.moons[]"), ImmutableList.of("Phobos", "Deimos"));
+    data.putString(Path.create("applicant.moons[0].color"), "grey");
+    data.putString(Path.create("applicant.moons[1].color"), "red");
+    data.putLong(Path.create("applicant.moons[1].size"), 6L);
+
+    ApplicantData projection =
+        data.projectedTo(ImmutableSet.of(Path.create("applicant.moons[].entity_name")));
+
+    assertThat(projection.readRepeatedEntities(Path.create("applicant.moons[]")))
+        .containsExactly("Phobos", "Deimos");
+    assertThat(projection.hasPath(Path.create("applicant.moons[0].color"))).isFalse();
+    assertThat(projection.hasPath(Path.create("applicant.moons[1].size"))).isFalse();
+
+    projection =
+        data.projectedTo(
+            ImmutableSet.of(
+                Path.create("applicant.moons[].entity_name"), Path.create("applicant.moons[1]")));
+
+    assertThat(projection.readString(Path.create("applicant.moons[0].entity_name")))
+        .hasValue("Phobos");
+    assertThat(projection.hasPath(Path.create("applicant.moons[0].color"))).isFalse();
+    assertThat(projection.readString(Path.create("applicant.moons[1].color"))).hasValue("red");
+    assertThat(projection.readLong(Path.create("applicant.moons[1].size"))).hasValue(6L);
+  }
+
   @Test
   public void clearArray() {
     ApplicantData data = new ApplicantData();
@@ -6,15 +6,26 @@ import static org.assertj.core.api.Assertions.catchThrowable;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.typesafe.config.Config;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Clock;
 import java.time.Instant;
 import java.util.Locale;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
 import models.Applicant;
 import models.Application;
 import models.LifecycleStage;
 import org.junit.Before;
 import org.junit.Test;
+import play.db.ebean.EbeanConfig;
+import play.libs.concurrent.HttpExecutionContext;
+import repository.AccountCache;
+import repository.ActiveProgramCatalog;
+import repository.ApplicationRepository;
+import repository.DatabaseExecutionContext;
 import repository.UserRepository;
 import repository.WithPostgresContainer;
 import services.LocalizedStrings;
@@ -23,9 +34,11 @@ import services.applicant.exception.ApplicantNotFoundException;
 import services.applicant.exception.ApplicationSubmissionException;
 import services.applicant.exception.ProgramBlockNotFoundException;
 import services.applicant.question.Scalar;
+import services.aws.SimpleStorage;
 import services.program.PathNotInBlockException;
 import services.program.ProgramDefinition;
 import services.program.ProgramNotFoundException;
+import services.program.ProgramService;
 import services.question.QuestionOption;
 import services.question.QuestionService;
 import services.question.types.CheckboxQuestionDefinition;
@@ -87,6 +100,60 @@ public class ApplicantServiceImplTest extends WithPostgresContainer {
     assertThat(applicantDataAfter.asJsonString()).contains("Alice", "Doe");
   }
 
+  @Test
+  public void stageAndUpdateIfValid_applicantUpdatedConcurrently_keepsBothUpdates() {
+    Applicant applicant = subject.createApplicant(1L).toCompletableFuture().join();
+    // Saves another answer after the service first looks up the applicant, but before it saves.
+    UserRepository interferingRepository =
+        new UserRepository(
+            instanceOf(EbeanConfig.class),
+            instanceOf(DatabaseExecutionContext.class),
+            instanceOf(ActiveProgramCatalog.class),
+            instanceOf(AccountCache.class)) {
+          private boolean interfered;
+
+          @Override
+          public CompletionStage<Optional<Applicant>> lookupApplicant(long id) {
+            return super.lookupApplicant(id)
+                .thenCompose(
+                    loaded -> {
+                      if (interfered) {
+                        return CompletableFuture.completedFuture(loaded);
+                      }
+                      interfered = true;
+                      Applicant other = lookupApplicantSync(id).get();
+                      other.getApplicantData().putString(Path.create("applicant.color"), "blue");
+                      return updateApplicant(other).thenApply(v -> loaded);
+                    });
+          }
+        };
+    ApplicantServiceImpl service =
+        new ApplicantServiceImpl(
+            instanceOf(ApplicationRepository.class),
+            interferingRepository,
+            instanceOf(ProgramService.class),
+            instanceOf(SimpleStorage.class),
+            instanceOf(Clock.class),
+            instanceOf(HttpExecutionContext.class),
+            instanceOf(MeterRegistry.class),
+            instanceOf(Config.class));
+
+    ImmutableMap<String, String> updates =
+        ImmutableMap.<String, String>builder()
+            .put(Path.create("applicant.name").join(Scalar.FIRST_NAME).toString(), "Alice")
+            .put(Path.create("applicant.name").join(Scalar.LAST_NAME).toString(), "Doe")
+            .build();
+    service
+        .stageAndUpdateIfValid(applicant.id, programDefinition.id(), "1", updates)
+        .toCompletableFuture()
+        .join();
+
+    ApplicantData applicantDataAfter =
+        userRepository.lookupApplicantSync(applicant.id).get().getApplicantData();
+    assertThat(applicantDataAfter.readString(Path.create("applicant.color"))).hasValue("blue");
+    assertThat(applicantDataAfter.asJsonString()).contains("Alice", "Doe");
+  }
+
   @Test
   public void stageAndUpdateIfValid_updatesMetadataForQuestionOnce() {
     Applicant applicant = subject.createApplicant(1L).toCompletableFuture().join();
@@ -455,6 +522,35 @@ public class ApplicantServiceImplTest extends WithPostgresContainer {
     assertThat(newApplication.getApplicantData().asJsonString()).contains("Bob", "Elisa");
   }
 
+  @Test
+  public void submitApplication_storesOnlyAnswersToProgram() {
+    Applicant applicant = subject.createApplicant(1L).toCompletableFuture().join();
+    applicant.getApplicantData().putString(Path.create("applicant.other_program.color"), "blue");
+    userRepository.updateApplicant(applicant).toCompletableFuture().join();
+    ImmutableMap<String, String> updates =
+        ImmutableMap.<String, String>builder()
+            .put(Path.create("applicant.name").join(Scalar.FIRST_NAME).toString(), "Alice")
+            .put(Path.create("applicant.name").join(Scalar.LAST_NAME).toString(), "Doe")
+            .build();
+    subject
+        .stageAndUpdateIfValid(applicant.id, programDefinition.id(), "1", updates)
+        .toCompletableFuture()
+        .join();
+
+    Application application =
+        subject
+            .submitApplication(applicant.id, programDefinition.id())
+            .toCompletableFuture()
+            .join();
+
+    ApplicantData applicationData = application.getApplicantData();
+    assertThat(applicationData.readString(Path.create("applicant.name.first_name")))
+        .hasValue("Alice");
+    assertThat(applicationData.readString(Path.create("applicant.name.last_name")))
+        .hasValue("Doe");
+    assertThat(applicationData.hasPath(Path.create("applicant.other_program"))).isFalse();
+  }
+
   @Test
   public void submitApplication_failsWithApplicationSubmissionException() {
     assertThatExceptionOfType(CompletionException.class)
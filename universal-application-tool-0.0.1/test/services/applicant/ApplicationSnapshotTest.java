@@ -0,0 +1,105 @@
+package services.applicant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Locale;
+import java.util.Optional;
+import org.junit.Test;
+import services.LocalizedStrings;
+import services.Path;
+import services.program.BlockDefinition;
+import services.program.Column;
+import services.program.ColumnType;
+import services.program.CsvExportConfig;
+import services.program.ExportDefinition;
+import services.program.ExportEngine;
+import services.program.ProgramDefinition;
+import services.program.ProgramQuestionDefinition;
+import services.question.types.QuestionDefinition;
+import support.TestQuestionBank;
+
+public class ApplicationSnapshotTest {
+
+  private static final TestQuestionBank testQuestionBank = new TestQuestionBank(false);
+
+  @Test
+  public void pathsFor_includesProgramQuestionsNameAndExportColumns() {
+    QuestionDefinition color = testQuestionBank.applicantFavoriteColor().getQuestionDefinition();
+    QuestionDefinition householdMembers =
+        testQuestionBank.applicantHouseholdMembers().getQuestionDefinition();
+    QuestionDefinition householdMemberName =
+        testQuestionBank.applicantHouseholdMemberName().getQuestionDefinition();
+    ProgramDefinition program =
+        programBuilder()
+            .addBlockDefinition(
+                BlockDefinition.builder()
+                    .setId(1L)
+                    .setName("Block Name")
+                    .setDescription("Block Description")
+                    .addQuestion(ProgramQuestionDefinition.create(color))
+                    .addQuestion(ProgramQuestionDefinition.create(householdMembers))
+                    .build())
+            .addBlockDefinition(
+                BlockDefinition.builder()
+                    .setId(2L)
+                    .setName("Block Name")
+                    .setDescription("Block Description")
+                    .setEnumeratorId(Optional.of(householdMembers.getId()))
+                    .addQuestion(ProgramQuestionDefinition.create(householdMemberName))
+                    .build())
+            .addExportDefinition(
+                ExportDefinition.builder()
+                    .setEngine(ExportEngine.CSV)
+                    .setCsvConfig(
+                        Optional.of(
+                            CsvExportConfig.builder()
+                                .addColumn(
+                                    Column.builder()
+                                        .setHeader("planet")
+                                        .setJsonPath(Path.create("$.applicant.planet.name"))
+                                        .setColumnType(ColumnType.APPLICANT)
+                                        .build())
+                                .build()))
+                    .build())
+            .build();
+
+    Path householdMembersPath =
+        ApplicantData.APPLICANT_PATH.join(householdMembers.getQuestionPathSegment());
+    assertThat(ApplicationSnapshot.pathsFor(program).get())
+        .containsExactlyInAnyOrder(
+            Path.create("applicant.name"),
+            ApplicantData.APPLICANT_PATH.join(color.getQuestionPathSegment()),
+            householdMembersPath.join("entity_name"),
+            householdMembersPath.join("updated_at"),
+            householdMembersPath.join("program_updated_in"),
+            householdMembersPath.join(householdMemberName.getQuestionPathSegment()),
+            Path.create("applicant.planet.name"));
+  }
+
+  @Test
+  public void pathsFor_enumeratorNotInProgram_isEmpty() {
+    QuestionDefinition householdMemberName =
+        testQuestionBank.applicantHouseholdMemberName().getQuestionDefinition();
+    ProgramDefinition program =
+        programBuilder()
+            .addBlockDefinition(
+                BlockDefinition.builder()
+                    .setId(1L)
+                    .setName("Block Name")
+                    .setDescription("Block Description")
+                    .addQuestion(ProgramQuestionDefinition.create(householdMemberName))
+                    .build())
+            .build();
+
+    assertThat(ApplicationSnapshot.pathsFor(program)).isEmpty();
+  }
+
+  private static ProgramDefinition.Builder programBuilder() {
+    return ProgramDefinition.builder()
+        .setId(123L)
+        .setAdminName("Admin name")
+        .setAdminDescription("Admin description")
+        .setLocalizedName(LocalizedStrings.of(Locale.US, "The Program"))
+        .setLocalizedDescription(LocalizedStrings.of(Locale.US, "This program is for testing."));
+  }
+}
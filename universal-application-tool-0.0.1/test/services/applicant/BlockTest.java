@@ -228,6 +228,23 @@ public class BlockTest {
     assertThat(block.isCompleteWithoutErrors()).isTrue();
   }
 
+  @Test
+  public void isComplete_lockedApplicantData_returnsSameResultOnRepeatedCalls() {
+    ApplicantData applicantData = new ApplicantData();
+    answerNameQuestion(applicantData, UNUSED_PROGRAM_ID);
+    BlockDefinition definition = setUpBlockWithQuestions();
+
+    Block block =
+        new Block("1", definition, applicantData.asImmutableSnapshot(), Optional.empty());
+
+    assertThat(block.isCompleteWithoutErrors()).isFalse();
+
+    // Changes to the original data are not visible to the block's snapshot.
+    answerColorQuestion(applicantData, UNUSED_PROGRAM_ID);
+    assertThat(block.isCompleteWithoutErrors()).isFalse();
+    assertThat(block.hasErrors()).isFalse();
+  }
+
   @Test
   public void wasCompletedInProgram_returnsFalse() {
     ApplicantData applicantData = new ApplicantData();
@@ -0,0 +1,128 @@
+package services.applicant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import akka.actor.ActorSystem;
+import com.typesafe.config.Config;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Clock;
+import java.time.Duration;
+import models.Account;
+import models.Applicant;
+import models.Program;
+import org.junit.Before;
+import org.junit.Test;
+import play.inject.ApplicationLifecycle;
+import repository.ApplicationRepository;
+import repository.NotificationDatabaseExecutionContext;
+import repository.ProgramAdminNotificationRepository;
+import repository.WithPostgresContainer;
+import services.aws.FakeSesClient;
+import services.aws.SimpleEmail;
+import services.program.ProgramService;
+import software.amazon.awssdk.services.ses.model.SendEmailRequest;
+import support.ProgramBuilder;
+
+public class ProgramAdminNotificationDispatcherTest extends WithPostgresContainer {
+
+  private ApplicationRepository applicationRepository;
+  private FakeSesClient fakeSesClient;
+  private Program program;
+
+  @Before
+  public void setUp() {
+    applicationRepository = instanceOf(ApplicationRepository.class);
+    fakeSesClient = instanceOf(FakeSesClient.class);
+    fakeSesClient.reset();
+    program = ProgramBuilder.newActiveProgram("test program").build();
+    Account admin = new Account();
+    admin.setEmailAddress("admin@example.com");
+    admin.addAdministeredProgram(program.getProgramDefinition());
+    admin.save();
+  }
+
+  @Test
+  public void dispatch_sendsNotificationOfSubmittedApplication() {
+    Applicant applicant = submitApplication();
+
+    assertThat(fakeSesClient.getSentEmails()).isEmpty();
+    assertThat(newDispatcher(Clock.systemUTC()).dispatch()).isEqualTo(1);
+
+    assertThat(fakeSesClient.getSentEmails()).hasSize(1);
+    SendEmailRequest email = fakeSesClient.getSentEmails().get(0);
+    assertThat(email.destination().toAddresses()).containsExactly("admin@example.com");
+    assertThat(email.message().subject().data())
+        .isEqualTo(String.format("Applicant %d submitted a new application", applicant.id));
+    assertThat(email.message().body().text().data()).contains("test program");
+  }
+
+  @Test
+  public void dispatch_notificationsToSameProgram_areSentAsOneEmail() {
+    submitApplication();
+    submitApplication();
+
+    assertThat(newDispatcher(Clock.systemUTC()).dispatch()).isEqualTo(2);
+
+    assertThat(fakeSesClient.getSentEmails()).hasSize(1);
+    assertThat(fakeSesClient.getSentEmails().get(0).message().subject().data())
+        .isEqualTo("2 new applications were submitted to program test program");
+  }
+
+  @Test
+  public void dispatch_sentNotificationsAreNotSentAgain() {
+    submitApplication();
+    ProgramAdminNotificationDispatcher dispatcher = newDispatcher(Clock.systemUTC());
+
+    dispatcher.dispatch();
+
+    assertThat(dispatcher.dispatch()).isEqualTo(0);
+    assertThat(fakeSesClient.getSentEmails()).hasSize(1);
+  }
+
+  @Test
+  public void dispatch_sendFails_triesAgainAfterDelay() {
+    submitApplication();
+    fakeSesClient.setFailing(true);
+
+    assertThat(newDispatcher(Clock.systemUTC()).dispatch()).isEqualTo(1);
+    fakeSesClient.setFailing(false);
+
+    // The notification is not due again until the retry delay has passed.
+    assertThat(newDispatcher(Clock.systemUTC()).dispatch()).isEqualTo(0);
+    Clock later =
+        Clock.offset(
+            Clock.systemUTC(),
+            ProgramAdminNotificationDispatcher.FIRST_RETRY_DELAY.plusSeconds(1));
+    assertThat(newDispatcher(later).dispatch()).isEqualTo(1);
+    assertThat(fakeSesClient.getSentEmails()).hasSize(1);
+  }
+
+  @Test
+  public void retryDelay_doublesUpToMaximum() {
+    assertThat(ProgramAdminNotificationDispatcher.retryDelay(1)).isEqualTo(Duration.ofMinutes(1));
+    assertThat(ProgramAdminNotificationDispatcher.retryDelay(2)).isEqualTo(Duration.ofMinutes(2));
+    assertThat(ProgramAdminNotificationDispatcher.retryDelay(3)).isEqualTo(Duration.ofMinutes(4));
+    assertThat(ProgramAdminNotificationDispatcher.retryDelay(100))
+        .isEqualTo(ProgramAdminNotificationDispatcher.MAX_RETRY_DELAY);
+  }
+
+  private Applicant submitApplication() {
+    Applicant applicant = new Applicant();
+    applicant.save();
+    applicationRepository.submitApplication(applicant, program).toCompletableFuture().join();
+    return applicant;
+  }
+
+  private ProgramAdminNotificationDispatcher newDispatcher(Clock clock) {
+    return new ProgramAdminNotificationDispatcher(
+        instanceOf(ProgramAdminNotificationRepository.class),
+        instanceOf(ProgramService.class),
+        instanceOf(SimpleEmail.class),
+        clock,
+        instanceOf(Config.class),
+        instanceOf(ActorSystem.class),
+        instanceOf(NotificationDatabaseExecutionContext.class),
+        instanceOf(ApplicationLifecycle.class),
+        instanceOf(MeterRegistry.class));
+  }
+}
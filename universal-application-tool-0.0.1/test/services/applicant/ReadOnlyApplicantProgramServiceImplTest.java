@@ -5,6 +5,7 @@ import static org.junit.Assert.assertEquals;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 import java.util.AbstractMap;
 import java.util.Locale;
 import java.util.Optional;
@@ -579,6 +580,57 @@ public class ReadOnlyApplicantProgramServiceImplTest extends WithPostgresContain
     assertThat(subject.getBlockIndex("not a real block id")).isEqualTo(-1);
   }
 
+  @Test
+  public void withUpdatedData_rebuildsOnlyBlocksThatDependOnChangedPaths() {
+    ReadOnlyApplicantProgramServiceImpl subject =
+        new ReadOnlyApplicantProgramServiceImpl(amazonS3Client, applicantData, programDefinition);
+    assertThat(subject.getInProgressBlocks()).hasSize(2);
+
+    answerNameQuestion(programDefinition.id());
+    // Also answer the second block, without reporting it as changed: its block is carried over
+    // with the completeness computed before the change.
+    answerColorQuestion(programDefinition.id());
+    answerAddressQuestion(programDefinition.id());
+    ImmutableSet<Path> changedPaths = ImmutableSet.of(Path.create("applicant.applicant_name"));
+    ImmutableList<Block> blocks =
+        subject.withUpdatedData(applicantData, changedPaths).getAllBlocks();
+
+    assertThat(blocks.get(0).isCompleteWithoutErrors()).isTrue();
+    assertThat(blocks.get(1).isCompleteWithoutErrors()).isFalse();
+  }
+
+  @Test
+  public void withUpdatedData_enumeratorChanged_rebuildsRepeatedBlocks() {
+    programDefinition =
+        ProgramBuilder.newActiveProgram()
+            .withBlock("name")
+            .withQuestion(testQuestionBank.applicantName())
+            .withBlock("enumeration - household members")
+            .withQuestion(testQuestionBank.applicantHouseholdMembers())
+            .withRepeatedBlock("repeated - household members name")
+            .withQuestion(testQuestionBank.applicantHouseholdMemberName())
+            .buildDefinition();
+    Path enumerationPath =
+        ApplicantData.APPLICANT_PATH.join(
+            testQuestionBank
+                .applicantHouseholdMembers()
+                .getQuestionDefinition()
+                .getQuestionPathSegment());
+    applicantData.putString(enumerationPath.atIndex(0).join(Scalar.ENTITY_NAME), "first entity");
+    ReadOnlyApplicantProgramServiceImpl subject =
+        new ReadOnlyApplicantProgramServiceImpl(amazonS3Client, applicantData, programDefinition);
+    assertThat(subject.getAllBlocks()).hasSize(3);
+
+    applicantData.putString(enumerationPath.atIndex(1).join(Scalar.ENTITY_NAME), "second entity");
+    ImmutableList<Block> blocks =
+        subject.withUpdatedData(applicantData, ImmutableSet.of(enumerationPath)).getAllBlocks();
+
+    assertThat(blocks).hasSize(4);
+    assertThat(blocks.stream().map(Block::getId)).containsExactly("1", "2", "3-0", "3-1");
+    assertThat(blocks.get(3).getId()).isEqualTo("3-1");
+    assertThat(blocks.get(3).getRepeatedEntity().get().entityName()).isEqualTo("second entity");
+  }
+
   private void answerNameQuestion(long programId) {
     Path path = Path.create("applicant.applicant_name");
     QuestionAnswerer.answerNameQuestion(applicantData, path, "Alice", "Middle", "Last");
@@ -2,6 +2,8 @@ package services.export;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import akka.stream.javadsl.Source;
+import akka.util.ByteString;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import java.io.ByteArrayOutputStream;
@@ -357,5 +359,161 @@ public class CsvExporterTest extends WithPostgresContainer {
                     "applicant household members[1] - household members jobs[0] - household"
                         + " members jobs income (number)"))
         .isEqualTo("");
+
+    // The streamed CSV contains exactly the same rows as the in-memory CSV, header included, each
+    // time the source is run.
+    Source<ByteString, ?> csvSource = exporterService.getProgramCsvSource(program.id);
+    String expectedCsv = exporterService.getProgramCsv(program.id);
+    for (int run = 0; run < 2; run++) {
+      String streamedCsv =
+          csvSource
+              .runFold(ByteString.emptyByteString(), ByteString::concat, mat)
+              .toCompletableFuture()
+              .join()
+              .utf8String();
+      assertThat(streamedCsv).isEqualTo(expectedCsv);
+    }
+  }
+
+  @Test
+  public void defaultCsvConfig_hasColumnsForQuestionsAnsweredInAnyApplication() throws Exception {
+    Question nameQuestion = testQuestionBank.applicantName();
+    Question colorQuestion = testQuestionBank.applicantFavoriteColor();
+    Question householdMembersQuestion = testQuestionBank.applicantHouseholdMembers();
+    Question hmNameQuestion = testQuestionBank.applicantHouseholdMemberName();
+    Question hmJobsQuestion = testQuestionBank.applicantHouseholdMemberJobs();
+    Question hmJobIncomeQuestion = testQuestionBank.applicantHouseholdMemberJobIncome();
+    Program program =
+        ProgramBuilder.newActiveProgram()
+            .withBlock()
+            .withQuestions(nameQuestion, colorQuestion)
+            .withBlock()
+            .withQuestion(householdMembersQuestion)
+            .withRepeatedBlock()
+            .withQuestion(hmNameQuestion)
+            .withAnotherRepeatedBlock()
+            .withQuestion(hmJobsQuestion)
+            .withRepeatedBlock()
+            .withQuestion(hmJobIncomeQuestion)
+            .build();
+    ExporterService exporterService = instanceOf(ExporterService.class);
+    Path hmPath =
+        ApplicantData.APPLICANT_PATH.join(
+            householdMembersQuestion.getQuestionDefinition().getQuestionPathSegment());
+    String hmJobPathSegment = hmJobsQuestion.getQuestionDefinition().getQuestionPathSegment();
+    String hmJobIncomePathSegment =
+        hmJobIncomeQuestion.getQuestionDefinition().getQuestionPathSegment();
+
+    // First applicant only answers the color question, and has one household member with one
+    // job, neither of which is described.
+    Applicant firstApplicant = new Applicant();
+    QuestionAnswerer.answerTextQuestion(
+        firstApplicant.getApplicantData(),
+        ApplicantData.APPLICANT_PATH.join(
+            colorQuestion.getQuestionDefinition().getQuestionPathSegment()),
+        "coquelicot");
+    QuestionAnswerer.answerEnumeratorQuestion(
+        firstApplicant.getApplicantData(), hmPath, ImmutableList.of("Anne"));
+    QuestionAnswerer.answerEnumeratorQuestion(
+        firstApplicant.getApplicantData(),
+        hmPath.atIndex(0).join(hmJobPathSegment),
+        ImmutableList.of("Anne's job"));
+    firstApplicant.save();
+    new Application(firstApplicant, program, LifecycleStage.ACTIVE).save();
+
+    // Second applicant only answers the name question, and has two household members. Only the
+    // second one is named, and only their second of two jobs has an income.
+    Applicant secondApplicant = new Applicant();
+    QuestionAnswerer.answerNameQuestion(
+        secondApplicant.getApplicantData(),
+        ApplicantData.APPLICANT_PATH.join(
+            nameQuestion.getQuestionDefinition().getQuestionPathSegment()),
+        "John",
+        "",
+        "Doe");
+    QuestionAnswerer.answerEnumeratorQuestion(
+        secondApplicant.getApplicantData(), hmPath, ImmutableList.of("Bailey", "Casey"));
+    QuestionAnswerer.answerNameQuestion(
+        secondApplicant.getApplicantData(),
+        hmPath.atIndex(1).join(hmNameQuestion.getQuestionDefinition().getQuestionPathSegment()),
+        "Casey",
+        "",
+        "Caseyson");
+    QuestionAnswerer.answerEnumeratorQuestion(
+        secondApplicant.getApplicantData(),
+        hmPath.atIndex(1).join(hmJobPathSegment),
+        ImmutableList.of("Casey's first job", "Casey's second job"));
+    QuestionAnswerer.answerNumberQuestion(
+        secondApplicant.getApplicantData(),
+        hmPath.atIndex(1).join(hmJobPathSegment).atIndex(1).join(hmJobIncomePathSegment),
+        222);
+    secondApplicant.save();
+    new Application(secondApplicant, program, LifecycleStage.ACTIVE).save();
+
+    CSVParser parser =
+        CSVParser.parse(
+            exporterService.getProgramCsv(program.id), CSVFormat.DEFAULT.withFirstRecordAsHeader());
+
+    // Every question gets its columns whether or not it was answered, and there is a column for
+    // every repeated entity in any application, in block order.
+    assertThat(parser.getHeaderMap())
+        .containsExactlyEntriesOf(
+            ImmutableMap.<String, Integer>builder()
+                .put("ID", 0)
+                .put("Submit time", 1)
+                .put("applicant name (first_name)", 2)
+                .put("applicant name (middle_name)", 3)
+                .put("applicant name (last_name)", 4)
+                .put("applicant favorite color (text)", 5)
+                .put("applicant household members[0] - household members name (first_name)", 6)
+                .put("applicant household members[0] - household members name (middle_name)", 7)
+                .put("applicant household members[0] - household members name (last_name)", 8)
+                .put("applicant household members[1] - household members name (first_name)", 9)
+                .put("applicant household members[1] - household members name (middle_name)", 10)
+                .put("applicant household members[1] - household members name (last_name)", 11)
+                .put(
+                    "applicant household members[0] - household members jobs[0] - household"
+                        + " members jobs income (number)",
+                    12)
+                .put(
+                    "applicant household members[1] - household members jobs[0] - household"
+                        + " members jobs income (number)",
+                    13)
+                .put(
+                    "applicant household members[1] - household members jobs[1] - household"
+                        + " members jobs income (number)",
+                    14)
+                .build());
+
+    List<CSVRecord> records = parser.getRecords();
+    assertThat(records).hasSize(2);
+    assertThat(records.get(0).get("applicant name (first_name)")).isEqualTo("");
+    assertThat(records.get(0).get("applicant favorite color (text)")).isEqualTo("coquelicot");
+    assertThat(records.get(1).get("applicant name (first_name)")).isEqualTo("John");
+    assertThat(records.get(1).get("applicant favorite color (text)")).isEqualTo("");
+    assertThat(
+            records
+                .get(0)
+                .get("applicant household members[1] - household members name (first_name)"))
+        .isEqualTo("");
+    assertThat(
+            records
+                .get(1)
+                .get("applicant household members[1] - household members name (first_name)"))
+        .isEqualTo("Casey");
+    assertThat(
+            records
+                .get(1)
+                .get(
+                    "applicant household members[0] - household members jobs[0] - household"
+                        + " members jobs income (number)"))
+        .isEqualTo("");
+    assertThat(
+            records
+                .get(1)
+                .get(
+                    "applicant household members[1] - household members jobs[1] - household"
+                        + " members jobs income (number)"))
+        .isEqualTo("222");
   }
 }
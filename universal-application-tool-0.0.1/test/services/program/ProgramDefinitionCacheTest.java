@@ -0,0 +1,100 @@
+package services.program;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.typesafe.config.ConfigFactory;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Locale;
+import org.junit.Test;
+import services.LocalizedStrings;
+
+public class ProgramDefinitionCacheTest {
+
+  private static final ProgramDefinition PROGRAM =
+      ProgramDefinition.builder()
+          .setId(123L)
+          .setAdminName("Admin name")
+          .setAdminDescription("Admin description")
+          .setLocalizedName(LocalizedStrings.of(Locale.US, "The Program"))
+          .setLocalizedDescription(LocalizedStrings.of(Locale.US, "This program is for testing."))
+          .build();
+
+  private final FakeClock clock = new FakeClock(Instant.parse("2021-06-01T12:00:00Z"));
+  private final ProgramDefinitionCache cache =
+      new ProgramDefinitionCache(
+          ConfigFactory.parseString("program_cache.time_to_live = 30 seconds"), clock);
+
+  @Test
+  public void get_emptyCache_isEmpty() {
+    assertThat(cache.get(123L)).isEmpty();
+  }
+
+  @Test
+  public void get_afterPut_returnsDefinition() {
+    cache.put(cache.currentGeneration(), PROGRAM);
+
+    assertThat(cache.get(123L)).hasValue(PROGRAM);
+    assertThat(cache.get(456L)).isEmpty();
+  }
+
+  @Test
+  public void invalidateAll_removesCachedDefinitions() {
+    cache.put(cache.currentGeneration(), PROGRAM);
+
+    cache.invalidateAll();
+
+    assertThat(cache.get(123L)).isEmpty();
+  }
+
+  @Test
+  public void put_definitionLoadedBeforeInvalidation_isNotCached() {
+    long generation = cache.currentGeneration();
+
+    cache.invalidateAll();
+    cache.put(generation, PROGRAM);
+
+    assertThat(cache.get(123L)).isEmpty();
+  }
+
+  @Test
+  public void get_afterTimeToLive_isEmpty() {
+    cache.put(cache.currentGeneration(), PROGRAM);
+
+    clock.advance(Duration.ofSeconds(29));
+    assertThat(cache.get(123L)).hasValue(PROGRAM);
+
+    clock.advance(Duration.ofSeconds(1));
+    assertThat(cache.get(123L)).isEmpty();
+  }
+
+  private static final class FakeClock extends Clock {
+    private Instant now;
+
+    private FakeClock(Instant now) {
+      this.now = now;
+    }
+
+    private void advance(Duration duration) {
+      now = now.plus(duration);
+    }
+
+    @Override
+    public ZoneId getZone() {
+      return ZoneOffset.UTC;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+      return this;
+    }
+
+    @Override
+    public Instant instant() {
+      return now;
+    }
+  }
+}
@@ -6,13 +6,17 @@ import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import com.google.common.collect.ImmutableList;
 import forms.BlockForm;
 import java.util.Locale;
+import java.util.Optional;
 import java.util.concurrent.CompletionException;
 import java.util.concurrent.CompletionStage;
 import models.Account;
+import models.Application;
+import models.LifecycleStage;
 import models.Program;
 import models.Question;
 import org.junit.Before;
 import org.junit.Test;
+import repository.ApplicationCursor;
 import repository.WithPostgresContainer;
 import services.CiviFormError;
 import services.ErrorAnd;
@@ -457,6 +461,22 @@ public class ProgramServiceImplTest extends WithPostgresContainer {
     ;
   }
 
+  @Test
+  public void addQuestionsToBlockAsync_withDuplicatedQuestions_completesExceptionally() {
+    QuestionDefinition questionA = nameQuestion;
+
+    Program program =
+        ProgramBuilder.newDraftProgram().withBlock().withQuestionDefinition(questionA).build();
+
+    assertThatThrownBy(
+            () ->
+                ps.addQuestionsToBlockAsync(program.id, 1L, ImmutableList.of(questionA.getId()))
+                    .toCompletableFuture()
+                    .join())
+        .isInstanceOf(CompletionException.class)
+        .hasCauseInstanceOf(DuplicateProgramQuestionException.class);
+  }
+
   @Test
   public void addQuestionsToBlock_addsQuestionsToTheBlock() throws Exception {
     QuestionDefinition questionA = nameQuestion;
@@ -474,6 +494,27 @@ public class ProgramServiceImplTest extends WithPostgresContainer {
     assertThat(program.hasQuestion(questionB)).isTrue();
   }
 
+  @Test
+  public void addQuestionsToBlockAsync_concurrentAdds_keepsEveryQuestion() throws Exception {
+    ProgramDefinition program =
+        ProgramBuilder.newDraftProgram()
+            .withBlock()
+            .withQuestionDefinition(nameQuestion)
+            .buildDefinition();
+
+    CompletionStage<ProgramDefinition> addAddress =
+        ps.addQuestionsToBlockAsync(program.id(), 1L, ImmutableList.of(addressQuestion.getId()));
+    CompletionStage<ProgramDefinition> addColor =
+        ps.addQuestionsToBlockAsync(program.id(), 1L, ImmutableList.of(colorQuestion.getId()));
+    addAddress.toCompletableFuture().join();
+    addColor.toCompletableFuture().join();
+
+    ProgramDefinition found = ps.getProgramDefinition(program.id());
+    assertThat(found.hasQuestion(nameQuestion)).isTrue();
+    assertThat(found.hasQuestion(addressQuestion)).isTrue();
+    assertThat(found.hasQuestion(colorQuestion)).isTrue();
+  }
+
   @Test
   public void removeQuestionsFromBlock_withoutQuestion_throwsQuestionNotFoundException()
       throws Exception {
@@ -699,4 +740,63 @@ public class ProgramServiceImplTest extends WithPostgresContainer {
     // Return program admins when there are.
     assertThat(ps.getNotificationEmailAddresses(programName)).containsExactly(programAdminEmail);
   }
+
+  @Test
+  public void getProgramApplicationsAsync_pagesByCursor() {
+    Program program = ProgramBuilder.newActiveProgram("program").build();
+    ImmutableList.Builder<Application> applications = ImmutableList.builder();
+    for (int i = 0; i < 5; i++) {
+      Application application =
+          new Application(resourceCreator.insertApplicant(), program, LifecycleStage.ACTIVE);
+      application.save();
+      applications.add(application);
+    }
+    ImmutableList<Application> all = applications.build();
+
+    ApplicationsPage first =
+        ps.getProgramApplicationsAsync(
+                program.id, Optional.empty(), Optional.empty(), Optional.empty(), 2, 1)
+            .toCompletableFuture()
+            .join();
+    assertThat(first.applications()).containsExactly(all.get(0), all.get(1));
+    assertThat(first.hasPreviousPage()).isFalse();
+    assertThat(first.hasNextPage()).isTrue();
+
+    ApplicationsPage last =
+        ps.getProgramApplicationsAsync(
+                program.id,
+                Optional.empty(),
+                Optional.of(ApplicationCursor.of(all.get(3))),
+                Optional.empty(),
+                2,
+                3)
+            .toCompletableFuture()
+            .join();
+    assertThat(last.applications()).containsExactly(all.get(4));
+    assertThat(last.page()).isEqualTo(3);
+    assertThat(last.hasPreviousPage()).isTrue();
+    assertThat(last.hasNextPage()).isFalse();
+
+    // There is only one application before the cursor, so the full first page is returned.
+    ApplicationsPage previous =
+        ps.getProgramApplicationsAsync(
+                program.id,
+                Optional.empty(),
+                Optional.empty(),
+                Optional.of(ApplicationCursor.of(all.get(1))),
+                2,
+                2)
+            .toCompletableFuture()
+            .join();
+    assertThat(previous.applications()).containsExactly(all.get(0), all.get(1));
+    assertThat(previous.page()).isEqualTo(1);
+    assertThat(previous.hasPreviousPage()).isFalse();
+  }
+
+  @Test
+  public void getProgramApplications_noProgram_failsWithProgramNotFoundException() {
+    assertThatThrownBy(() -> ps.getProgramApplications(1L).toCompletableFuture().join())
+        .isInstanceOf(CompletionException.class)
+        .hasCauseInstanceOf(ProgramNotFoundException.class);
+  }
 }
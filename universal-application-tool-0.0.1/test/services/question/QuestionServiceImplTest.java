@@ -93,6 +93,47 @@ public class QuestionServiceImplTest extends WithPostgresContainer {
     assertThat(emptyService.getAllQuestions()).isEmpty();
   }
 
+  @Test
+  public void getReadOnlyQuestionService_questionsUnchanged_returnsSameService() {
+    questionService.create(questionDefinition);
+
+    ReadOnlyQuestionService first =
+        questionService.getReadOnlyQuestionService().toCompletableFuture().join();
+    ReadOnlyQuestionService second =
+        questionService.getReadOnlyQuestionService().toCompletableFuture().join();
+
+    assertThat(second).isSameAs(first);
+  }
+
+  @Test
+  public void getReadOnlyQuestionService_afterQuestionCreated_includesNewQuestion() {
+    ReadOnlyQuestionService before =
+        questionService.getReadOnlyQuestionService().toCompletableFuture().join();
+
+    questionService.create(questionDefinition);
+    ReadOnlyQuestionService after =
+        questionService.getReadOnlyQuestionService().toCompletableFuture().join();
+
+    assertThat(before.getAllQuestions()).isEmpty();
+    assertThat(after.getAllQuestions()).hasSize(1);
+  }
+
+  @Test
+  public void getReadOnlyQuestionService_afterDraftQuestionUpdated_includesUpdate()
+      throws Exception {
+    QuestionDefinition draft = questionService.create(questionDefinition).getResult();
+    questionService.getReadOnlyQuestionService().toCompletableFuture().join();
+
+    QuestionDefinition toUpdate =
+        new QuestionDefinitionBuilder(draft).setDescription("updated description").build();
+    questionService.update(toUpdate);
+    ReadOnlyQuestionService after =
+        questionService.getReadOnlyQuestionService().toCompletableFuture().join();
+
+    assertThat(after.getQuestionDefinition(draft.getId()).getDescription())
+        .isEqualTo("updated description");
+  }
+
   @Test
   public void update_returnsQuestionDefinitionWhenSucceeds() throws Exception {
     QuestionDefinition nameQuestion = testQuestionBank.applicantName().getQuestionDefinition();
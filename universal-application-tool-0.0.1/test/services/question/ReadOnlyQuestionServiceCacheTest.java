@@ -0,0 +1,91 @@
+package services.question;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import com.typesafe.config.ConfigFactory;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import org.junit.Test;
+
+public class ReadOnlyQuestionServiceCacheTest {
+
+  private final ReadOnlyQuestionService service = mock(ReadOnlyQuestionService.class);
+  private final FakeClock clock = new FakeClock(Instant.parse("2021-06-01T12:00:00Z"));
+  private final ReadOnlyQuestionServiceCache cache =
+      new ReadOnlyQuestionServiceCache(
+          ConfigFactory.parseString("question_cache.fingerprint_recheck_interval = 2 seconds"),
+          clock);
+
+  @Test
+  public void getRecentlyCheckedService_isEmptyUntilUpdated() {
+    assertThat(cache.getRecentlyCheckedService()).isEmpty();
+
+    cache.update(cache.getSnapshot(), "fingerprint", service);
+
+    assertThat(cache.getRecentlyCheckedService()).contains(service);
+  }
+
+  @Test
+  public void getRecentlyCheckedService_afterRecheckInterval_isEmptyUntilMarkedChecked() {
+    cache.update(cache.getSnapshot(), "fingerprint", service);
+
+    clock.advance(Duration.ofSeconds(2));
+    assertThat(cache.getRecentlyCheckedService()).isEmpty();
+
+    cache.markChecked(cache.getSnapshot());
+    assertThat(cache.getRecentlyCheckedService()).contains(service);
+  }
+
+  @Test
+  public void getRecentlyCheckedService_afterInvalidate_isEmpty() {
+    cache.update(cache.getSnapshot(), "fingerprint", service);
+
+    cache.invalidate();
+
+    assertThat(cache.getRecentlyCheckedService()).isEmpty();
+    assertThat(cache.getSnapshot().getService("fingerprint")).isEmpty();
+  }
+
+  @Test
+  public void markChecked_afterInvalidate_doesNothing() {
+    cache.update(cache.getSnapshot(), "fingerprint", service);
+    ReadOnlyQuestionServiceCache.Snapshot snapshot = cache.getSnapshot();
+
+    cache.invalidate();
+    cache.markChecked(snapshot);
+
+    assertThat(cache.getRecentlyCheckedService()).isEmpty();
+  }
+
+  /** A clock that only moves when told to. */
+  private static final class FakeClock extends Clock {
+    private Instant now;
+
+    private FakeClock(Instant now) {
+      this.now = now;
+    }
+
+    private void advance(Duration duration) {
+      now = now.plus(duration);
+    }
+
+    @Override
+    public ZoneId getZone() {
+      return ZoneOffset.UTC;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+      return this;
+    }
+
+    @Override
+    public Instant instant() {
+      return now;
+    }
+  }
+}